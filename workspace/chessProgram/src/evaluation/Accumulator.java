@@ -0,0 +1,41 @@
+package evaluation;
+
+/**
+ * Holds the first layer of {@code NetworkEvaluation}'s network for one board, from both players' perspectives, in a slot of an
+ * {@code AccumulatorTable}. Accumulators are reused as the table's slots get replaced, so they should only be read until the next
+ * probe of the same table.
+ * @author matthewslesinski
+ *
+ */
+public class Accumulator {
+
+	/** The hashcode of the board this accumulator is for */
+	long key;
+
+	/** Whether this accumulator has been filled in yet */
+	boolean filled = false;
+
+	/** The accumulator from white's perspective */
+	final short[] whiteValues;
+
+	/** The accumulator from black's perspective */
+	final short[] blackValues;
+
+	/**
+	 * Creates an empty accumulator
+	 * @param size The size of the accumulator for each perspective
+	 */
+	Accumulator(int size) {
+		whiteValues = new short[size];
+		blackValues = new short[size];
+	}
+
+	/**
+	 * Gets the accumulator from one player's perspective, which must not be modified
+	 * @param white Whether it's white's perspective
+	 * @return The values
+	 */
+	public short[] getValues(boolean white) {
+		return white ? whiteValues : blackValues;
+	}
+}
@@ -0,0 +1,147 @@
+package evaluation;
+
+import gamePlaying.Color;
+import moves.Move;
+import representation.Board;
+import support.BadArgumentException;
+
+/**
+ * A fixed size cache of {@code Accumulator}s, keyed by the boards' hashcodes. A search evaluates a board shortly after evaluating the
+ * boards it came from, so rather than adding up a board's accumulator from scratch, the table looks back through the previous
+ * positions for one whose accumulator it still has, and changes that accumulator by the moves played since. Only a perspective whose
+ * king moved along the way is added up from scratch. Each board goes in the slot given by the low bits of its hashcode, and simply
+ * replaces whatever was there.
+ *
+ * A table isn't safe to share between threads, so every evaluator that uses one should have its own.
+ * @author matthewslesinski
+ *
+ */
+public class AccumulatorTable {
+
+	/** The most moves back the table looks for an accumulator to start from */
+	private static final int MAX_LOOKBACK = 4;
+
+	/** Masks a hashcode down to an index in the table */
+	private final int indexMask;
+
+	/** The accumulators in each slot, which are reused when the slot is replaced */
+	private final Accumulator[] entries;
+
+	/** The weights the accumulators are made of */
+	private final NetworkWeights weights;
+
+	/** The moves between the board being probed and the one its accumulator starts from, latest first */
+	private final Move[] moves = new Move[MAX_LOOKBACK];
+
+	/** The number of times the table was probed */
+	private long probes = 0;
+
+	/** The number of probes that found their board already in the table */
+	private long hits = 0;
+
+	/** The number of perspectives that had to be added up from scratch */
+	private long refreshes = 0;
+
+	/**
+	 * Creates a table with a given number of slots
+	 * @param size The number of slots. This must be a power of two
+	 * @param weights The weights the accumulators are made of
+	 */
+	public AccumulatorTable(int size, NetworkWeights weights) {
+		if (Integer.bitCount(size) != 1) {
+			throw new BadArgumentException(size, int.class, "The size of an accumulator table must be a power of two");
+		}
+		this.indexMask = size - 1;
+		this.weights = weights;
+		this.entries = new Accumulator[size];
+		for (int i = 0; i < size; i++) {
+			entries[i] = new Accumulator(weights.getAccumulatorSize());
+		}
+	}
+
+	/**
+	 * Gets the accumulator for a board, working it out if it isn't in the table
+	 * @param board The {@code Board}
+	 * @return The {@code Accumulator}, which is only valid until the next probe
+	 */
+	public Accumulator probe(Board board) {
+		long key = board.getHashCode();
+		Accumulator entry = entries[(int) key & indexMask];
+		probes++;
+		if (entry.filled && entry.key == key) {
+			hits++;
+			return entry;
+		}
+		Accumulator start = null;
+		int moveCount = 0;
+		Board position = board;
+		while (moveCount < MAX_LOOKBACK && position.lastMove() != null && position.getPreviousPosition() != null) {
+			moves[moveCount++] = position.lastMove();
+			position = position.getPreviousPosition();
+			Accumulator candidate = entries[(int) position.getHashCode() & indexMask];
+			if (candidate.filled && candidate.key == position.getHashCode()) {
+				start = candidate;
+				break;
+			}
+		}
+		if (start == null) {
+			moveCount = 0;
+		} else if (start != entry) {
+			System.arraycopy(start.whiteValues, 0, entry.whiteValues, 0, entry.whiteValues.length);
+			System.arraycopy(start.blackValues, 0, entry.blackValues, 0, entry.blackValues.length);
+		}
+		catchUp(board, Color.WHITE, entry.whiteValues, moveCount);
+		catchUp(board, Color.BLACK, entry.blackValues, moveCount);
+		entry.key = key;
+		entry.filled = true;
+		return entry;
+	}
+
+	/**
+	 * Brings one perspective of an accumulator up to date with a board, by changing it by the moves that led there, or by adding it up
+	 * from scratch if there aren't any to start from or the perspective's king moved
+	 * @param board The {@code Board}
+	 * @param perspective The {@code Color} of the player whose perspective it is
+	 * @param values The accumulator, which is up to date with the position {@code moveCount} moves before the board
+	 * @param moveCount The number of moves, which are in {@code moves}
+	 */
+	private void catchUp(Board board, Color perspective, short[] values, int moveCount) {
+		boolean refresh = moveCount == 0;
+		for (int i = 0; i < moveCount && !refresh; i++) {
+			refresh = FeatureTransformer.needsRefresh(moves[i], perspective);
+		}
+		if (refresh) {
+			refreshes++;
+			FeatureTransformer.refresh(board, perspective, values, weights);
+			return;
+		}
+		// The king didn't move, so it's on the same square for every move
+		for (int i = moveCount - 1; i >= 0; i--) {
+			FeatureTransformer.update(moves[i], perspective, board.getKingSquare(perspective), values, weights);
+		}
+	}
+
+	/**
+	 * Gets the number of times the table was probed
+	 * @return The number of probes
+	 */
+	public long getProbes() {
+		return probes;
+	}
+
+	/**
+	 * Gets the number of probes that found their board already in the table
+	 * @return The number of hits
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Gets the number of perspectives that had to be added up from scratch, rather than changed from a previous position's accumulator
+	 * @return The number of perspectives
+	 */
+	public long getRefreshes() {
+		return refreshes;
+	}
+}
@@ -0,0 +1,266 @@
+package evaluation;
+
+import gamePlaying.Color;
+import pieces.Piece;
+import pieces.PieceType;
+import representation.Board;
+
+/**
+ * Works out which squares every piece on a board attacks, once, so that all the evaluation terms that care about attacks can share the
+ * work. The attacks are {@code long}s with one bit for each square, in the order of the squares' indices, the same as in
+ * {@code PawnStructure}. Knights, kings, and pawns attack fixed patterns of squares that are looked up in tables, and bishops, rooks, and
+ * queens attack along rays, which are looked up in tables too and then cut off at the first piece in the way.
+ *
+ * Besides the squares each color attacks with each type of piece, the map keeps the attacks of every knight, bishop, rook, and queen on
+ * its own, since mobility is counted piece by piece. A map is reused from one board to the next, so it isn't safe to share between
+ * threads, and every evaluator that uses one should have its own.
+ * @author matthewslesinski
+ *
+ */
+public class AttackMap {
+
+	/** The number of squares on a file or rank */
+	private static final int LINE_LENGTH = 8;
+
+	/** The number of squares on the board */
+	private static final int SQUARE_COUNT = 64;
+
+	/** The most knights, bishops, rooks, and queens there can be on a board, after every pawn promotes */
+	private static final int MAX_PIECES = 30;
+
+	/** The file and rank steps a knight can make */
+	private static final int[][] KNIGHT_STEPS = {{1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}};
+
+	/**
+	 * The file and rank steps along each direction a piece can move in, which are also the steps a king can make. The even indices are
+	 * along files and ranks, and the odd ones are along diagonals
+	 */
+	private static final int[][] DIRECTION_STEPS = {{0, 1}, {1, 1}, {1, 0}, {1, -1}, {0, -1}, {-1, -1}, {-1, 0}, {-1, 1}};
+
+	/** The squares a knight attacks from each square */
+	private static final long[] KNIGHT_ATTACKS = new long[SQUARE_COUNT];
+
+	/** The squares a king attacks from each square */
+	private static final long[] KING_ATTACKS = new long[SQUARE_COUNT];
+
+	/** For each color, the squares a pawn of that color attacks from each square */
+	private static final long[][] PAWN_ATTACKS = new long[2][SQUARE_COUNT];
+
+	/** For each direction, the squares along it from each square, up to the edge of the board */
+	private static final long[][] RAYS = new long[DIRECTION_STEPS.length][SQUARE_COUNT];
+
+	/** For each direction, whether the indices of the squares along it go up, which says which end of a ray the nearest piece is at */
+	private static final boolean[] INCREASING = new boolean[DIRECTION_STEPS.length];
+
+	/** The bit representation of each color's piece of each type, by the color's index and then the type's ordinal */
+	private static final int[][] PIECE_BITS = new int[2][PieceType.values().length];
+
+	static {
+		initializeTables();
+	}
+
+	/** The squares each color's pieces are on, with white's at index 0 */
+	final long[] occupancy = new long[2];
+
+	/** The squares each kind of piece is on, by the piece's bit representation, where the slot for no piece holds the empty squares */
+	final long[] pieces = new long[Piece.values().length];
+
+	/** The squares each color attacks with each type of piece, by the color's index and then the type's ordinal */
+	final long[][] attacks = new long[2][PieceType.values().length];
+
+	/** The squares each color attacks with any piece */
+	final long[] allAttacks = new long[2];
+
+	/** The squares any piece is on */
+	long occupied;
+
+	/** The number of knights, bishops, rooks, and queens on the board */
+	int pieceCount;
+
+	/** The index of the color of each knight, bishop, rook, and queen */
+	final int[] pieceSides = new int[MAX_PIECES];
+
+	/** The type of each knight, bishop, rook, and queen */
+	final PieceType[] pieceTypes = new PieceType[MAX_PIECES];
+
+	/** The squares each knight, bishop, rook, and queen attacks */
+	final long[] pieceAttacks = new long[MAX_PIECES];
+
+	/**
+	 * Fills in the tables of the squares pieces attack
+	 */
+	private static void initializeTables() {
+		for (int square = 0; square < SQUARE_COUNT; square++) {
+			int file = square / LINE_LENGTH;
+			int rank = square % LINE_LENGTH;
+			for (int[] step : KNIGHT_STEPS) {
+				KNIGHT_ATTACKS[square] |= getBit(file + step[0], rank + step[1]);
+			}
+			for (int direction = 0; direction < DIRECTION_STEPS.length; direction++) {
+				int[] step = DIRECTION_STEPS[direction];
+				KING_ATTACKS[square] |= getBit(file + step[0], rank + step[1]);
+				for (int distance = 1; distance < LINE_LENGTH; distance++) {
+					RAYS[direction][square] |= getBit(file + step[0] * distance, rank + step[1] * distance);
+				}
+			}
+			PAWN_ATTACKS[0][square] = getBit(file - 1, rank + 1) | getBit(file + 1, rank + 1);
+			PAWN_ATTACKS[1][square] = getBit(file - 1, rank - 1) | getBit(file + 1, rank - 1);
+		}
+		for (PieceType type : PieceType.values()) {
+			PIECE_BITS[0][type.ordinal()] = Piece.getByColorAndType(Color.WHITE, type).getBitRepresentation();
+			PIECE_BITS[1][type.ordinal()] = Piece.getByColorAndType(Color.BLACK, type).getBitRepresentation();
+		}
+		for (int direction = 0; direction < DIRECTION_STEPS.length; direction++) {
+			INCREASING[direction] = DIRECTION_STEPS[direction][0] * LINE_LENGTH + DIRECTION_STEPS[direction][1] > 0;
+		}
+	}
+
+	/**
+	 * Gets the bit for a square
+	 * @param file The index of the square's file
+	 * @param rank The index of the square's rank
+	 * @return The bit, or 0 if there is no such square
+	 */
+	private static long getBit(int file, int rank) {
+		if (file < 0 || file >= LINE_LENGTH || rank < 0 || rank >= LINE_LENGTH) {
+			return 0L;
+		}
+		return 1L << (file * LINE_LENGTH + rank);
+	}
+
+	/**
+	 * Works out the attacks on a board, replacing whatever the map held before
+	 * @param board The {@code Board}
+	 */
+	public void analyze(Board board) {
+		board.fillPieceLocations(pieces);
+		occupied = ~pieces[Piece.NONE.getBitRepresentation()];
+		pieceCount = 0;
+		for (int side = 0; side < 2; side++) {
+			long[] ownAttacks = attacks[side];
+			long ownPieces = 0L;
+			for (int bits : PIECE_BITS[side]) {
+				ownPieces |= pieces[bits];
+			}
+			occupancy[side] = ownPieces;
+			long pawnAttacks = 0L;
+			for (long remaining = getPieces(side, PieceType.PAWN); remaining != 0; remaining &= remaining - 1) {
+				pawnAttacks |= PAWN_ATTACKS[side][Long.numberOfTrailingZeros(remaining)];
+			}
+			ownAttacks[PieceType.PAWN.ordinal()] = pawnAttacks;
+			long kingAttacks = 0L;
+			for (long remaining = getPieces(side, PieceType.KING); remaining != 0; remaining &= remaining - 1) {
+				kingAttacks |= KING_ATTACKS[Long.numberOfTrailingZeros(remaining)];
+			}
+			ownAttacks[PieceType.KING.ordinal()] = kingAttacks;
+			addPieces(side, PieceType.KNIGHT);
+			addPieces(side, PieceType.BISHOP);
+			addPieces(side, PieceType.ROOK);
+			addPieces(side, PieceType.QUEEN);
+			long all = 0L;
+			for (long typeAttacks : ownAttacks) {
+				all |= typeAttacks;
+			}
+			allAttacks[side] = all;
+		}
+	}
+
+	/**
+	 * Gets the squares one color's pieces of one type are on
+	 * @param side The index of the color
+	 * @param type The {@code PieceType}
+	 * @return The squares
+	 */
+	private long getPieces(int side, PieceType type) {
+		return pieces[PIECE_BITS[side][type.ordinal()]];
+	}
+
+	/**
+	 * Records the attacks of each of one color's pieces of one type, both on their own and together
+	 * @param side The index of the color
+	 * @param type The {@code PieceType}, which must be a knight, bishop, rook, or queen
+	 */
+	private void addPieces(int side, PieceType type) {
+		long typeAttacks = 0L;
+		for (long remaining = getPieces(side, type); remaining != 0; remaining &= remaining - 1) {
+			int square = Long.numberOfTrailingZeros(remaining);
+			long pieceAttack;
+			switch (type) {
+			case KNIGHT:
+				pieceAttack = KNIGHT_ATTACKS[square];
+				break;
+			case BISHOP:
+				pieceAttack = getBishopAttacks(square, occupied);
+				break;
+			case ROOK:
+				pieceAttack = getRookAttacks(square, occupied);
+				break;
+			default:
+				pieceAttack = getBishopAttacks(square, occupied) | getRookAttacks(square, occupied);
+				break;
+			}
+			typeAttacks |= pieceAttack;
+			pieceSides[pieceCount] = side;
+			pieceTypes[pieceCount] = type;
+			pieceAttacks[pieceCount++] = pieceAttack;
+		}
+		attacks[side][type.ordinal()] = typeAttacks;
+	}
+
+	/**
+	 * Gets the squares a knight attacks
+	 * @param square The index of the square the knight is on
+	 * @return The squares
+	 */
+	public static long getKnightAttacks(int square) {
+		return KNIGHT_ATTACKS[square];
+	}
+
+	/**
+	 * Gets the squares a king attacks
+	 * @param square The index of the square the king is on
+	 * @return The squares
+	 */
+	public static long getKingAttacks(int square) {
+		return KING_ATTACKS[square];
+	}
+
+	/**
+	 * Gets the squares a bishop attacks
+	 * @param square The index of the square the bishop is on
+	 * @param occupied The squares any piece is on
+	 * @return The squares, including the first occupied square in each direction
+	 */
+	public static long getBishopAttacks(int square, long occupied) {
+		return getRayAttacks(1, square, occupied) | getRayAttacks(3, square, occupied)
+				| getRayAttacks(5, square, occupied) | getRayAttacks(7, square, occupied);
+	}
+
+	/**
+	 * Gets the squares a rook attacks
+	 * @param square The index of the square the rook is on
+	 * @param occupied The squares any piece is on
+	 * @return The squares, including the first occupied square in each direction
+	 */
+	public static long getRookAttacks(int square, long occupied) {
+		return getRayAttacks(0, square, occupied) | getRayAttacks(2, square, occupied)
+				| getRayAttacks(4, square, occupied) | getRayAttacks(6, square, occupied);
+	}
+
+	/**
+	 * Gets the squares along one direction from a square, up to and including the first occupied one
+	 * @param direction The index of the direction in {@code DIRECTION_STEPS}
+	 * @param square The index of the square
+	 * @param occupied The squares any piece is on
+	 * @return The squares
+	 */
+	private static long getRayAttacks(int direction, int square, long occupied) {
+		long ray = RAYS[direction][square];
+		long blockers = ray & occupied;
+		if (blockers == 0) {
+			return ray;
+		}
+		int nearest = INCREASING[direction] ? Long.numberOfTrailingZeros(blockers) : Long.SIZE - 1 - Long.numberOfLeadingZeros(blockers);
+		return ray ^ RAYS[direction][nearest];
+	}
+}
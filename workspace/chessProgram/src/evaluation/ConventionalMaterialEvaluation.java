@@ -1,46 +1,77 @@
 package evaluation;
 
-import java.util.Arrays;
-import java.util.EnumMap;
-import java.util.Map;
-
-import gamePlaying.Color;
+import boardFeatures.Square;
+import moves.Move;
 import pieces.Piece;
-import pieces.PieceType;
 import representation.Board;
-import static support.UtilityFunctions.*;
 
 /**
  * Evaluates a board only by adding up the material on each side according to the conventional (commonly taught) evaluations for pieces.
- * For instance, pawn=1, knight/bishop=3, rook=5, and queen=9
+ * For instance, pawn=100, knight/bishop=300, rook=500, and queen=900, in centipawns. Like the {@code PieceSquareTables} totals, the
+ * balance is kept as a running total from board to board, changed only by captures and promotions, so evaluating a board just reads it.
  * @author matthewslesinski
  *
  */
 public class ConventionalMaterialEvaluation implements Evaluator {
 
-	/** Holds a mapping from type of piece to value */
-	private static final Map<Piece, Double> MATERIAL_VALUES = new EnumMap<>(Piece.class);
-	/** Populates the map */
+	/** The value of each piece, indexed by the piece's bit representation, which is positive for white's pieces and negative for black's */
+	private static final int[] MATERIAL_VALUES = new int[Piece.values().length];
+	/** Populates the values */
 	static {
 		initializeMaterialValues();
 	}
 	
 	/**
-	 * Initializes the internal map of piece's material values.
+	 * Initializes the internal table of piece's material values.
 	 */
 	private static void initializeMaterialValues() {
-		Arrays.stream(Color.values()).forEach(color -> {
-			int multiplier = color.isWhite() ? 1 : -1;
-			Arrays.stream(PieceType.values()).forEach(type -> {
-				Piece piece = Piece.getByColorAndType(color, type);
-				MATERIAL_VALUES.put(piece, multiplier * type.getConventionalEvaluation());
-			});
-		});
+		for (Piece piece : Piece.realPieces()) {
+			int multiplier = piece.getColor().isWhite() ? 1 : -1;
+			MATERIAL_VALUES[piece.getBitRepresentation()] = multiplier * piece.getType().getConventionalEvaluation();
+		}
+	}
+	
+	/**
+	 * Gets the value of a piece
+	 * @param piece The {@code Piece}
+	 * @return The value, in centipawns, which is positive for white's pieces, negative for black's, and 0 for empty squares
+	 */
+	public static int getValue(Piece piece) {
+		return MATERIAL_VALUES[piece.getBitRepresentation()];
+	}
+	
+	/**
+	 * Adds up the material on a board
+	 * @param board The {@code Board}
+	 * @return The balance, in centipawns, where positive is good for white
+	 */
+	public static int calculateBalance(Board board) {
+		int balance = 0;
+		for (Square square : Square.values()) {
+			balance += getValue(board.getPieceAtSquare(square));
+		}
+		return balance;
+	}
+	
+	/**
+	 * Gets how much a move changes the material balance of the board it's made on
+	 * @param move The {@code Move}
+	 * @return The change
+	 */
+	public static int getBalanceChange(Move move) {
+		int change = 0;
+		if (move.isCapture()) {
+			change -= getValue(move.getCapturedPiece());
+		}
+		if (move.isPromotion()) {
+			change += getValue(move.getPromotionPiece()) - getValue(move.getMovingPiece());
+		}
+		return change;
 	}
 	
 	@Override
-	public double evaluateBoard(Board board) {
-		return Arrays.stream(board.toPieceArray()).map(bindAtEnd(MATERIAL_VALUES::getOrDefault,  0.)).reduce(0., Double::sum);
+	public int evaluateBoard(Board board) {
+		return board.getMaterialBalance();
 	}
 
 }
@@ -14,8 +14,38 @@ public interface Evaluator {
 	/**
 	 * Calculates an estimate of who is winning in a position, assuming the position is not the end of the game.
 	 * @param board The board to calculate the evaluation for
-	 * @return A double that has a larger magnitude for greater confidence in one side winning, and where a positive number indicates
-	 * white is winning, a negative number indicates black is winning, and 0 indicates equality.
+	 * @return An int, in centipawns, that has a larger magnitude for greater confidence in one side winning, and where a positive number
+	 * indicates white is winning, a negative number indicates black is winning, and 0 indicates equality. It should stay well within
+	 * {@code Score.MATE_BOUND}, so it can't be mistaken for a mate.
 	 */
-	public double evaluateBoard(Board board);
+	public int evaluateBoard(Board board);
+	
+	/**
+	 * Calculates an estimate of who is winning in a position, assuming the position is not the end of the game, but only as precisely
+	 * as is needed to compare it to a window. If the estimate falls strictly between the bounds, it's the same as what
+	 * {@code evaluateBoard(Board)} gives. Otherwise, it may be a rougher estimate that is on the same side of the window, which lets an
+	 * implementor skip its expensive terms in positions where they couldn't change anything.
+	 * @param board The board to calculate the evaluation for
+	 * @param lowerBound The bottom of the window, from white's point of view
+	 * @param upperBound The top of the window, from white's point of view
+	 * @return An int, following the same conventions as {@code evaluateBoard(Board)}. If it's at most {@code lowerBound}, the full
+	 * estimate is at most {@code lowerBound} too, and if it's at least {@code upperBound}, the full estimate is at least {@code upperBound}
+	 */
+	public default int evaluateBoard(Board board, int lowerBound, int upperBound) {
+		return evaluateBoard(board);
+	}
+	
+	/**
+	 * Calculates the same estimates as {@code evaluateBoard(Board)} for every position in a batch. This is for scoring many positions
+	 * at once, like when analyzing a collection of games, where implementors can go through the positions step by step instead of one
+	 * at a time. By default, it just evaluates them one at a time, which is all the implementors whose work is looking up each
+	 * position's terms do, since a batch wouldn't make them any faster. Only {@code NetworkEvaluation} gains from batching.
+	 * @param batch The {@code PositionBatch}, none of whose positions may be over
+	 * @param evaluations Where to put the estimates, by the positions' indices in the batch. It must be at least as long as the batch
+	 */
+	public default void evaluateBatch(PositionBatch batch, int[] evaluations) {
+		for (int i = 0; i < batch.size(); i++) {
+			evaluations[i] = evaluateBoard(batch.getBoard(i));
+		}
+	}
 }
@@ -0,0 +1,131 @@
+package evaluation;
+
+import boardFeatures.Square;
+import gamePlaying.Color;
+import moves.Move;
+import pieces.Piece;
+import pieces.PieceType;
+import representation.Board;
+
+/**
+ * Turns boards into the first layer of {@code NetworkEvaluation}'s network. The network sees a board from each player's perspective
+ * separately, through features that each say a piece is on a square, relative to where that player's king is. There is one feature
+ * for every square the king could be on, every type and color of piece other than a king, and every square that piece could be on.
+ * From black's perspective the board is flipped vertically and the colors are swapped, so both players' perspectives go through the same
+ * weights.
+ *
+ * The first layer, the accumulator, is just the sum of the weights of the features that are present, so a move only changes it by the
+ * few pieces it moves, captures, or promotes, the same way it changes a board's {@code PieceSquareTables} totals. The exception is when
+ * a player's king moves, which changes every feature from that player's perspective, so that perspective has to be added up again.
+ * @author matthewslesinski
+ *
+ */
+public class FeatureTransformer {
+
+	/** The number of squares on the board */
+	private static final int SQUARE_COUNT = 64;
+
+	/** The number of kinds of pieces a feature can be about, which is every type but the king, in both colors */
+	private static final int PIECE_KIND_COUNT = 10;
+
+	/** The number of features from each perspective */
+	public static final int FEATURE_COUNT = SQUARE_COUNT * PIECE_KIND_COUNT * SQUARE_COUNT;
+
+	/** XORing a square's index with this flips it vertically, since the rank is in the low bits of the index */
+	private static final int VERTICAL_FLIP = 7;
+
+	/**
+	 * Gets the index of the feature for a piece on a square, from a perspective
+	 * @param perspective The {@code Color} of the player whose perspective it is
+	 * @param kingSquare The {@code Square} that player's king is on
+	 * @param piece The {@code Piece}, which must not be a king
+	 * @param square The {@code Square} the piece is on
+	 * @return The index
+	 */
+	public static int getFeature(Color perspective, Square kingSquare, Piece piece, Square square) {
+		int flip = perspective.isWhite() ? 0 : VERTICAL_FLIP;
+		int kind = piece.getType().ordinal() * 2 + (piece.getColor() == perspective ? 0 : 1);
+		return ((kingSquare.getIndex() ^ flip) * PIECE_KIND_COUNT + kind) * SQUARE_COUNT + (square.getIndex() ^ flip);
+	}
+
+	/**
+	 * Adds up the accumulator for one perspective from scratch
+	 * @param board The {@code Board}
+	 * @param perspective The {@code Color} of the player whose perspective it is
+	 * @param values The accumulator to fill in
+	 * @param weights The {@code NetworkWeights}
+	 */
+	public static void refresh(Board board, Color perspective, short[] values, NetworkWeights weights) {
+		System.arraycopy(weights.getAccumulatorBiases(), 0, values, 0, values.length);
+		Square kingSquare = board.getKingSquare(perspective);
+		for (Square square : Square.values()) {
+			Piece piece = board.getPieceAtSquare(square);
+			if (piece != Piece.NONE && piece.getType() != PieceType.KING) {
+				add(values, getFeature(perspective, kingSquare, piece, square), weights);
+			}
+		}
+	}
+
+	/**
+	 * Changes the accumulator for one perspective by the pieces a move moves, captures, or promotes. The move must not be a move of
+	 * that perspective's king
+	 * @param move The {@code Move}
+	 * @param perspective The {@code Color} of the player whose perspective it is
+	 * @param kingSquare The {@code Square} that player's king is on
+	 * @param values The accumulator to change
+	 * @param weights The {@code NetworkWeights}
+	 */
+	public static void update(Move move, Color perspective, Square kingSquare, short[] values, NetworkWeights weights) {
+		// Only the other player's king can move here, and kings aren't features
+		if (move.getMovingPieceType() != PieceType.KING) {
+			subtract(values, getFeature(perspective, kingSquare, move.getMovingPiece(), move.getStartSquare()), weights);
+			add(values, getFeature(perspective, kingSquare, move.getEndPiece(), move.getDestinationSquare()), weights);
+		}
+		if (move.isCapture()) {
+			subtract(values, getFeature(perspective, kingSquare, move.getCapturedPiece(), move.getCaptureSquare()), weights);
+		}
+		if (move.isCastle()) {
+			Piece rook = move.getSecondaryMovingPieceForCastling();
+			subtract(values, getFeature(perspective, kingSquare, rook, move.getSecondaryStartSquareForCastling()), weights);
+			add(values, getFeature(perspective, kingSquare, rook, move.getSecondaryEndSquareForCastling()), weights);
+		}
+	}
+
+	/**
+	 * Determines if a move makes a perspective have to be added up again
+	 * @param move The {@code Move}
+	 * @param perspective The {@code Color} of the player whose perspective it is
+	 * @return true iff the move is a move of that player's king
+	 */
+	public static boolean needsRefresh(Move move, Color perspective) {
+		return move.getMovingPieceType() == PieceType.KING && move.getMovingColor() == perspective;
+	}
+
+	/**
+	 * Adds a feature's weights to an accumulator
+	 * @param values The accumulator
+	 * @param feature The index of the feature
+	 * @param weights The {@code NetworkWeights}
+	 */
+	private static void add(short[] values, int feature, NetworkWeights weights) {
+		short[] featureWeights = weights.getAccumulatorWeights();
+		int offset = feature * values.length;
+		for (int i = 0; i < values.length; i++) {
+			values[i] += featureWeights[offset + i];
+		}
+	}
+
+	/**
+	 * Subtracts a feature's weights from an accumulator
+	 * @param values The accumulator
+	 * @param feature The index of the feature
+	 * @param weights The {@code NetworkWeights}
+	 */
+	private static void subtract(short[] values, int feature, NetworkWeights weights) {
+		short[] featureWeights = weights.getAccumulatorWeights();
+		int offset = feature * values.length;
+		for (int i = 0; i < values.length; i++) {
+			values[i] -= featureWeights[offset + i];
+		}
+	}
+}
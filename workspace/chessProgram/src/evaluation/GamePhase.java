@@ -0,0 +1,64 @@
+package evaluation;
+
+import boardFeatures.Square;
+import moves.Move;
+import pieces.Piece;
+import representation.Board;
+
+/**
+ * Measures how far a game has gone from the middlegame toward the endgame, by how much material other than pawns is left on the
+ * board. Each knight and bishop counts 1, each rook 2, and each queen 4, so the starting position has a phase of {@code MAX_PHASE},
+ * and a board with only kings and pawns has a phase of 0. Promotions can push the count past {@code MAX_PHASE}, so anything using the
+ * phase should cap it.
+ *
+ * The phase only changes when a piece other than a pawn is captured, or when a pawn promotes, so like the piece square totals, a
+ * board keeps it as a running total from the previous board and the last move.
+ * @author matthewslesinski
+ *
+ */
+public class GamePhase {
+
+	/** The phase of a board that still has all its pieces, and so is entirely in the middlegame */
+	public static final int MAX_PHASE = 24;
+
+	/** How much each type of piece counts toward the phase, in the order of {@code PieceType} */
+	private static final int[] PHASE_WEIGHTS = {0, 1, 1, 2, 4, 0};
+
+	/**
+	 * Gets how much a piece counts toward the phase
+	 * @param piece The {@code Piece}
+	 * @return The weight, which is 0 for pawns, kings, and empty squares
+	 */
+	public static int getWeight(Piece piece) {
+		return piece == Piece.NONE ? 0 : PHASE_WEIGHTS[piece.getType().ordinal()];
+	}
+
+	/**
+	 * Adds up the phase of all the pieces on a board
+	 * @param board The {@code Board}
+	 * @return The phase, which may be more than {@code MAX_PHASE} after promotions
+	 */
+	public static int calculatePhase(Board board) {
+		int phase = 0;
+		for (Square square : Square.values()) {
+			phase += getWeight(board.getPieceAtSquare(square));
+		}
+		return phase;
+	}
+
+	/**
+	 * Gets how much a move changes the phase of the board it's made on
+	 * @param move The {@code Move}
+	 * @return The change
+	 */
+	public static int getPhaseChange(Move move) {
+		int change = 0;
+		if (move.isCapture()) {
+			change -= getWeight(move.getCapturedPiece());
+		}
+		if (move.isPromotion()) {
+			change += getWeight(move.getPromotionPiece());
+		}
+		return change;
+	}
+}
@@ -0,0 +1,107 @@
+package evaluation;
+
+import gamePlaying.Color;
+import hashing.MaterialKey;
+import pieces.Piece;
+import pieces.PieceType;
+import representation.Board;
+
+/**
+ * Scores how much danger each king is in from the opposing pieces, which only matters in the middlegame, when there are enough pieces
+ * left to mate with. Two things add to a king's danger:
+ * <ul>
+ * <li>Pieces attacking the king's zone, which is the king's square and the squares around it. Each attacker adds its type's weight,
+ * and that total is multiplied by the number of attackers, since one piece can't mate on its own but a few together can. A single
+ * attacker doesn't count at all</li>
+ * <li>Safe checks, which are squares the opponent could give check from with a piece that can already reach them, without that piece
+ * being taken there. Each safe check adds the weight of the type of piece that could give it</li>
+ * </ul>
+ * The penalty grows with the square of the danger, so that a king under a real attack is penalized far more than one being poked at,
+ * up to a limit.
+ *
+ * The attacks come from an {@code AttackMap}, which the mobility terms use as well.
+ * @author matthewslesinski
+ *
+ */
+public class KingSafety {
+
+	/** How much each type of piece attacking the king zone adds to the danger, in the order of {@code PieceType} */
+	private static final int[] ATTACKER_WEIGHTS = {0, 2, 2, 3, 5, 0};
+
+	/** How much each type of piece with a safe check adds to the danger, in the order of {@code PieceType} */
+	private static final int[] SAFE_CHECK_WEIGHTS = {0, 6, 4, 8, 6, 0};
+
+	/** What the squared danger is divided by to get the penalty in centipawns */
+	private static final int DANGER_DIVISOR = 16;
+
+	/** The biggest penalty a king can get */
+	private static final int MAX_PENALTY = 500;
+
+	/**
+	 * Scores the danger both kings are in
+	 * @param board The {@code Board}
+	 * @param map The {@code AttackMap} for the board
+	 * @return The middlegame score, where positive is good for white
+	 */
+	public static int getMiddlegameScore(Board board, AttackMap map) {
+		return getPenalty(1, board.getKingSquare(Color.BLACK).getIndex(), map)
+				- getPenalty(0, board.getKingSquare(Color.WHITE).getIndex(), map);
+	}
+
+	/**
+	 * Works out the penalty for the danger one king is in
+	 * @param side The index of the king's color
+	 * @param kingSquare The index of the square the king is on
+	 * @param map The {@code AttackMap} for the board
+	 * @return The penalty, as a positive number
+	 */
+	private static int getPenalty(int side, int kingSquare, AttackMap map) {
+		int opponent = 1 - side;
+		long zone = AttackMap.getKingAttacks(kingSquare) | (1L << kingSquare);
+		int attackers = 0;
+		int attackWeight = 0;
+		for (int i = 0; i < map.pieceCount; i++) {
+			if (map.pieceSides[i] == opponent && (map.pieceAttacks[i] & zone) != 0) {
+				attackers++;
+				attackWeight += ATTACKER_WEIGHTS[map.pieceTypes[i].ordinal()];
+			}
+		}
+		int danger = attackers > 1 ? attackWeight * attackers : 0;
+		long safe = ~map.allAttacks[side] & ~map.occupancy[opponent];
+		long bishopChecks = AttackMap.getBishopAttacks(kingSquare, map.occupied) & safe;
+		long rookChecks = AttackMap.getRookAttacks(kingSquare, map.occupied) & safe;
+		long[] opposingAttacks = map.attacks[opponent];
+		danger += getCheckDanger(PieceType.KNIGHT, AttackMap.getKnightAttacks(kingSquare) & safe, opposingAttacks);
+		danger += getCheckDanger(PieceType.BISHOP, bishopChecks, opposingAttacks);
+		danger += getCheckDanger(PieceType.ROOK, rookChecks, opposingAttacks);
+		danger += getCheckDanger(PieceType.QUEEN, bishopChecks | rookChecks, opposingAttacks);
+		return Math.min(MAX_PENALTY, danger * danger / DANGER_DIVISOR);
+	}
+
+	/**
+	 * Works out how much the safe checks one type of piece has add to the danger
+	 * @param type The {@code PieceType}
+	 * @param checkingSquares The safe squares a piece of that type would give check from
+	 * @param opposingAttacks The squares the opponent attacks with each type of piece, in the order of {@code PieceType}
+	 * @return The danger
+	 */
+	private static int getCheckDanger(PieceType type, long checkingSquares, long[] opposingAttacks) {
+		return SAFE_CHECK_WEIGHTS[type.ordinal()] * Long.bitCount(checkingSquares & opposingAttacks[type.ordinal()]);
+	}
+
+	/**
+	 * Works out the most king safety can change the middlegame score by, either way, with some material on the board. A king is only in
+	 * danger from opposing knights, bishops, rooks, and queens, so without any, the terms are 0, and otherwise, each king's penalty
+	 * is at most {@code MAX_PENALTY}, which bounds the difference between them too
+	 * @param key The material key, as given by {@code MaterialKey}
+	 * @return The bound, in centipawns
+	 */
+	public static int getMiddlegameBound(long key) {
+		for (Piece piece : Piece.realPieces()) {
+			if (ATTACKER_WEIGHTS[piece.getType().ordinal()] > 0 && MaterialKey.getCount(key, piece) > 0) {
+				return MAX_PENALTY;
+			}
+		}
+		return 0;
+	}
+}
@@ -0,0 +1,279 @@
+package evaluation;
+
+import gamePlaying.Color;
+import hashing.MaterialKey;
+import pieces.Piece;
+import pieces.PieceType;
+
+/**
+ * Holds everything about a position that depends only on its material, worked out once for each material key. That's the game phase,
+ * adjustments for how pieces are worth more or less in combination, whether neither side has enough material left to ever mate,
+ * how much to scale the evaluation down in endgames that are hard to win even with more material, and the most that the later stages
+ * of the evaluation, the pawn structure and the terms worked out from the attacks on the board, can add up to. Entries never change
+ * once made, so they can be shared between threads.
+ * @author matthewslesinski
+ *
+ */
+public class MaterialEntry {
+
+	/** The scale factor that leaves an evaluation as it is */
+	public static final int NORMAL_SCALE = 64;
+
+	/** The scale factor for endgames that are hard, but not impossible, to win */
+	private static final int DRAWISH_SCALE = 16;
+
+	/** The pawn count at which knights and rooks are worth exactly their usual material values */
+	private static final int NEUTRAL_PAWN_COUNT = 5;
+
+	/** How much a knight gains for each of its side's pawns beyond {@code NEUTRAL_PAWN_COUNT}, since knights need outposts */
+	private static final int KNIGHT_ADJUSTMENT_PER_PAWN = 6;
+
+	/** How much a rook gains for each of its side's pawns beyond {@code NEUTRAL_PAWN_COUNT}, which is negative, since rooks need open files */
+	private static final int ROOK_ADJUSTMENT_PER_PAWN = -12;
+
+	/** The middlegame bonus for having both bishops */
+	private static final int BISHOP_PAIR_MIDDLEGAME = 30;
+
+	/** The endgame bonus for having both bishops */
+	private static final int BISHOP_PAIR_ENDGAME = 50;
+
+	/** The material key this entry is for */
+	private final long key;
+
+	/** The game phase of the material, not capped */
+	private final int phase;
+
+	/** The middlegame adjustment for combinations of material, where positive is good for white */
+	private final int middlegameImbalance;
+
+	/** The endgame adjustment for combinations of material, where positive is good for white */
+	private final int endgameImbalance;
+
+	/** Whether neither side can possibly mate, so the game is drawn */
+	private final boolean insufficientMaterial;
+
+	/** What to scale evaluations that favor white by, out of {@code NORMAL_SCALE} */
+	private final int whiteScale;
+
+	/** What to scale evaluations that favor black by, out of {@code NORMAL_SCALE} */
+	private final int blackScale;
+
+	/** The most {@code PawnStructure} can change the middlegame score by, either way */
+	private final int pawnMiddlegameBound;
+
+	/** The most {@code PawnStructure} can change the endgame score by, either way */
+	private final int pawnEndgameBound;
+
+	/** The most {@code Mobility} and {@code KingSafety} can change the middlegame score by, either way */
+	private final int attackMiddlegameBound;
+
+	/** The most {@code Mobility} can change the endgame score by, either way */
+	private final int attackEndgameBound;
+
+	/**
+	 * Works out everything that depends on some material
+	 * @param key The material key, as given by {@code MaterialKey}
+	 */
+	public MaterialEntry(long key) {
+		this.key = key;
+		int phaseTotal = 0;
+		for (Piece piece : Piece.realPieces()) {
+			phaseTotal += GamePhase.getWeight(piece) * MaterialKey.getCount(key, piece);
+		}
+		this.phase = phaseTotal;
+		int whiteImbalance = getImbalance(key, Color.WHITE);
+		int blackImbalance = getImbalance(key, Color.BLACK);
+		int whiteBishopPair = hasBishopPair(key, Color.WHITE) ? 1 : 0;
+		int blackBishopPair = hasBishopPair(key, Color.BLACK) ? 1 : 0;
+		this.middlegameImbalance = whiteImbalance - blackImbalance + BISHOP_PAIR_MIDDLEGAME * (whiteBishopPair - blackBishopPair);
+		this.endgameImbalance = whiteImbalance - blackImbalance + BISHOP_PAIR_ENDGAME * (whiteBishopPair - blackBishopPair);
+		this.insufficientMaterial = hasOnlyOneMinorPieceAtMost(key);
+		this.whiteScale = getScale(key, Color.WHITE);
+		this.blackScale = getScale(key, Color.BLACK);
+		this.pawnMiddlegameBound = PawnStructure.getMiddlegameBound(key);
+		this.pawnEndgameBound = PawnStructure.getEndgameBound(key);
+		this.attackMiddlegameBound = Mobility.getMiddlegameBound(key) + KingSafety.getMiddlegameBound(key);
+		this.attackEndgameBound = Mobility.getEndgameBound(key);
+	}
+
+	/**
+	 * Gets the number of a type of piece a color has
+	 * @param key The material key
+	 * @param color The {@code Color}
+	 * @param type The {@code PieceType}
+	 * @return The number
+	 */
+	private static int count(long key, Color color, PieceType type) {
+		return MaterialKey.getCount(key, Piece.getByColorAndType(color, type));
+	}
+
+	/**
+	 * Gets the total conventional value of a color's pieces other than pawns and the king
+	 * @param key The material key
+	 * @param color The {@code Color}
+	 * @return The value, in centipawns
+	 */
+	private static int getNonPawnMaterial(long key, Color color) {
+		int total = 0;
+		for (PieceType type : new PieceType[] {PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN}) {
+			total += count(key, color, type) * type.getConventionalEvaluation();
+		}
+		return total;
+	}
+
+	/**
+	 * Gets how much a color's knights and rooks are worth beyond their usual values, given how many pawns that color has
+	 * @param key The material key
+	 * @param color The {@code Color}
+	 * @return The adjustment, which is good for that color if positive
+	 */
+	private static int getImbalance(long key, Color color) {
+		int extraPawns = count(key, color, PieceType.PAWN) - NEUTRAL_PAWN_COUNT;
+		return extraPawns * (KNIGHT_ADJUSTMENT_PER_PAWN * count(key, color, PieceType.KNIGHT)
+				+ ROOK_ADJUSTMENT_PER_PAWN * count(key, color, PieceType.ROOK));
+	}
+
+	/**
+	 * Determines if a color has two or more bishops
+	 * @param key The material key
+	 * @param color The {@code Color}
+	 * @return true iff it does
+	 */
+	private static boolean hasBishopPair(long key, Color color) {
+		return count(key, color, PieceType.BISHOP) >= 2;
+	}
+
+	/**
+	 * Determines if the material is a lone knight or bishop at most, with no pawns, rooks, or queens, in which case neither side can
+	 * ever mate. Other dead positions, like bishops of the same color on both sides, depend on more than the material, so aren't found
+	 * @param key The material key
+	 * @return true iff the material is insufficient to mate
+	 */
+	private static boolean hasOnlyOneMinorPieceAtMost(long key) {
+		int minorPieces = 0;
+		for (Color color : Color.values()) {
+			if (count(key, color, PieceType.PAWN) + count(key, color, PieceType.ROOK) + count(key, color, PieceType.QUEEN) > 0) {
+				return false;
+			}
+			minorPieces += count(key, color, PieceType.KNIGHT) + count(key, color, PieceType.BISHOP);
+		}
+		return minorPieces <= 1;
+	}
+
+	/**
+	 * Works out how much to scale down an evaluation in a color's favor. Without pawns, a side needs at least a rook's worth of
+	 * material more than the other side to be able to win, apart from a lone minor piece or two knights, which can't force mate at all
+	 * @param key The material key
+	 * @param color The {@code Color} the evaluation favors
+	 * @return The scale, out of {@code NORMAL_SCALE}
+	 */
+	private static int getScale(long key, Color color) {
+		if (count(key, color, PieceType.PAWN) > 0) {
+			return NORMAL_SCALE;
+		}
+		int own = getNonPawnMaterial(key, color);
+		boolean onlyTwoKnights = count(key, color, PieceType.KNIGHT) == 2 && own == 2 * PieceType.KNIGHT.getConventionalEvaluation();
+		if (own <= PieceType.BISHOP.getConventionalEvaluation() || onlyTwoKnights) {
+			return 0;
+		}
+		int advantage = own - getNonPawnMaterial(key, color.getOtherColor());
+		return advantage >= PieceType.ROOK.getConventionalEvaluation() ? NORMAL_SCALE : DRAWISH_SCALE;
+	}
+
+	/**
+	 * Gets the material key this entry is for
+	 * @return The key
+	 */
+	public long getKey() {
+		return key;
+	}
+
+	/**
+	 * Gets the game phase of the material, as measured by {@code GamePhase}
+	 * @return The phase, which may be more than {@code GamePhase.MAX_PHASE} after promotions
+	 */
+	public int getPhase() {
+		return phase;
+	}
+
+	/**
+	 * Gets the middlegame adjustment for combinations of material
+	 * @return The adjustment, in centipawns, where positive is good for white
+	 */
+	public int getMiddlegameImbalance() {
+		return middlegameImbalance;
+	}
+
+	/**
+	 * Gets the endgame adjustment for combinations of material
+	 * @return The adjustment, in centipawns, where positive is good for white
+	 */
+	public int getEndgameImbalance() {
+		return endgameImbalance;
+	}
+
+	/**
+	 * Determines if neither side can possibly mate with this material, so the game is drawn
+	 * @return true iff it's a draw
+	 */
+	public boolean isInsufficientMaterial() {
+		return insufficientMaterial;
+	}
+
+	/**
+	 * Gets the most the pawn structure can change the middlegame score by with this material
+	 * @return The bound, in centipawns, which is 0 if there are no pawns
+	 */
+	public int getPawnMiddlegameBound() {
+		return pawnMiddlegameBound;
+	}
+
+	/**
+	 * Gets the most the pawn structure can change the endgame score by with this material
+	 * @return The bound, in centipawns, which is 0 if there are no pawns
+	 */
+	public int getPawnEndgameBound() {
+		return pawnEndgameBound;
+	}
+
+	/**
+	 * Gets the most the terms worked out from the attacks on the board can change the middlegame score by with this material
+	 * @return The bound, in centipawns, which is 0 if there are no knights, bishops, rooks, or queens, since the terms are all 0 then
+	 */
+	public int getAttackMiddlegameBound() {
+		return attackMiddlegameBound;
+	}
+
+	/**
+	 * Gets the most the terms worked out from the attacks on the board can change the endgame score by with this material
+	 * @return The bound, in centipawns, which is 0 if there are no knights, bishops, rooks, or queens, since the terms are all 0 then
+	 */
+	public int getAttackEndgameBound() {
+		return attackEndgameBound;
+	}
+
+	/**
+	 * Gets what evaluations that favor white are scaled by
+	 * @return The scale, out of {@code NORMAL_SCALE}
+	 */
+	public int getWhiteScale() {
+		return whiteScale;
+	}
+
+	/**
+	 * Gets what evaluations that favor black, or neither side, are scaled by
+	 * @return The scale, out of {@code NORMAL_SCALE}
+	 */
+	public int getBlackScale() {
+		return blackScale;
+	}
+
+	/**
+	 * Scales an evaluation down if the side it favors would have a hard time winning with this material
+	 * @param evaluation The evaluation, where positive is good for white
+	 * @return The scaled evaluation
+	 */
+	public int scale(int evaluation) {
+		return evaluation * (evaluation > 0 ? whiteScale : blackScale) / NORMAL_SCALE;
+	}
+}
@@ -0,0 +1,68 @@
+package evaluation;
+
+import representation.Board;
+import support.BadArgumentException;
+
+/**
+ * A fixed size cache of {@code MaterialEntry}s, keyed by the boards' material keys. Only a few hundred combinations of material come
+ * up in any one game, so nearly every probe finds its entry, and the material never has to be counted. Each key goes in the slot
+ * given by mixing its bits, and simply replaces whatever was there.
+ *
+ * Entries never change once made, and a slot only ever holds a reference to one, so the table can be shared between threads without
+ * any locking: at worst, two threads both work out the same entry. The program shares a single global table.
+ * @author matthewslesinski
+ *
+ */
+public class MaterialTable {
+
+	/** The number of slots in the global table */
+	private static final int GLOBAL_TABLE_SIZE = 1 << 13;
+
+	/** An odd constant with well mixed bits, used to spread material keys, whose counts sit in their low bits, over the table */
+	private static final long MIXER = 0x9E3779B97F4A7C15L;
+
+	/** The table shared by the whole program */
+	private static final MaterialTable GLOBAL_TABLE = new MaterialTable(GLOBAL_TABLE_SIZE);
+
+	/** The number of bits of the mixed key used as the index */
+	private final int indexBits;
+
+	/** The entries in each slot, or null for slots that haven't been used */
+	private final MaterialEntry[] entries;
+
+	/**
+	 * Creates a table with a given number of slots
+	 * @param size The number of slots. This must be a power of two
+	 */
+	public MaterialTable(int size) {
+		if (Integer.bitCount(size) != 1) {
+			throw new BadArgumentException(size, int.class, "The size of a material table must be a power of two");
+		}
+		indexBits = Integer.numberOfTrailingZeros(size);
+		entries = new MaterialEntry[size];
+	}
+
+	/**
+	 * Retrieves the table shared by the whole program
+	 * @return The {@code MaterialTable}
+	 */
+	public static MaterialTable getGlobalTable() {
+		return GLOBAL_TABLE;
+	}
+
+	/**
+	 * Gets the entry for a board's material, working it out if it isn't in the table
+	 * @param board The {@code Board}
+	 * @return The {@code MaterialEntry}
+	 */
+	public MaterialEntry probe(Board board) {
+		long key = board.getMaterialKey();
+		int index = indexBits == 0 ? 0 : (int) ((key * MIXER) >>> (Long.SIZE - indexBits));
+		MaterialEntry entry = entries[index];
+		if (entry == null || entry.getKey() != key) {
+			entry = new MaterialEntry(key);
+			entries[index] = entry;
+		}
+		return entry;
+	}
+}
@@ -0,0 +1,106 @@
+package evaluation;
+
+import hashing.MaterialKey;
+import pieces.Piece;
+import pieces.PieceType;
+
+/**
+ * Scores how freely each player's knights, bishops, rooks, and queens can move. A piece's mobility is the number of squares it attacks
+ * that aren't taken by its own pieces or guarded by an opposing pawn, since moving to one of those would just lose it. Each square
+ * above or below what's usual for that type of piece counts for a fixed bonus or penalty, which is bigger in the endgame for rooks and
+ * queens, since the board is more open then.
+ *
+ * The attacks come from an {@code AttackMap}, which the king safety terms use as well.
+ * @author matthewslesinski
+ *
+ */
+public class Mobility {
+
+	/** The middlegame score of each square of mobility, in the order of {@code PieceType} */
+	private static final int[] MIDDLEGAME_WEIGHTS = {0, 4, 5, 2, 1, 0};
+
+	/** The endgame score of each square of mobility, in the order of {@code PieceType} */
+	private static final int[] ENDGAME_WEIGHTS = {0, 4, 5, 4, 2, 0};
+
+	/** The mobility that scores nothing for each type of piece, in the order of {@code PieceType} */
+	private static final int[] USUAL_MOBILITY = {0, 4, 7, 7, 14, 0};
+
+	/** The most squares a piece of each type can attack, which it does from the middle of an empty board, in the order of {@code PieceType} */
+	private static final int[] MAX_MOBILITY = {0, 8, 13, 14, 27, 0};
+
+	/**
+	 * Scores both players' mobility in the middlegame
+	 * @param map The {@code AttackMap} for the board
+	 * @return The score, where positive is good for white
+	 */
+	public static int getMiddlegameScore(AttackMap map) {
+		return getScore(map, MIDDLEGAME_WEIGHTS);
+	}
+
+	/**
+	 * Scores both players' mobility in the endgame
+	 * @param map The {@code AttackMap} for the board
+	 * @return The score, where positive is good for white
+	 */
+	public static int getEndgameScore(AttackMap map) {
+		return getScore(map, ENDGAME_WEIGHTS);
+	}
+
+	/**
+	 * Scores both players' mobility with one set of weights
+	 * @param map The {@code AttackMap} for the board
+	 * @param weights The score of each square of mobility, in the order of {@code PieceType}
+	 * @return The score, where positive is good for white
+	 */
+	private static int getScore(AttackMap map, int[] weights) {
+		int pawn = PieceType.PAWN.ordinal();
+		// The squares each color's pieces can go to: not their own pieces' squares, and not guarded by the other color's pawns
+		long[] available = {
+				~map.occupancy[0] & ~map.attacks[1][pawn],
+				~map.occupancy[1] & ~map.attacks[0][pawn]};
+		int score = 0;
+		for (int i = 0; i < map.pieceCount; i++) {
+			int side = map.pieceSides[i];
+			int type = map.pieceTypes[i].ordinal();
+			int pieceScore = weights[type] * (Long.bitCount(map.pieceAttacks[i] & available[side]) - USUAL_MOBILITY[type]);
+			score += side == 0 ? pieceScore : -pieceScore;
+		}
+		return score;
+	}
+
+	/**
+	 * Works out the most mobility can change the middlegame score by, either way, with some material on the board
+	 * @param key The material key, as given by {@code MaterialKey}
+	 * @return The bound, in centipawns
+	 */
+	public static int getMiddlegameBound(long key) {
+		return getBound(key, MIDDLEGAME_WEIGHTS);
+	}
+
+	/**
+	 * Works out the most mobility can change the endgame score by, either way, with some material on the board
+	 * @param key The material key, as given by {@code MaterialKey}
+	 * @return The bound, in centipawns
+	 */
+	public static int getEndgameBound(long key) {
+		return getBound(key, ENDGAME_WEIGHTS);
+	}
+
+	/**
+	 * Works out the most mobility can change a score by with one set of weights. Each piece's score is furthest from 0 when it attacks
+	 * either no squares or as many as its type ever can, and the most the difference between the players' scores can be is the sum of
+	 * those extremes over all the pieces
+	 * @param key The material key, as given by {@code MaterialKey}
+	 * @param weights The score of each square of mobility, in the order of {@code PieceType}
+	 * @return The bound, in centipawns
+	 */
+	private static int getBound(long key, int[] weights) {
+		int bound = 0;
+		for (Piece piece : Piece.realPieces()) {
+			int type = piece.getType().ordinal();
+			int pieceBound = weights[type] * Math.max(USUAL_MOBILITY[type], MAX_MOBILITY[type] - USUAL_MOBILITY[type]);
+			bound += pieceBound * MaterialKey.getCount(key, piece);
+		}
+		return bound;
+	}
+}
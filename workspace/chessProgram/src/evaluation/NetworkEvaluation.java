@@ -0,0 +1,187 @@
+package evaluation;
+
+import representation.Board;
+
+/**
+ * Evaluates a board with a small quantized neural network, which is efficiently updatable: its first layer only changes a little with
+ * each move, so it's kept up to date move by move in an {@code AccumulatorTable} instead of being worked out from scratch. The
+ * network has three layers:
+ * <ol>
+ * <li>The accumulators from {@code FeatureTransformer}, one for each player's perspective, which are clipped to between 0 and
+ * {@code ACTIVATION_LIMIT} and put side by side, with the player to move's first</li>
+ * <li>A hidden layer, whose sums are shifted down by {@code WEIGHT_SHIFT} and clipped the same way</li>
+ * <li>A single output, which is divided by {@code OUTPUT_DIVISOR} to get centipawns for the player to move</li>
+ * </ol>
+ * Everything is done with integers, in plain loops over arrays that the JIT compiler can turn into vector instructions, so nothing but
+ * an ordinary CPU is needed. The hidden layer's and the output's sums are kept in longs, since a wide layer of large weights can add
+ * up to more than an int holds. The weights are shared by the whole program, but each evaluator has its own accumulators.
+ * @author matthewslesinski
+ *
+ */
+public class NetworkEvaluation implements Evaluator {
+
+	/** The number of slots in the accumulator table */
+	private static final int ACCUMULATOR_TABLE_SIZE = 1 << 12;
+
+	/** The most any neuron's output can be */
+	private static final int ACTIVATION_LIMIT = 127;
+
+	/** How many bits the hidden layer's sums are shifted down by, to undo the scaling of its quantized weights */
+	private static final int WEIGHT_SHIFT = 6;
+
+	/** What the output is divided by to get centipawns */
+	private static final int OUTPUT_DIVISOR = 16;
+
+	/** The most the evaluation can be in either direction, which keeps it well away from mate scores */
+	private static final int EVALUATION_LIMIT = Score.MATE_BOUND / 2;
+
+	/** The weights of the network */
+	private final NetworkWeights weights;
+
+	/** The accumulators of the boards this evaluator has seen recently */
+	private final AccumulatorTable accumulatorTable;
+
+	/** The clipped accumulators, side by side, which are the input to the hidden layer */
+	private final short[] inputs;
+
+	/** The clipped outputs of the hidden layer */
+	private final short[] hidden;
+
+	/** The inputs to the hidden layer for each position in the batch being evaluated, one position after another */
+	private short[] batchInputs = new short[0];
+
+	/** The clipped outputs of the hidden layer for the batch being evaluated, one neuron after another, with a slot for each position */
+	private short[] batchHidden = new short[0];
+
+	/** The network's output for each position in the batch being evaluated */
+	private long[] batchOutputs = new long[0];
+
+	public NetworkEvaluation() {
+		this(NetworkWeights.getGlobalWeights());
+	}
+
+	/**
+	 * Creates an evaluator that runs a network with the given weights
+	 * @param weights The {@code NetworkWeights}
+	 */
+	public NetworkEvaluation(NetworkWeights weights) {
+		this.weights = weights;
+		this.accumulatorTable = new AccumulatorTable(ACCUMULATOR_TABLE_SIZE, weights);
+		this.inputs = new short[2 * weights.getAccumulatorSize()];
+		this.hidden = new short[weights.getHiddenSize()];
+	}
+
+	@Override
+	public int evaluateBoard(Board board) {
+		if (MaterialTable.getGlobalTable().probe(board).isInsufficientMaterial()) {
+			return Score.DRAW;
+		}
+		boolean white = board.whoseMove().isWhite();
+		Accumulator accumulator = accumulatorTable.probe(board);
+		int size = weights.getAccumulatorSize();
+		clip(accumulator.getValues(white), inputs, 0);
+		clip(accumulator.getValues(!white), inputs, size);
+		int[] hiddenBiases = weights.getHiddenBiases();
+		short[] hiddenWeights = weights.getHiddenWeights();
+		for (int neuron = 0; neuron < hidden.length; neuron++) {
+			int offset = neuron * inputs.length;
+			long sum = hiddenBiases[neuron];
+			for (int i = 0; i < inputs.length; i++) {
+				sum += hiddenWeights[offset + i] * inputs[i];
+			}
+			hidden[neuron] = (short) Math.max(0, Math.min(ACTIVATION_LIMIT, sum >> WEIGHT_SHIFT));
+		}
+		short[] outputWeights = weights.getOutputWeights();
+		long output = weights.getOutputBias();
+		for (int neuron = 0; neuron < hidden.length; neuron++) {
+			output += outputWeights[neuron] * hidden[neuron];
+		}
+		return toEvaluation(output, white);
+	}
+
+	@Override
+	public void evaluateBatch(PositionBatch batch, int[] evaluations) {
+		int size = batch.size();
+		int inputSize = inputs.length;
+		int accumulatorSize = weights.getAccumulatorSize();
+		ensureBatchCapacity(batch.capacity());
+		boolean[] whiteToMove = batch.getWhiteToMove();
+		for (int i = 0; i < size; i++) {
+			Accumulator accumulator = accumulatorTable.probe(batch.getBoard(i));
+			clip(accumulator.getValues(whiteToMove[i]), batchInputs, i * inputSize);
+			clip(accumulator.getValues(!whiteToMove[i]), batchInputs, i * inputSize + accumulatorSize);
+		}
+		// Go neuron by neuron, so that each neuron's weights stay in the cache while they're applied to every position
+		int[] hiddenBiases = weights.getHiddenBiases();
+		short[] hiddenWeights = weights.getHiddenWeights();
+		short[] outputWeights = weights.getOutputWeights();
+		int capacity = batchOutputs.length;
+		for (int i = 0; i < size; i++) {
+			batchOutputs[i] = weights.getOutputBias();
+		}
+		for (int neuron = 0; neuron < hidden.length; neuron++) {
+			int offset = neuron * inputSize;
+			int hiddenOffset = neuron * capacity;
+			for (int i = 0; i < size; i++) {
+				int inputOffset = i * inputSize;
+				long sum = hiddenBiases[neuron];
+				for (int j = 0; j < inputSize; j++) {
+					sum += hiddenWeights[offset + j] * batchInputs[inputOffset + j];
+				}
+				batchHidden[hiddenOffset + i] = (short) Math.max(0, Math.min(ACTIVATION_LIMIT, sum >> WEIGHT_SHIFT));
+			}
+			int outputWeight = outputWeights[neuron];
+			for (int i = 0; i < size; i++) {
+				batchOutputs[i] += outputWeight * batchHidden[hiddenOffset + i];
+			}
+		}
+		for (int i = 0; i < size; i++) {
+			boolean drawn = MaterialTable.getGlobalTable().probe(batch.getBoard(i)).isInsufficientMaterial();
+			evaluations[i] = drawn ? Score.DRAW : toEvaluation(batchOutputs[i], whiteToMove[i]);
+		}
+	}
+
+	/**
+	 * Makes sure the arrays used to evaluate batches are big enough
+	 * @param capacity The capacity of the batch about to be evaluated
+	 */
+	private void ensureBatchCapacity(int capacity) {
+		if (batchOutputs.length < capacity) {
+			batchInputs = new short[capacity * inputs.length];
+			batchHidden = new short[capacity * hidden.length];
+			batchOutputs = new long[capacity];
+		}
+	}
+
+	/**
+	 * Turns the network's output into an evaluation
+	 * @param output The output, which is from the point of view of the player to move
+	 * @param white Whether it's white's move
+	 * @return The evaluation, in centipawns, where positive is good for white
+	 */
+	private static int toEvaluation(long output, boolean white) {
+		int evaluation = (int) Math.max(-EVALUATION_LIMIT, Math.min(EVALUATION_LIMIT, output / OUTPUT_DIVISOR));
+		return white ? evaluation : -evaluation;
+	}
+
+	/**
+	 * Clips one perspective's accumulator to between 0 and {@code ACTIVATION_LIMIT}, into the input to the hidden layer
+	 * @param values The accumulator
+	 * @param destination The input to the hidden layer
+	 * @param offset Where in the input the accumulator goes
+	 */
+	private static void clip(short[] values, short[] destination, int offset) {
+		for (int i = 0; i < values.length; i++) {
+			destination[offset + i] = (short) Math.max(0, Math.min(ACTIVATION_LIMIT, values[i]));
+		}
+	}
+
+	/**
+	 * Gets the table this evaluator keeps its accumulators in, to see how well it's working
+	 * @return The {@code AccumulatorTable}
+	 */
+	public AccumulatorTable getAccumulatorTable() {
+		return accumulatorTable;
+	}
+
+}
@@ -0,0 +1,249 @@
+package evaluation;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import support.BadArgumentException;
+import support.Constants;
+
+/**
+ * The quantized weights of the network {@code NetworkEvaluation} runs. They are read from a file that is mapped into memory, so the
+ * operating system pages it in straight from its cache rather than copying it through a stream, and then copied into arrays, which the
+ * JIT compiler can turn into vector instructions when it loops over them. The file is little endian, and is laid out as:
+ * <ol>
+ * <li>The int {@code MAGIC}</li>
+ * <li>An int for the size of the accumulator for each perspective, and an int for the size of the hidden layer</li>
+ * <li>The accumulator's biases, as shorts</li>
+ * <li>The accumulator's weights, as shorts, grouped by feature, so that the weights one feature adds to the accumulator are next to
+ * each other</li>
+ * <li>The hidden layer's biases, as ints</li>
+ * <li>The hidden layer's weights, as shorts, grouped by hidden neuron, with the weights for the player to move's accumulator before the
+ * ones for the other player's</li>
+ * <li>The output's bias, as an int, and its weights, as shorts</li>
+ * </ol>
+ * The weights never change once read, so a single set is shared by every evaluator in the program. A small network of random weights
+ * can be written with {@code writeRandomWeights}, which is enough to check that the evaluation runs and that its accumulators are
+ * kept up to date correctly, without a trained network.
+ * @author matthewslesinski
+ *
+ */
+public class NetworkWeights {
+
+	/** The first four bytes of a weights file, which spell "NNUE" */
+	public static final int MAGIC = 0x4E4E5545;
+
+	/** The size of the accumulator for each perspective */
+	private final int accumulatorSize;
+
+	/** The number of neurons in the hidden layer */
+	private final int hiddenSize;
+
+	/** The accumulator's biases */
+	private final short[] accumulatorBiases;
+
+	/** The accumulator's weights, indexed by the feature times the accumulator's size, plus the index in the accumulator */
+	private final short[] accumulatorWeights;
+
+	/** The hidden layer's biases */
+	private final int[] hiddenBiases;
+
+	/** The hidden layer's weights, indexed by the hidden neuron times twice the accumulator's size, plus the index of the input */
+	private final short[] hiddenWeights;
+
+	/** The output's bias */
+	private final int outputBias;
+
+	/** The output's weights, one for each hidden neuron */
+	private final short[] outputWeights;
+
+	/**
+	 * Reads weights from a file
+	 * @param filepath The path to the file
+	 */
+	public NetworkWeights(String filepath) {
+		try (FileChannel channel = FileChannel.open(Paths.get(filepath), StandardOpenOption.READ)) {
+			MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			ByteBuffer buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+			if (buffer.remaining() < 3 * Integer.BYTES || buffer.getInt() != MAGIC) {
+				throw new BadArgumentException(filepath, File.class, "This isn't a network weights file");
+			}
+			accumulatorSize = buffer.getInt();
+			hiddenSize = buffer.getInt();
+			if (accumulatorSize <= 0 || hiddenSize <= 0 || channel.size() != getFileSize(accumulatorSize, hiddenSize)) {
+				throw new BadArgumentException(filepath, File.class, "The network in this file doesn't have the expected shape");
+			}
+			accumulatorBiases = readShorts(buffer, accumulatorSize);
+			accumulatorWeights = readShorts(buffer, FeatureTransformer.FEATURE_COUNT * accumulatorSize);
+			hiddenBiases = new int[hiddenSize];
+			buffer.asIntBuffer().get(hiddenBiases);
+			buffer.position(buffer.position() + hiddenSize * Integer.BYTES);
+			hiddenWeights = readShorts(buffer, hiddenSize * 2 * accumulatorSize);
+			outputBias = buffer.getInt();
+			outputWeights = readShorts(buffer, hiddenSize);
+		} catch (IOException e) {
+			throw new BadArgumentException(filepath, File.class, "Can't read this file");
+		}
+	}
+
+	/**
+	 * Writes a file of random weights with the given shape. The weights are small enough that every layer's inputs land both inside and
+	 * outside the range they're clipped to, so the network exercises all of the evaluation
+	 * @param filepath The path to write the file to
+	 * @param accumulatorSize The size of the accumulator for each perspective
+	 * @param hiddenSize The number of neurons in the hidden layer
+	 * @param seed The seed of the random numbers, so the same seed always gives the same network
+	 */
+	public static void writeRandomWeights(String filepath, int accumulatorSize, int hiddenSize, long seed) {
+		if (accumulatorSize <= 0 || hiddenSize <= 0) {
+			throw new BadArgumentException(accumulatorSize + "x" + hiddenSize, int.class, "A network's layers must have neurons");
+		}
+		Random random = new Random(seed);
+		long bytes = getFileSize(accumulatorSize, hiddenSize);
+		if (bytes > Integer.MAX_VALUE) {
+			throw new BadArgumentException(accumulatorSize + "x" + hiddenSize, int.class, "This network is too big to generate");
+		}
+		ByteBuffer buffer = ByteBuffer.allocate((int) bytes).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(MAGIC).putInt(accumulatorSize).putInt(hiddenSize);
+		for (int i = 0; i < accumulatorSize; i++) {
+			buffer.putShort((short) random.nextInt(40));
+		}
+		for (int i = 0; i < FeatureTransformer.FEATURE_COUNT * accumulatorSize; i++) {
+			buffer.putShort((short) (random.nextInt(21) - 10));
+		}
+		for (int i = 0; i < hiddenSize; i++) {
+			buffer.putInt(random.nextInt(200) - 100);
+		}
+		for (int i = 0; i < hiddenSize * 2 * accumulatorSize; i++) {
+			buffer.putShort((short) (random.nextInt(41) - 20));
+		}
+		buffer.putInt(0);
+		for (int i = 0; i < hiddenSize; i++) {
+			buffer.putShort((short) (random.nextInt(201) - 100));
+		}
+		try (OutputStream output = Files.newOutputStream(Paths.get(filepath))) {
+			output.write(buffer.array());
+		} catch (IOException e) {
+			throw new BadArgumentException(filepath, File.class, "Can't write this file");
+		}
+	}
+
+	/**
+	 * Works out how big a weights file is for a network of a given shape
+	 * @param accumulatorSize The size of the accumulator for each perspective
+	 * @param hiddenSize The number of neurons in the hidden layer
+	 * @return The size of the file, in bytes
+	 */
+	private static long getFileSize(int accumulatorSize, int hiddenSize) {
+		return 3L * Integer.BYTES
+				+ (long) Short.BYTES * accumulatorSize * (1L + FeatureTransformer.FEATURE_COUNT)
+				+ (long) Integer.BYTES * hiddenSize
+				+ (long) Short.BYTES * hiddenSize * 2 * accumulatorSize
+				+ Integer.BYTES + (long) Short.BYTES * hiddenSize;
+	}
+
+	/**
+	 * Reads shorts from a buffer, moving its position past them
+	 * @param buffer The {@code ByteBuffer}, which must be little endian
+	 * @param count The number of shorts to read
+	 * @return The shorts
+	 */
+	private static short[] readShorts(ByteBuffer buffer, int count) {
+		short[] values = new short[count];
+		buffer.asShortBuffer().get(values);
+		buffer.position(buffer.position() + count * Short.BYTES);
+		return values;
+	}
+
+	/**
+	 * Retrieves the weights shared by the whole program, which are read from the file given by {@code Constants.NETWORK_FILE} the first
+	 * time they're needed
+	 * @return The {@code NetworkWeights}
+	 */
+	public static NetworkWeights getGlobalWeights() {
+		return GlobalWeightsHolder.GLOBAL_WEIGHTS;
+	}
+
+	/**
+	 * Holds the global weights, so that they're only read once something asks for them
+	 * @author matthewslesinski
+	 *
+	 */
+	private static class GlobalWeightsHolder {
+
+		/** The weights shared by the whole program */
+		private static final NetworkWeights GLOBAL_WEIGHTS = new NetworkWeights(Constants.NETWORK_FILE);
+	}
+
+	/**
+	 * Gets the size of the accumulator for each perspective
+	 * @return The size
+	 */
+	public int getAccumulatorSize() {
+		return accumulatorSize;
+	}
+
+	/**
+	 * Gets the number of neurons in the hidden layer
+	 * @return The number of neurons
+	 */
+	public int getHiddenSize() {
+		return hiddenSize;
+	}
+
+	/**
+	 * Gets the accumulator's biases, which must not be modified
+	 * @return The biases
+	 */
+	short[] getAccumulatorBiases() {
+		return accumulatorBiases;
+	}
+
+	/**
+	 * Gets the accumulator's weights, which must not be modified
+	 * @return The weights, indexed by the feature times the accumulator's size, plus the index in the accumulator
+	 */
+	short[] getAccumulatorWeights() {
+		return accumulatorWeights;
+	}
+
+	/**
+	 * Gets the hidden layer's biases, which must not be modified
+	 * @return The biases
+	 */
+	int[] getHiddenBiases() {
+		return hiddenBiases;
+	}
+
+	/**
+	 * Gets the hidden layer's weights, which must not be modified
+	 * @return The weights, indexed by the hidden neuron times twice the accumulator's size, plus the index of the input
+	 */
+	short[] getHiddenWeights() {
+		return hiddenWeights;
+	}
+
+	/**
+	 * Gets the output's bias
+	 * @return The bias
+	 */
+	int getOutputBias() {
+		return outputBias;
+	}
+
+	/**
+	 * Gets the output's weights, which must not be modified
+	 * @return The weights, one for each hidden neuron
+	 */
+	short[] getOutputWeights() {
+		return outputWeights;
+	}
+}
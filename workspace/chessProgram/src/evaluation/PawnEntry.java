@@ -0,0 +1,72 @@
+package evaluation;
+
+/**
+ * Holds what {@code PawnStructure} found about one arrangement of pawns, in a slot of a {@code PawnTable}. Entries are reused as the
+ * table's slots get replaced, so they should only be read until the next probe of the same table.
+ * @author matthewslesinski
+ *
+ */
+public class PawnEntry {
+
+	/** The pawn hashcode of the boards this entry is for */
+	long key;
+
+	/** Whether this entry has been filled in yet */
+	boolean filled = false;
+
+	/** The middlegame score of the pawn structure, where positive is good for white */
+	int middlegameScore;
+
+	/** The endgame score of the pawn structure, where positive is good for white */
+	int endgameScore;
+
+	/** The squares white's pawns are on, with one bit for each square's index */
+	long whitePawns;
+
+	/** The squares black's pawns are on, with one bit for each square's index */
+	long blackPawns;
+
+	/** The squares passed pawns of either color are on, with one bit for each square's index */
+	long passedPawns;
+
+	/**
+	 * Gets the middlegame score of the pawn structure
+	 * @return The score, in centipawns, where positive is good for white
+	 */
+	public int getMiddlegameScore() {
+		return middlegameScore;
+	}
+
+	/**
+	 * Gets the endgame score of the pawn structure
+	 * @return The score, in centipawns, where positive is good for white
+	 */
+	public int getEndgameScore() {
+		return endgameScore;
+	}
+
+	/**
+	 * Gets the squares white's pawns are on
+	 * @return A {@code long} with a 1 in the bit for each square's index
+	 */
+	public long getWhitePawns() {
+		return whitePawns;
+	}
+
+	/**
+	 * Gets the squares black's pawns are on
+	 * @return A {@code long} with a 1 in the bit for each square's index
+	 */
+	public long getBlackPawns() {
+		return blackPawns;
+	}
+
+	/**
+	 * Gets the squares passed pawns of either color are on. A passed pawn has no opposing pawns in front of it, on its own file or
+	 * either neighboring file
+	 * @return A {@code long} with a 1 in the bit for each square's index
+	 */
+	public long getPassedPawns() {
+		return passedPawns;
+	}
+}
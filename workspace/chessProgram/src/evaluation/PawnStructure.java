@@ -0,0 +1,294 @@
+package evaluation;
+
+import boardFeatures.Square;
+import gamePlaying.Color;
+import hashing.MaterialKey;
+import pieces.Piece;
+import pieces.PieceType;
+import representation.Board;
+
+/**
+ * Scores the arrangement of the pawns on a board, which mostly depends on nothing but the pawns themselves. A pawn is penalized for
+ * being doubled, with a pawn of its own color in front of it on its file, for being isolated, with no pawns of its own color on either
+ * neighboring file, and for being backward, when it can't be supported by a neighboring pawn and can't safely step forward either. A
+ * passed pawn, with no opposing pawns in front of it on its own file or either neighboring file, gets a bonus that grows the further
+ * it has advanced.
+ *
+ * Those terms only change when a pawn moves, so they're kept in a {@code PawnTable}. The shield of pawns in front of each king also
+ * depends on where the king is, so it isn't cached, but it only takes a few bit operations on the pawns the table keeps.
+ *
+ * The pawns are handled as {@code long}s with one bit for each square, in the order of the squares' indices, so that a whole file
+ * takes up one byte.
+ * @author matthewslesinski
+ *
+ */
+public class PawnStructure {
+
+	/** The number of squares on a file or rank */
+	private static final int LINE_LENGTH = 8;
+
+	/** The middlegame penalty for each pawn that has another of its own pawns in front of it */
+	private static final int DOUBLED_MIDDLEGAME = -10;
+
+	/** The endgame penalty for each pawn that has another of its own pawns in front of it */
+	private static final int DOUBLED_ENDGAME = -20;
+
+	/** The middlegame penalty for a pawn with no pawns of its own color on either neighboring file */
+	private static final int ISOLATED_MIDDLEGAME = -10;
+
+	/** The endgame penalty for a pawn with no pawns of its own color on either neighboring file */
+	private static final int ISOLATED_ENDGAME = -15;
+
+	/** The middlegame penalty for a pawn that can't be supported and whose next square is guarded by an opposing pawn */
+	private static final int BACKWARD_MIDDLEGAME = -8;
+
+	/** The endgame penalty for a pawn that can't be supported and whose next square is guarded by an opposing pawn */
+	private static final int BACKWARD_ENDGAME = -10;
+
+	/** The middlegame bonus for a passed pawn, by how many ranks it is from its own side of the board */
+	private static final int[] PASSED_MIDDLEGAME = {0, 5, 10, 15, 25, 40, 60, 0};
+
+	/** The endgame bonus for a passed pawn, by how many ranks it is from its own side of the board */
+	private static final int[] PASSED_ENDGAME = {0, 10, 15, 25, 45, 70, 100, 0};
+
+	/** The middlegame bonus for each pawn right in front of its king, or diagonally in front of it */
+	private static final int SHIELD_NEAR_MIDDLEGAME = 10;
+
+	/** The middlegame bonus for each pawn two squares in front of its king, or on a neighboring file two squares ahead */
+	private static final int SHIELD_FAR_MIDDLEGAME = 5;
+
+	/** The squares on each file, by the file's index */
+	private static final long[] FILES = new long[LINE_LENGTH];
+
+	/** The squares on the files on either side of each file, by the file's index */
+	private static final long[] NEIGHBORING_FILES = new long[LINE_LENGTH];
+
+	/** For each color and square, the squares in front of it on its file */
+	private static final long[][] FRONT_SPANS = new long[2][Square.values().length];
+
+	/** For each color and square, the squares in front of it on its file and on the neighboring files, where opposing pawns would stop it from being passed */
+	private static final long[][] PASSED_SPANS = new long[2][Square.values().length];
+
+	/** For each color and square, the squares on the neighboring files level with it or behind it, where pawns could support it */
+	private static final long[][] SUPPORT_SPANS = new long[2][Square.values().length];
+
+	/** For each color and square, the squares opposing pawns would have to be on to guard the square in front of it */
+	private static final long[][] STOP_GUARDS = new long[2][Square.values().length];
+
+	/** For each color and square a king could be on, the squares one rank in front of it, on its file and the neighboring ones */
+	private static final long[][] NEAR_SHIELDS = new long[2][Square.values().length];
+
+	/** For each color and square a king could be on, the squares two ranks in front of it, on its file and the neighboring ones */
+	private static final long[][] FAR_SHIELDS = new long[2][Square.values().length];
+
+	static {
+		initializeMasks();
+	}
+
+	/**
+	 * Fills in the masks of squares used to analyze pawns
+	 */
+	private static void initializeMasks() {
+		for (int file = 0; file < LINE_LENGTH; file++) {
+			FILES[file] = 0xFFL << (file * LINE_LENGTH);
+		}
+		for (int file = 0; file < LINE_LENGTH; file++) {
+			NEIGHBORING_FILES[file] = (file > 0 ? FILES[file - 1] : 0L) | (file < LINE_LENGTH - 1 ? FILES[file + 1] : 0L);
+		}
+		for (Color color : Color.values()) {
+			int side = getSide(color);
+			int forward = color.isWhite() ? 1 : -1;
+			for (Square square : Square.values()) {
+				int file = square.getFile().getIndex();
+				int rank = square.getRank().getIndex();
+				int index = square.getIndex();
+				for (int otherFile = file - 1; otherFile <= file + 1; otherFile++) {
+					for (int otherRank = 0; otherRank < LINE_LENGTH; otherRank++) {
+						long bit = getBit(otherFile, otherRank);
+						int ranksAhead = (otherRank - rank) * forward;
+						if (ranksAhead > 0) {
+							PASSED_SPANS[side][index] |= bit;
+							if (otherFile == file) {
+								FRONT_SPANS[side][index] |= bit;
+							}
+						} else if (otherFile != file) {
+							SUPPORT_SPANS[side][index] |= bit;
+						}
+						if (otherFile != file && ranksAhead == 2) {
+							STOP_GUARDS[side][index] |= bit;
+						}
+						if (ranksAhead == 1) {
+							NEAR_SHIELDS[side][index] |= bit;
+						} else if (ranksAhead == 2) {
+							FAR_SHIELDS[side][index] |= bit;
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the bit for a square
+	 * @param file The index of the square's file
+	 * @param rank The index of the square's rank
+	 * @return The bit, or 0 if there is no such square
+	 */
+	private static long getBit(int file, int rank) {
+		if (file < 0 || file >= LINE_LENGTH || rank < 0 || rank >= LINE_LENGTH) {
+			return 0L;
+		}
+		return 1L << (file * LINE_LENGTH + rank);
+	}
+
+	/**
+	 * Gets the index masks are kept under for a color
+	 * @param color The {@code Color}
+	 * @return 0 for white and 1 for black
+	 */
+	private static int getSide(Color color) {
+		return color.isWhite() ? 0 : 1;
+	}
+
+	/**
+	 * Analyzes the pawns on a board, and records the results in an entry
+	 * @param board The {@code Board}
+	 * @param entry The {@code PawnEntry} to fill in
+	 */
+	public static void analyze(Board board, PawnEntry entry) {
+		long whitePawns = 0L;
+		long blackPawns = 0L;
+		Piece whitePawn = Piece.getByColorAndType(Color.WHITE, PieceType.PAWN);
+		Piece blackPawn = Piece.getByColorAndType(Color.BLACK, PieceType.PAWN);
+		for (Square square : Square.values()) {
+			Piece piece = board.getPieceAtSquare(square);
+			if (piece == whitePawn) {
+				whitePawns |= 1L << square.getIndex();
+			} else if (piece == blackPawn) {
+				blackPawns |= 1L << square.getIndex();
+			}
+		}
+		entry.whitePawns = whitePawns;
+		entry.blackPawns = blackPawns;
+		entry.middlegameScore = 0;
+		entry.endgameScore = 0;
+		entry.passedPawns = 0L;
+		analyzeSide(Color.WHITE, whitePawns, blackPawns, entry);
+		analyzeSide(Color.BLACK, blackPawns, whitePawns, entry);
+	}
+
+	/**
+	 * Adds the scores for one color's pawns to an entry, and records which of them are passed
+	 * @param color The {@code Color} of the pawns
+	 * @param ownPawns The squares that color's pawns are on
+	 * @param opposingPawns The squares the other color's pawns are on
+	 * @param entry The {@code PawnEntry} to add to
+	 */
+	private static void analyzeSide(Color color, long ownPawns, long opposingPawns, PawnEntry entry) {
+		int side = getSide(color);
+		int sign = color.isWhite() ? 1 : -1;
+		int middlegame = 0;
+		int endgame = 0;
+		for (long remaining = ownPawns; remaining != 0; remaining &= remaining - 1) {
+			int index = Long.numberOfTrailingZeros(remaining);
+			int file = index / LINE_LENGTH;
+			int rank = index % LINE_LENGTH;
+			boolean doubled = (FRONT_SPANS[side][index] & ownPawns) != 0;
+			boolean isolated = (NEIGHBORING_FILES[file] & ownPawns) == 0;
+			if (doubled) {
+				middlegame += DOUBLED_MIDDLEGAME;
+				endgame += DOUBLED_ENDGAME;
+			}
+			if (isolated) {
+				middlegame += ISOLATED_MIDDLEGAME;
+				endgame += ISOLATED_ENDGAME;
+			} else if ((SUPPORT_SPANS[side][index] & ownPawns) == 0 && (STOP_GUARDS[side][index] & opposingPawns) != 0) {
+				middlegame += BACKWARD_MIDDLEGAME;
+				endgame += BACKWARD_ENDGAME;
+			}
+			// Only the front pawn of a doubled pair counts as passed, since the one behind it can't advance past it
+			if (!doubled && (PASSED_SPANS[side][index] & opposingPawns) == 0) {
+				int relativeRank = color.isWhite() ? rank : LINE_LENGTH - 1 - rank;
+				middlegame += PASSED_MIDDLEGAME[relativeRank];
+				endgame += PASSED_ENDGAME[relativeRank];
+				entry.passedPawns |= 1L << index;
+			}
+		}
+		entry.middlegameScore += sign * middlegame;
+		entry.endgameScore += sign * endgame;
+	}
+
+	/**
+	 * Scores the pawns sheltering both kings, which only matters in the middlegame
+	 * @param board The {@code Board}
+	 * @param entry The {@code PawnEntry} for the board's pawns
+	 * @return The middlegame score, where positive is good for white
+	 */
+	public static int getShieldScore(Board board, PawnEntry entry) {
+		return getShieldScore(Color.WHITE, board.getKingSquare(Color.WHITE), entry.getWhitePawns())
+				- getShieldScore(Color.BLACK, board.getKingSquare(Color.BLACK), entry.getBlackPawns());
+	}
+
+	/**
+	 * Scores the pawns sheltering one king
+	 * @param color The {@code Color} of the king
+	 * @param kingSquare The {@code Square} the king is on
+	 * @param ownPawns The squares that color's pawns are on
+	 * @return The middlegame bonus for that color
+	 */
+	private static int getShieldScore(Color color, Square kingSquare, long ownPawns) {
+		int side = getSide(color);
+		int index = kingSquare.getIndex();
+		return SHIELD_NEAR_MIDDLEGAME * Long.bitCount(NEAR_SHIELDS[side][index] & ownPawns)
+				+ SHIELD_FAR_MIDDLEGAME * Long.bitCount(FAR_SHIELDS[side][index] & ownPawns);
+	}
+
+	/**
+	 * Works out the most the pawn structure and the shields in front of the kings can change the middlegame score by, either way, with
+	 * some material on the board
+	 * @param key The material key, as given by {@code MaterialKey}
+	 * @return The bound, in centipawns
+	 */
+	public static int getMiddlegameBound(long key) {
+		int pawnBound = getPawnBound(DOUBLED_MIDDLEGAME, ISOLATED_MIDDLEGAME, BACKWARD_MIDDLEGAME, PASSED_MIDDLEGAME);
+		// Each pawn is in front of its own king at most once, either one rank or two ahead of it
+		return countPawns(key) * (pawnBound + Math.max(SHIELD_NEAR_MIDDLEGAME, SHIELD_FAR_MIDDLEGAME));
+	}
+
+	/**
+	 * Works out the most the pawn structure can change the endgame score by, either way, with some material on the board
+	 * @param key The material key, as given by {@code MaterialKey}
+	 * @return The bound, in centipawns
+	 */
+	public static int getEndgameBound(long key) {
+		return countPawns(key) * getPawnBound(DOUBLED_ENDGAME, ISOLATED_ENDGAME, BACKWARD_ENDGAME, PASSED_ENDGAME);
+	}
+
+	/**
+	 * Works out the most one pawn's terms can add up to, either way. Only being passed is good, and a pawn that's doubled isn't passed,
+	 * so the most it can gain is the biggest passed bonus, and the most it can lose is the penalty for being doubled along with the
+	 * bigger of the penalties for being isolated or backward, which never both count
+	 * @param doubled The penalty for being doubled
+	 * @param isolated The penalty for being isolated
+	 * @param backward The penalty for being backward
+	 * @param passed The bonus for being passed, by the pawn's rank
+	 * @return The bound, in centipawns
+	 */
+	private static int getPawnBound(int doubled, int isolated, int backward, int[] passed) {
+		int mostPassed = 0;
+		for (int bonus : passed) {
+			mostPassed = Math.max(mostPassed, bonus);
+		}
+		return Math.max(mostPassed, -doubled - Math.min(isolated, backward));
+	}
+
+	/**
+	 * Counts the pawns of both colors
+	 * @param key The material key, as given by {@code MaterialKey}
+	 * @return The number of pawns
+	 */
+	private static int countPawns(long key) {
+		return MaterialKey.getCount(key, Piece.getByColorAndType(Color.WHITE, PieceType.PAWN))
+				+ MaterialKey.getCount(key, Piece.getByColorAndType(Color.BLACK, PieceType.PAWN));
+	}
+}
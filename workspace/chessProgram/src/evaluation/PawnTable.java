@@ -0,0 +1,79 @@
+package evaluation;
+
+import representation.Board;
+import support.BadArgumentException;
+
+/**
+ * A fixed size cache of {@code PawnStructure}'s analysis, keyed by the boards' pawn hashcodes. The pawns change far less often than
+ * the rest of the board, and most of the positions a search visits share their pawns with many others, so nearly every probe is a hit,
+ * and the pawn structure is almost never analyzed from scratch. Each arrangement of pawns goes in the slot given by the low bits of its
+ * hashcode, and simply replaces whatever was there.
+ *
+ * A table isn't safe to share between threads, so every evaluator that uses one should have its own.
+ * @author matthewslesinski
+ *
+ */
+public class PawnTable {
+
+	/** Masks a hashcode down to an index in the table */
+	private final int indexMask;
+
+	/** The entries in each slot, which are reused when the slot is replaced */
+	private final PawnEntry[] entries;
+
+	/** The number of times the table was probed */
+	private long probes = 0;
+
+	/** The number of probes that found their pawns already in the table */
+	private long hits = 0;
+
+	/**
+	 * Creates a table with a given number of slots
+	 * @param size The number of slots. This must be a power of two
+	 */
+	public PawnTable(int size) {
+		if (Integer.bitCount(size) != 1) {
+			throw new BadArgumentException(size, int.class, "The size of a pawn table must be a power of two");
+		}
+		indexMask = size - 1;
+		entries = new PawnEntry[size];
+		for (int i = 0; i < size; i++) {
+			entries[i] = new PawnEntry();
+		}
+	}
+
+	/**
+	 * Gets the analysis of a board's pawns, analyzing them if they aren't in the table
+	 * @param board The {@code Board}
+	 * @return The {@code PawnEntry}, which is only valid until the next probe
+	 */
+	public PawnEntry probe(Board board) {
+		long key = board.getPawnHashCode();
+		PawnEntry entry = entries[(int) key & indexMask];
+		probes++;
+		if (entry.filled && entry.key == key) {
+			hits++;
+			return entry;
+		}
+		PawnStructure.analyze(board, entry);
+		entry.key = key;
+		entry.filled = true;
+		return entry;
+	}
+
+	/**
+	 * Gets the number of times the table was probed
+	 * @return The number of probes
+	 */
+	public long getProbes() {
+		return probes;
+	}
+
+	/**
+	 * Gets the number of probes that found their pawns already in the table
+	 * @return The number of hits
+	 */
+	public long getHits() {
+		return hits;
+	}
+}
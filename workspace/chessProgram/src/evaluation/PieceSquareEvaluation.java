@@ -0,0 +1,18 @@
+package evaluation;
+
+import representation.Board;
+
+/**
+ * Evaluates a board by its material and where that material stands, according to the middlegame scores in {@code PieceSquareTables}.
+ * The board keeps the total of those scores as it's played on, so evaluating is a single read, rather than a walk over the squares.
+ * @author matthewslesinski
+ *
+ */
+public class PieceSquareEvaluation implements Evaluator {
+
+	@Override
+	public int evaluateBoard(Board board) {
+		return board.getMiddlegameScore();
+	}
+
+}
@@ -0,0 +1,364 @@
+package evaluation;
+
+import java.util.List;
+
+import boardFeatures.Square;
+import io.FileHandler;
+import moves.Move;
+import pieces.Piece;
+import pieces.PieceType;
+import representation.Board;
+import support.BadArgumentException;
+import support.Constants;
+
+/**
+ * Holds a score for every piece on every square, which is the piece's material value plus a bonus or penalty for where it stands.
+ * There is one set of scores for the middlegame and one for the endgame, since where a piece belongs changes as the board empties
+ * out. Most obviously, the king should hide in the middlegame but come to the center in the endgame, and pawns become more valuable
+ * the closer they get to promoting.
+ *
+ * Since the score of a position is just the sum of the scores of its pieces, a move only changes it by the scores of the few pieces
+ * it moves, captures, or promotes. That lets a board keep its scores as running totals, calculated from the previous board's totals
+ * and the last move, the same way it keeps its hashcode. All scores are in centipawns, with white's pieces counting positively and
+ * black's negatively.
+ *
+ * The tables below are the defaults. Tuned ones, like those a {@code TexelTuner} writes, can be used instead by naming their file with
+ * {@code Constants.PIECE_SQUARE_TABLES_FILE}.
+ * @author matthewslesinski
+ *
+ */
+public class PieceSquareTables {
+
+	/** The material value of each type of piece in the middlegame, in the order of {@code PieceType} */
+	private static final int[] MIDDLEGAME_MATERIAL = {100, 320, 330, 500, 900, 0};
+
+	/** The material value of each type of piece in the endgame, in the order of {@code PieceType} */
+	private static final int[] ENDGAME_MATERIAL = {120, 300, 320, 520, 900, 0};
+
+	/*
+	 * The tables below are laid out the way a board is seen from white's side, with the 8th rank on top and the a file on the left.
+	 * They are for white's pieces, and are flipped vertically for black's.
+	 */
+
+	/** Where pawns belong in the middlegame: in the center, and not in front of a castled king */
+	private static final int[] PAWN_MIDDLEGAME = {
+			  0,   0,   0,   0,   0,   0,   0,   0,
+			 50,  50,  50,  50,  50,  50,  50,  50,
+			 10,  10,  20,  30,  30,  20,  10,  10,
+			  5,   5,  10,  25,  25,  10,   5,   5,
+			  0,   0,   0,  20,  20,   0,   0,   0,
+			  5,  -5, -10,   0,   0, -10,  -5,   5,
+			  5,  10,  10, -20, -20,  10,  10,   5,
+			  0,   0,   0,   0,   0,   0,   0,   0};
+
+	/** Where pawns belong in the endgame: as close to promoting as possible */
+	private static final int[] PAWN_ENDGAME = {
+			  0,   0,   0,   0,   0,   0,   0,   0,
+			 80,  80,  80,  80,  80,  80,  80,  80,
+			 50,  50,  50,  50,  50,  50,  50,  50,
+			 30,  30,  30,  30,  30,  30,  30,  30,
+			 20,  20,  20,  20,  20,  20,  20,  20,
+			 10,  10,  10,  10,  10,  10,  10,  10,
+			  0,   0,   0,   0,   0,   0,   0,   0,
+			  0,   0,   0,   0,   0,   0,   0,   0};
+
+	/** Where knights belong: in the center, where they reach the most squares */
+	private static final int[] KNIGHT = {
+			-50, -40, -30, -30, -30, -30, -40, -50,
+			-40, -20,   0,   0,   0,   0, -20, -40,
+			-30,   0,  10,  15,  15,  10,   0, -30,
+			-30,   5,  15,  20,  20,  15,   5, -30,
+			-30,   0,  15,  20,  20,  15,   0, -30,
+			-30,   5,  10,  15,  15,  10,   5, -30,
+			-40, -20,   0,   5,   5,   0, -20, -40,
+			-50, -40, -30, -30, -30, -30, -40, -50};
+
+	/** Where bishops belong: away from the edges and corners, on the long diagonals */
+	private static final int[] BISHOP = {
+			-20, -10, -10, -10, -10, -10, -10, -20,
+			-10,   0,   0,   0,   0,   0,   0, -10,
+			-10,   0,   5,  10,  10,   5,   0, -10,
+			-10,   5,   5,  10,  10,   5,   5, -10,
+			-10,   0,  10,  10,  10,  10,   0, -10,
+			-10,  10,  10,  10,  10,  10,  10, -10,
+			-10,   5,   0,   0,   0,   0,   5, -10,
+			-20, -10, -10, -10, -10, -10, -10, -20};
+
+	/** Where rooks belong: on the 7th rank, or in the center of the back rank */
+	private static final int[] ROOK = {
+			  0,   0,   0,   0,   0,   0,   0,   0,
+			  5,  10,  10,  10,  10,  10,  10,   5,
+			 -5,   0,   0,   0,   0,   0,   0,  -5,
+			 -5,   0,   0,   0,   0,   0,   0,  -5,
+			 -5,   0,   0,   0,   0,   0,   0,  -5,
+			 -5,   0,   0,   0,   0,   0,   0,  -5,
+			 -5,   0,   0,   0,   0,   0,   0,  -5,
+			  0,   0,   0,   5,   5,   0,   0,   0};
+
+	/** Where queens belong: slightly toward the center */
+	private static final int[] QUEEN = {
+			-20, -10, -10,  -5,  -5, -10, -10, -20,
+			-10,   0,   0,   0,   0,   0,   0, -10,
+			-10,   0,   5,   5,   5,   5,   0, -10,
+			 -5,   0,   5,   5,   5,   5,   0,  -5,
+			  0,   0,   5,   5,   5,   5,   0,  -5,
+			-10,   5,   5,   5,   5,   5,   0, -10,
+			-10,   0,   5,   0,   0,   0,   0, -10,
+			-20, -10, -10,  -5,  -5, -10, -10, -20};
+
+	/** Where the king belongs in the middlegame: castled, behind its pawns */
+	private static final int[] KING_MIDDLEGAME = {
+			-30, -40, -40, -50, -50, -40, -40, -30,
+			-30, -40, -40, -50, -50, -40, -40, -30,
+			-30, -40, -40, -50, -50, -40, -40, -30,
+			-30, -40, -40, -50, -50, -40, -40, -30,
+			-20, -30, -30, -40, -40, -30, -30, -20,
+			-10, -20, -20, -20, -20, -20, -20, -10,
+			 20,  20,   0,   0,   0,   0,  20,  20,
+			 20,  30,  10,   0,   0,  10,  30,  20};
+
+	/** Where the king belongs in the endgame: in the center, where it can support pawns and attack the opponent's */
+	private static final int[] KING_ENDGAME = {
+			-50, -40, -30, -20, -20, -30, -40, -50,
+			-30, -20, -10,   0,   0, -10, -20, -30,
+			-30, -10,  20,  30,  30,  20, -10, -30,
+			-30, -10,  30,  40,  40,  30, -10, -30,
+			-30, -10,  30,  40,  40,  30, -10, -30,
+			-30, -10,  20,  30,  30,  20, -10, -30,
+			-30, -30,   0,   0,   0,   0, -30, -30,
+			-50, -30, -30, -30, -30, -30, -30, -50};
+
+	/** The name of the middlegame tables in a tables file */
+	private static final String MIDDLEGAME = "middlegame";
+
+	/** The name of the endgame tables in a tables file */
+	private static final String ENDGAME = "endgame";
+
+	/** The number of squares on a file or rank */
+	private static final int LINE_LENGTH = 8;
+
+	/** The lines of the tables file given by {@code Constants.PIECE_SQUARE_TABLES_FILE}, or null to use the tables above */
+	private static final List<String> TABLES_FILE = Constants.PIECE_SQUARE_TABLES_FILE == null ? null
+			: FileHandler.getLinesFromFile(Constants.PIECE_SQUARE_TABLES_FILE);
+
+	/** The middlegame score of each piece on each square, indexed by the piece's bit representation and then the square's index */
+	private static final int[][] MIDDLEGAME_SCORES = TABLES_FILE != null ? readScores(TABLES_FILE, MIDDLEGAME)
+			: combine(MIDDLEGAME_MATERIAL, new int[][] {PAWN_MIDDLEGAME, KNIGHT, BISHOP, ROOK, QUEEN, KING_MIDDLEGAME});
+
+	/** The endgame score of each piece on each square, indexed by the piece's bit representation and then the square's index */
+	private static final int[][] ENDGAME_SCORES = TABLES_FILE != null ? readScores(TABLES_FILE, ENDGAME)
+			: combine(ENDGAME_MATERIAL, new int[][] {PAWN_ENDGAME, KNIGHT, BISHOP, ROOK, QUEEN, KING_ENDGAME});
+
+	/**
+	 * Builds the full table of scores for one stage of the game, from the material values and the tables laid out for white
+	 * @param material The material value of each type of piece, in the order of {@code PieceType}
+	 * @param tables The table for each type of piece, in the order of {@code PieceType}, laid out as seen from white's side
+	 * @return The scores, indexed by a piece's bit representation and then a square's index
+	 */
+	private static int[][] combine(int[] material, int[][] tables) {
+		int[][] scores = new int[Piece.values().length][Square.values().length];
+		for (Piece piece : Piece.realPieces()) {
+			int type = piece.getType().ordinal();
+			boolean white = piece.getColor().isWhite();
+			for (Square square : Square.values()) {
+				int file = square.getFile().getIndex();
+				int rank = square.getRank().getIndex();
+				// Rows of the tables go from the 8th rank down, so white's pieces count rows from the bottom and black's from the top
+				int row = white ? 7 - rank : rank;
+				int score = material[type] + tables[type][row * 8 + file];
+				scores[piece.getBitRepresentation()][square.getIndex()] = white ? score : -score;
+			}
+		}
+		return scores;
+	}
+
+	/**
+	 * Reads the tables for one stage of the game from the lines of a tables file, as written by {@code formatTables}. Each piece type's
+	 * table starts with a line giving the stage, the type's name, and its material value, followed by a line for each rank, from the
+	 * 8th down, of the bonuses on the rank's squares for a white piece
+	 * @param lines The lines of the file
+	 * @param stage The name of the stage
+	 * @return The scores, indexed by a piece's bit representation and then a square's index
+	 */
+	private static int[][] readScores(List<String> lines, String stage) {
+		int[] material = new int[PieceType.values().length];
+		int[][] tables = new int[PieceType.values().length][];
+		for (int index = 0; index < lines.size(); index++) {
+			String[] header = lines.get(index).trim().split("\\s+");
+			if (header.length != 3 || !header[0].equals(stage)) {
+				continue;
+			}
+			PieceType type = getTypeByName(header[1]);
+			material[type.ordinal()] = Integer.parseInt(header[2]);
+			int[] table = new int[LINE_LENGTH * LINE_LENGTH];
+			for (int row = 0; row < LINE_LENGTH; row++) {
+				String[] values = lines.get(index + 1 + row).trim().split("\\s+");
+				for (int file = 0; file < LINE_LENGTH; file++) {
+					table[row * LINE_LENGTH + file] = Integer.parseInt(values[file]);
+				}
+			}
+			tables[type.ordinal()] = table;
+		}
+		for (PieceType type : PieceType.values()) {
+			if (tables[type.ordinal()] == null) {
+				throw new BadArgumentException(Constants.PIECE_SQUARE_TABLES_FILE, String.class,
+						"The tables file has no " + stage + " table for the " + type.getName());
+			}
+		}
+		return combine(material, tables);
+	}
+
+	/**
+	 * Gets a piece type by the name it has in a tables file
+	 * @param name The name
+	 * @return The {@code PieceType}
+	 */
+	private static PieceType getTypeByName(String name) {
+		for (PieceType type : PieceType.values()) {
+			if (type.getName().equals(name)) {
+				return type;
+			}
+		}
+		throw new BadArgumentException(name, String.class, "This isn't the name of a type of piece");
+	}
+
+	/**
+	 * Writes a full set of scores out in the format {@code readScores} reads. For each piece type and stage, the material value is the
+	 * average score over the squares the piece can stand on, and the table holds the rest
+	 * @param middlegameScores The middlegame score of each white piece on each square, indexed by the type's ordinal times 64 plus the
+	 * square's index
+	 * @param endgameScores The endgame scores, indexed the same way
+	 * @return The contents of a tables file
+	 */
+	public static String formatTables(int[] middlegameScores, int[] endgameScores) {
+		StringBuilder builder = new StringBuilder();
+		appendTables(builder, MIDDLEGAME, middlegameScores);
+		appendTables(builder, ENDGAME, endgameScores);
+		return builder.toString();
+	}
+
+	/**
+	 * Writes out the tables for one stage of the game
+	 * @param builder The {@code StringBuilder} to write to
+	 * @param stage The name of the stage
+	 * @param scores The score of each white piece on each square, indexed by the type's ordinal times 64 plus the square's index
+	 */
+	private static void appendTables(StringBuilder builder, String stage, int[] scores) {
+		for (PieceType type : PieceType.values()) {
+			int offset = type.ordinal() * LINE_LENGTH * LINE_LENGTH;
+			// Pawns can't stand on the first or last rank, so their scores there mean nothing
+			boolean pawn = type == PieceType.PAWN;
+			long total = 0;
+			int count = 0;
+			for (Square square : Square.values()) {
+				int rank = square.getRank().getIndex();
+				if (!pawn || (rank > 0 && rank < LINE_LENGTH - 1)) {
+					total += scores[offset + square.getIndex()];
+					count++;
+				}
+			}
+			int material = (int) Math.round((double) total / count);
+			builder.append(stage).append(' ').append(type.getName()).append(' ').append(material).append(Constants.NEWLINE);
+			for (int row = 0; row < LINE_LENGTH; row++) {
+				int rank = LINE_LENGTH - 1 - row;
+				for (int file = 0; file < LINE_LENGTH; file++) {
+					boolean used = !pawn || (rank > 0 && rank < LINE_LENGTH - 1);
+					int bonus = used ? scores[offset + file * LINE_LENGTH + rank] - material : 0;
+					builder.append(String.format("%5d", bonus));
+				}
+				builder.append(Constants.NEWLINE);
+			}
+		}
+	}
+
+	/**
+	 * Gets the middlegame score of a piece on a square
+	 * @param piece The {@code Piece}
+	 * @param square The {@code Square}
+	 * @return The score, which is positive for white's pieces and negative for black's
+	 */
+	public static int getMiddlegameScore(Piece piece, Square square) {
+		return MIDDLEGAME_SCORES[piece.getBitRepresentation()][square.getIndex()];
+	}
+
+	/**
+	 * Gets the endgame score of a piece on a square
+	 * @param piece The {@code Piece}
+	 * @param square The {@code Square}
+	 * @return The score, which is positive for white's pieces and negative for black's
+	 */
+	public static int getEndgameScore(Piece piece, Square square) {
+		return ENDGAME_SCORES[piece.getBitRepresentation()][square.getIndex()];
+	}
+
+	/**
+	 * Adds up the middlegame scores of all the pieces on a board
+	 * @param board The {@code Board}
+	 * @return The total
+	 */
+	public static int calculateMiddlegameScore(Board board) {
+		return calculateScore(board, MIDDLEGAME_SCORES);
+	}
+
+	/**
+	 * Adds up the endgame scores of all the pieces on a board
+	 * @param board The {@code Board}
+	 * @return The total
+	 */
+	public static int calculateEndgameScore(Board board) {
+		return calculateScore(board, ENDGAME_SCORES);
+	}
+
+	/**
+	 * Gets how much a move changes the middlegame score of the board it's made on
+	 * @param move The {@code Move}
+	 * @return The change
+	 */
+	public static int getMiddlegameChange(Move move) {
+		return getChange(move, MIDDLEGAME_SCORES);
+	}
+
+	/**
+	 * Gets how much a move changes the endgame score of the board it's made on
+	 * @param move The {@code Move}
+	 * @return The change
+	 */
+	public static int getEndgameChange(Move move) {
+		return getChange(move, ENDGAME_SCORES);
+	}
+
+	/**
+	 * Adds up the scores of all the pieces on a board, from one of the tables
+	 * @param board The {@code Board}
+	 * @param scores The table
+	 * @return The total
+	 */
+	private static int calculateScore(Board board, int[][] scores) {
+		int total = 0;
+		for (Square square : Square.values()) {
+			total += scores[board.getPieceAtSquare(square).getBitRepresentation()][square.getIndex()];
+		}
+		return total;
+	}
+
+	/**
+	 * Gets how much a move changes a board's score from one of the tables. Only the moving piece, the captured piece, and the rook
+	 * when castling change squares, and a promoting pawn lands as the piece it promotes to
+	 * @param move The {@code Move}
+	 * @param scores The table
+	 * @return The change
+	 */
+	private static int getChange(Move move, int[][] scores) {
+		int change = scores[move.getEndPiece().getBitRepresentation()][move.getDestinationSquare().getIndex()]
+				- scores[move.getMovingPiece().getBitRepresentation()][move.getStartSquare().getIndex()];
+		if (move.isCapture()) {
+			change -= scores[move.getCapturedPiece().getBitRepresentation()][move.getCaptureSquare().getIndex()];
+		}
+		if (move.isCastle()) {
+			int rook = move.getSecondaryMovingPieceForCastling().getBitRepresentation();
+			change += scores[rook][move.getSecondaryEndSquareForCastling().getIndex()]
+					- scores[rook][move.getSecondaryStartSquareForCastling().getIndex()];
+		}
+		return change;
+	}
+}
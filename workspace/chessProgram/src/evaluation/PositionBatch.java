@@ -0,0 +1,106 @@
+package evaluation;
+
+import representation.Board;
+import support.BadArgumentException;
+
+/**
+ * A group of positions to be evaluated together with {@code Evaluator.evaluateBatch}. What the evaluators need about each position
+ * beyond the position itself is laid out column by column, with one array for each value and one slot in each array for each
+ * position, rather than position by position. That way an evaluator can apply each step of its evaluation to every position in one
+ * tight loop over flat arrays, and can keep the data it needs for that step, like a layer of weights, in the cache for the whole
+ * batch instead of reloading it for every position. Only {@code NetworkEvaluation} evaluates batches that way. The handwritten
+ * evaluations spend their time looking up each position's terms in tables, which a batch doesn't speed up, so they evaluate a batch
+ * one position at a time.
+ *
+ * A batch is meant to be filled, evaluated, cleared, and filled again, so that its arrays are only ever allocated once.
+ * @author matthewslesinski
+ *
+ */
+public class PositionBatch {
+
+	/** The positions themselves, for whatever isn't kept in a column */
+	private final Board[] boards;
+
+	/** Whether it's white's move in each position */
+	private final boolean[] whiteToMove;
+
+	/** The number of positions in the batch */
+	private int size = 0;
+
+	/**
+	 * Creates an empty batch
+	 * @param capacity The most positions the batch can hold
+	 */
+	public PositionBatch(int capacity) {
+		if (capacity <= 0) {
+			throw new BadArgumentException(capacity, int.class, "A batch must be able to hold at least one position");
+		}
+		boards = new Board[capacity];
+		whiteToMove = new boolean[capacity];
+	}
+
+	/**
+	 * Adds a position to the batch
+	 * @param board The position, which must not be over
+	 * @return The index of the position in the batch, which is where its evaluation will go
+	 */
+	public int add(Board board) {
+		if (isFull()) {
+			throw new BadArgumentException(board, Board.class, "The batch is already full");
+		}
+		boards[size] = board;
+		whiteToMove[size] = board.whoseMove().isWhite();
+		return size++;
+	}
+
+	/**
+	 * Removes all the positions from the batch
+	 */
+	public void clear() {
+		for (int i = 0; i < size; i++) {
+			boards[i] = null;
+		}
+		size = 0;
+	}
+
+	/**
+	 * Gets the number of positions in the batch
+	 * @return The number of positions
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the most positions the batch can hold
+	 * @return The capacity
+	 */
+	public int capacity() {
+		return boards.length;
+	}
+
+	/**
+	 * Determines if the batch can't hold any more positions
+	 * @return true iff it's full
+	 */
+	public boolean isFull() {
+		return size == boards.length;
+	}
+
+	/**
+	 * Gets a position in the batch
+	 * @param index The index of the position
+	 * @return The {@code Board}
+	 */
+	public Board getBoard(int index) {
+		return boards[index];
+	}
+
+	/**
+	 * Gets whether it's white's move in each position, which must not be modified
+	 * @return The flags, by the positions' indices. Only the first {@code size()} are filled in
+	 */
+	public boolean[] getWhiteToMove() {
+		return whiteToMove;
+	}
+}
@@ -0,0 +1,102 @@
+package evaluation;
+
+/**
+ * Holds the conventions for the {@code int} scores used by evaluation and search. Ordinary scores are in centipawns, so a pawn is
+ * worth 100. Scores for forced mates sit far above any score an evaluation could give, and encode how far away the mate is: being
+ * able to mate in one ply scores {@code MATE - 1}, in two plies {@code MATE - 2}, and so on, so a quicker mate always scores
+ * higher than a slower one, and getting mated later scores higher than getting mated sooner.
+ * @author matthewslesinski
+ *
+ */
+public class Score {
+
+	/** The score of a drawn position */
+	public static final int DRAW = 0;
+
+	/** The score of a position where the player to move has already delivered mate. Real mates are some plies away from this */
+	public static final int MATE = 32000;
+
+	/** A score that is higher than any score a position can have, used to open the search window */
+	public static final int INFINITE = MATE + 1;
+
+	/** The most plies away a mate can be and still be recognized as a mate score */
+	public static final int MAX_MATE_PLIES = 256;
+
+	/** Any score with at least this magnitude is a mate score */
+	public static final int MATE_BOUND = MATE - MAX_MATE_PLIES;
+
+	/**
+	 * Gets the score for being able to mate some number of plies from the root
+	 * @param ply The number of plies from the root the mate happens at
+	 * @return The score
+	 */
+	public static int mateIn(int ply) {
+		return MATE - ply;
+	}
+
+	/**
+	 * Gets the score for getting mated some number of plies from the root
+	 * @param ply The number of plies from the root the mate happens at
+	 * @return The score
+	 */
+	public static int matedIn(int ply) {
+		return -MATE + ply;
+	}
+
+	/**
+	 * Determines if a score says there is a forced mate, for either side
+	 * @param score The score
+	 * @return true iff it's a mate score
+	 */
+	public static boolean isMate(int score) {
+		return Math.abs(score) >= MATE_BOUND;
+	}
+
+	/**
+	 * Scores for mates are relative to the root, but a position stored in a table can be reached at any distance from the root.
+	 * This makes a score relative to the position itself so it can be stored
+	 * @param score The score, relative to the root
+	 * @param ply The number of plies from the root the position is at
+	 * @return The score to store
+	 */
+	public static int toStoredScore(int score, int ply) {
+		if (score >= MATE_BOUND) {
+			return score + ply;
+		}
+		if (score <= -MATE_BOUND) {
+			return score - ply;
+		}
+		return score;
+	}
+
+	/**
+	 * Undoes {@code toStoredScore}, making a stored score relative to the root again
+	 * @param score The stored score
+	 * @param ply The number of plies from the root the position is at
+	 * @return The score, relative to the root
+	 */
+	public static int fromStoredScore(int score, int ply) {
+		if (score >= MATE_BOUND) {
+			return score - ply;
+		}
+		if (score <= -MATE_BOUND) {
+			return score + ply;
+		}
+		return score;
+	}
+
+	/**
+	 * Turns a score into a readable string, either as centipawns or as the number of moves (not plies) until mate, where a negative
+	 * number means the player to move gets mated
+	 * @param score The score
+	 * @return The string
+	 */
+	public static String toString(int score) {
+		if (!isMate(score)) {
+			return "cp " + score;
+		}
+		int plies = MATE - Math.abs(score);
+		int moves = (plies + 1) / 2;
+		return "mate " + (score > 0 ? moves : -moves);
+	}
+}
@@ -0,0 +1,149 @@
+package evaluation;
+
+import representation.Board;
+import support.Constants;
+
+/**
+ * Evaluates a board by blending middlegame and endgame scores according to the board's {@code GamePhase}. With all the pieces on the
+ * board, only the middlegame score counts, with only kings and pawns, only the endgame score counts, and in between, each counts in
+ * proportion. That way the evaluation moves smoothly from one to the other as pieces come off, instead of jumping when some threshold
+ * is crossed. The blended score is then scaled down for the side that's ahead if its material makes it hard to win, and is a draw if
+ * neither side has enough material to mate.
+ *
+ * The scores are built up in stages, from the cheapest terms to the most expensive:
+ * <ol>
+ * <li>The board's totals from {@code PieceSquareTables}, which the board keeps as it's played on, plus adjustments for its combination
+ * of material, which are looked up along with the phase in the global {@code MaterialTable}</li>
+ * <li>The score of the board's {@code PawnStructure}, looked up in this evaluator's own {@code PawnTable}</li>
+ * <li>The {@code Mobility} of the pieces and the {@code KingSafety} of the kings, from the attacks in this evaluator's own
+ * {@code AttackMap}, if the evaluator was made to include them</li>
+ * </ol>
+ * When evaluating against a window, each stage checks whether the score so far is far enough outside the window that the stages after
+ * it couldn't bring it back in, and if so, stops there. How far each stage after the first can move the score is bounded by the
+ * material, which the {@code MaterialEntry} works out once for each material key. Without any knights, bishops, rooks, or queens, the
+ * last stage is always 0, so it's skipped even without a window.
+ *
+ * Working out the attacks costs more than the rest of the evaluation put together, since they're found from scratch for every board,
+ * so the last stage is left out unless {@code Constants.EVALUATE_ATTACKS} is set.
+ * @author matthewslesinski
+ *
+ */
+public class TaperedEvaluation implements Evaluator {
+
+	/** The number of slots in the pawn table */
+	private static final int PAWN_TABLE_SIZE = 1 << 14;
+
+	/** The cache of pawn structure scores */
+	private final PawnTable pawnTable = new PawnTable(PAWN_TABLE_SIZE);
+
+	/** The attacks of the board being evaluated */
+	private final AttackMap attackMap = new AttackMap();
+
+	/** Whether the last stage, mobility and king safety, is included */
+	private final boolean evaluateAttacks;
+
+	public TaperedEvaluation() {
+		this(Constants.EVALUATE_ATTACKS);
+	}
+
+	/**
+	 * Creates an evaluator that may leave out the last stage
+	 * @param evaluateAttacks Whether to include mobility and king safety
+	 */
+	public TaperedEvaluation(boolean evaluateAttacks) {
+		this.evaluateAttacks = evaluateAttacks;
+	}
+
+	@Override
+	public int evaluateBoard(Board board) {
+		return evaluateBoard(board, -Score.INFINITE, Score.INFINITE);
+	}
+
+	@Override
+	public int evaluateBoard(Board board, int lowerBound, int upperBound) {
+		MaterialEntry material = MaterialTable.getGlobalTable().probe(board);
+		if (material.isInsufficientMaterial()) {
+			return Score.DRAW;
+		}
+		int phase = Math.min(material.getPhase(), GamePhase.MAX_PHASE);
+		int middlegame = board.getMiddlegameScore() + material.getMiddlegameImbalance();
+		int endgame = board.getEndgameScore() + material.getEndgameImbalance();
+		int attackMiddlegameBound = evaluateAttacks ? material.getAttackMiddlegameBound() : 0;
+		int attackEndgameBound = evaluateAttacks ? material.getAttackEndgameBound() : 0;
+		if (isOutsideWindow(material, middlegame, endgame, phase, material.getPawnMiddlegameBound() + attackMiddlegameBound,
+				material.getPawnEndgameBound() + attackEndgameBound, lowerBound, upperBound)) {
+			return material.scale(blend(middlegame, endgame, phase));
+		}
+		PawnEntry pawns = pawnTable.probe(board);
+		middlegame += pawns.getMiddlegameScore() + PawnStructure.getShieldScore(board, pawns);
+		endgame += pawns.getEndgameScore();
+		if (!evaluateAttacks || material.getPhase() == 0 || isOutsideWindow(material, middlegame, endgame, phase, attackMiddlegameBound, attackEndgameBound,
+				lowerBound, upperBound)) {
+			return material.scale(blend(middlegame, endgame, phase));
+		}
+		attackMap.analyze(board);
+		middlegame += Mobility.getMiddlegameScore(attackMap) + KingSafety.getMiddlegameScore(board, attackMap);
+		endgame += Mobility.getEndgameScore(attackMap);
+		return material.scale(blend(middlegame, endgame, phase));
+	}
+
+	/**
+	 * Evaluates a board with every stage, but without scaling the score for the material or calling a lack of material a draw, which
+	 * is what a tuner needs to fit the terms underneath the scaling
+	 * @param board The {@code Board}
+	 * @return The blended score, in centipawns, where positive is good for white
+	 */
+	public int evaluateUnscaled(Board board) {
+		MaterialEntry material = MaterialTable.getGlobalTable().probe(board);
+		PawnEntry pawns = pawnTable.probe(board);
+		int middlegame = board.getMiddlegameScore() + material.getMiddlegameImbalance() + pawns.getMiddlegameScore()
+				+ PawnStructure.getShieldScore(board, pawns);
+		int endgame = board.getEndgameScore() + material.getEndgameImbalance() + pawns.getEndgameScore();
+		if (evaluateAttacks && material.getPhase() > 0) {
+			attackMap.analyze(board);
+			middlegame += Mobility.getMiddlegameScore(attackMap) + KingSafety.getMiddlegameScore(board, attackMap);
+			endgame += Mobility.getEndgameScore(attackMap);
+		}
+		return blend(middlegame, endgame, Math.min(material.getPhase(), GamePhase.MAX_PHASE));
+	}
+
+	/**
+	 * Blends a middlegame score and an endgame score
+	 * @param middlegame The middlegame score
+	 * @param endgame The endgame score
+	 * @param phase The game phase, capped at {@code GamePhase.MAX_PHASE}
+	 * @return The blended score
+	 */
+	private static int blend(int middlegame, int endgame, int phase) {
+		return (middlegame * phase + endgame * (GamePhase.MAX_PHASE - phase)) / GamePhase.MAX_PHASE;
+	}
+
+	/**
+	 * Determines if a partial evaluation is so far outside a window that the terms still to come can't bring it back in. Blending and
+	 * scaling never make the evaluation go down when either score goes up, so the full evaluation is somewhere between what the
+	 * scores blend and scale to with the terms' bounds added and with them taken away
+	 * @param material The {@code MaterialEntry} for the board, which scales the evaluation
+	 * @param middlegame The middlegame score so far
+	 * @param endgame The endgame score so far
+	 * @param phase The game phase, capped at {@code GamePhase.MAX_PHASE}
+	 * @param middlegameMargin The most the terms still to come can change the middlegame score by
+	 * @param endgameMargin The most the terms still to come can change the endgame score by
+	 * @param lowerBound The bottom of the window
+	 * @param upperBound The top of the window
+	 * @return true iff the rest of the evaluation can be skipped
+	 */
+	private static boolean isOutsideWindow(MaterialEntry material, int middlegame, int endgame, int phase, int middlegameMargin,
+			int endgameMargin, int lowerBound, int upperBound) {
+		return material.scale(blend(middlegame + middlegameMargin, endgame + endgameMargin, phase)) <= lowerBound
+				|| material.scale(blend(middlegame - middlegameMargin, endgame - endgameMargin, phase)) >= upperBound;
+	}
+
+	/**
+	 * Gets the table this evaluator caches pawn structure scores in, to see how well it's working
+	 * @return The {@code PawnTable}
+	 */
+	public PawnTable getPawnTable() {
+		return pawnTable;
+	}
+
+}
@@ -1,59 +1,155 @@
 package gamePlaying;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 import moves.Move;
 import representation.Board;
 import search.AI;
+import search.SearchLimits;
+import search.SearchReport;
 import stringUtilities.MoveWriter;
 import support.BadBoardException;
 
+import static support.Constants.*;
 import static support.Constructors.*;
 
 /**
- * Holds the implementation to interface with a computer player
+ * Holds the implementation to interface with a computer player. If pondering is turned on, then after each move the computer starts
+ * searching the position it expects after the opponent's reply, which is the second move of its principal variation. If the opponent
+ * plays that reply, the search just goes on under the normal limits, having had a head start. Otherwise, it is stopped and a new
+ * search is started, which still benefits from the positions the pondering left in the engine's table.
  * @author matthewslesinski
  *
  */
 public class Computer extends Player {
-	
+
 	/** A default name for the computer */
 	private static final String DEFAULT_NAME = "Computer";
-	
+
 	/** After each move by the other player, print the board */
 	private static final UserInput DEFAULT_ADDON = new UserInput(InputType.PRINT_BOARD);
-	
+
+	/** The limits for the searches done on the computer's own time */
+	private static final SearchLimits SEARCH_LIMITS = new SearchLimits.Builder().withMoveTime(COMPUTER_MOVE_TIME).withMultiPV(COMPUTER_MULTI_PV).build();
+
+	/** The limits for the searches done on the opponent's time, which apply once the opponent plays the expected reply */
+	private static final SearchLimits PONDER_LIMITS = new SearchLimits.Builder().withMoveTime(COMPUTER_MOVE_TIME).withMultiPV(COMPUTER_MULTI_PV)
+			.withPonder().build();
+
 	/** The object that can perform the calculations necessary to evaluate positions for this chess engine and determine moves to make */
 	private AI engine = AI_CONSTRUCTOR.get();
-	
+
+	/** The report for the best line of the engine's last finished iteration */
+	private volatile SearchReport latestReport = null;
+
+	/** The position being pondered, or null if the computer isn't pondering */
+	private Board ponderPosition = null;
+
+	/** The search running on the opponent's time, or null if the computer isn't pondering */
+	private CompletableFuture<Move> ponderSearch = null;
+
 	public Computer() {
 		this(DEFAULT_NAME);
 	}
-	
+
 	public Computer(String name) {
 		super(name);
+		if (SHOULD_PRINT_ANALYSIS) {
+			engine.addProgressListener(report -> {
+				System.out.println(report);
+				if ((SHOULD_PRINT_STATISTICS || VERIFY_HASHES) && report.getRank() == 1) {
+					System.out.println(report.getStatistics());
+				}
+			});
+		}
+		if (SHOULD_PONDER) {
+			engine.addProgressListener(report -> {
+				if (report.getRank() == 1) {
+					latestReport = report;
+				}
+			});
+		}
 	}
-	
+
 	@Override
 	public UserInput getNextInput(Board currentPosition) {
 		if (currentPosition.isOver()) {
+			stopPondering();
 			return new UserInput(InputType.QUIT);
 		}
 		Move bestMove = null;
 		try {
-			bestMove = engine.bestMove(currentPosition);
+			bestMove = SHOULD_PONDER ? bestMoveAfterPondering(currentPosition) : engine.bestMove(currentPosition, SEARCH_LIMITS);
 		} catch (BadBoardException e) {
 			// TODO log this better
 			e.printBoardTrace();
 			System.out.println(e.getMessage());
 			System.exit(1);
 		}
+		if (SHOULD_PONDER) {
+			startPondering(currentPosition, bestMove);
+		}
 		return new UserInput(MoveWriter.getMoveAsStringInContext(bestMove, currentPosition));
 	}
 
+	/**
+	 * Finds the best move in a position, making use of the pondering if it was on the right position
+	 * @param currentPosition The current position
+	 * @return The best move
+	 */
+	private Move bestMoveAfterPondering(Board currentPosition) {
+		if (ponderSearch != null && currentPosition.equals(ponderPosition)) {
+			engine.ponderHit();
+			Move bestMove = ponderSearch.join();
+			ponderSearch = null;
+			ponderPosition = null;
+			return bestMove;
+		}
+		stopPondering();
+		return engine.bestMove(currentPosition, SEARCH_LIMITS);
+	}
+
+	/**
+	 * Starts pondering the position expected after a move and the reply the engine expects to it. If the engine didn't find a reply,
+	 * there is nothing to ponder
+	 * @param currentPosition The position the move is made in
+	 * @param move The move
+	 */
+	private void startPondering(Board currentPosition, Move move) {
+		SearchReport report = latestReport;
+		if (report == null || !currentPosition.equals(report.getRoot())) {
+			return;
+		}
+		List<Move> line = report.getPrincipalVariation();
+		if (line.size() < 2 || !line.get(0).equals(move)) {
+			return;
+		}
+		Board expected = currentPosition.performMove(move).performMove(line.get(1));
+		if (expected == null || expected.isOver()) {
+			return;
+		}
+		ponderPosition = expected;
+		ponderSearch = engine.startSearch(expected, PONDER_LIMITS);
+	}
+
+	/**
+	 * Stops pondering, if the computer is, and waits for the search to finish so that it doesn't compete with the next one
+	 */
+	private void stopPondering() {
+		if (ponderSearch != null) {
+			engine.stop();
+			ponderSearch.join();
+			ponderSearch = null;
+			ponderPosition = null;
+		}
+	}
+
 	@Override
 	public UserInput getDefaultAddonInput() {
 		return DEFAULT_ADDON;
 	}
-	
-	
+
+
 
 }
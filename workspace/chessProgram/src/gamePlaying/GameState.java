@@ -1,5 +1,7 @@
 package gamePlaying;
 
+import evaluation.MaterialTable;
+import evaluation.Score;
 import representation.Board;
 
 /**
@@ -10,17 +12,18 @@ public enum GameState {
 
 	STILL_GOING("*", 0),
 	STALEMATE("1/2-1/2", 0),
-	WHITE_WINS("1-0", Double.POSITIVE_INFINITY),
-	BLACK_WINS("0-1", Double.NEGATIVE_INFINITY),
+	INSUFFICIENT_MATERIAL("1/2-1/2", 0),
+	WHITE_WINS("1-0", Score.MATE),
+	BLACK_WINS("0-1", -Score.MATE),
 	;
 	
 	/** How the state should be represented as a string in pgns */
 	private final String pgnRepresentation;
 	
-	/** The evaluation to supply for this state */
-	private final double evaluation;
+	/** The evaluation to supply for this state, in centipawns. Mates are scored as being on the board already */
+	private final int evaluation;
 	
-	private GameState(String pgnRepresentation, double evaluation) {
+	private GameState(String pgnRepresentation, int evaluation) {
 		this.pgnRepresentation = pgnRepresentation;
 		this.evaluation = evaluation;
 	}
@@ -29,7 +32,7 @@ public enum GameState {
 	 * Retrieves the evaluation for this state
 	 * @return The evaluation
 	 */
-	public double getEvaluation() {
+	public int getEvaluation() {
 		return evaluation;
 	}
 	
@@ -44,12 +47,15 @@ public enum GameState {
 	 * @return The {@code GameState}
 	 */
 	public static GameState getByBoard(Board board) {
-		if (board.isOver()) {
+		if (board.getLegalMoves().isEmpty()) {
 			if (board.isInCheck()) {
 				return board.whoseMove().isWhite() ? BLACK_WINS : WHITE_WINS;
 			}
 			return STALEMATE;
 		}
+		if (MaterialTable.getGlobalTable().probe(board).isInsufficientMaterial()) {
+			return INSUFFICIENT_MATERIAL;
+		}
 		return STILL_GOING;
 	}
 }
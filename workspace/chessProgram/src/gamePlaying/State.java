@@ -50,10 +50,11 @@ public interface State {
 	
 	/**
 	 * Calculates a short-sighted evaluation of the position. 0 is equality, sign determines which side is winning, and
-	 * magnitude indicates confidence
-	 * @return The evaluation as a double
+	 * magnitude indicates confidence. This is only a static evaluation, which doesn't look at the legal moves, so it assumes the game
+	 * isn't over. Whether it is should be checked with {@code getState} first
+	 * @return The evaluation in centipawns, following the conventions in {@code Score}
 	 */
-	public double evaluate();
+	public int evaluate();
 	
 	
 }
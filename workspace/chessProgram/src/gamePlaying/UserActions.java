@@ -133,6 +133,7 @@ public class UserActions {
 		game.addPosition(nextPosition);
 		switch (GameState.getByBoard(nextPosition)) {
 		case STALEMATE:
+		case INSUFFICIENT_MATERIAL:
 			return "It's a draw!";
 		case WHITE_WINS:
 			return "Congratulations, " + game.getPlayerByColor(Color.WHITE).getName() + " has won";
@@ -16,8 +16,21 @@ public abstract class Hasher {
 	/** A globally accessible instance of a {@code Hasher} */
 	private static Hasher GLOBAL_HASHER = null;
 	
+	/** A {@code Hasher} with its own random numbers, used only to check the global one's hashes */
+	private static Hasher VERIFICATION_HASHER = null;
+	
 	protected Hasher() {
-		GLOBAL_HASHER = this;
+		this(true);
+	}
+	
+	/**
+	 * Creates a {@code Hasher}
+	 * @param global Whether this should become the global {@code Hasher}
+	 */
+	protected Hasher(boolean global) {
+		if (global) {
+			GLOBAL_HASHER = this;
+		}
 	}
 	
 	/**
@@ -31,6 +44,20 @@ public abstract class Hasher {
 		return GLOBAL_HASHER;
 	}
 	
+	/**
+	 * Retrieves a {@code Hasher} whose random numbers are independent of the global one's, so that two boards that get the same hash
+	 * from the global {@code Hasher} are almost certainly the same board if they get the same hash from this one too. Since its numbers
+	 * come from a fixed seed, two threads that both make one get identical {@code Hasher}s. Boards only keep the global {@code Hasher}'s
+	 * hashes, so only {@code getHash} and {@code getPawnHash} can be used with this one
+	 * @return The {@code Hasher}
+	 */
+	public static Hasher getVerificationHasher() {
+		if (VERIFICATION_HASHER == null) {
+			VERIFICATION_HASHER = VERIFICATION_HASHER_CONSTRUCTOR.get();
+		}
+		return VERIFICATION_HASHER;
+	}
+	
 	/**
 	 * Translates a board directly into a long
 	 * @param board The board to hash
@@ -48,4 +75,22 @@ public abstract class Hasher {
 	 */
 	public abstract long getNextHash(Board previous, Move transition);
 	
+	/**
+	 * Translates only the pawns on a board into a long, so that boards with the same pawns in the same places get the same hash,
+	 * no matter where the other pieces are or whose move it is
+	 * @param board The board to hash the pawns of
+	 * @return The hash for the board's pawns
+	 */
+	public abstract long getPawnHash(Board board);
+	
+	/**
+	 * Relies on the knowledge of a previously calculated pawn hash for the preceding board to calculate the pawn hash for the
+	 * board that results from making a move on that preceding board. This hash should end up being the same value as calling
+	 * {@code getPawnHash} on the board that results from making the given move on the given board
+	 * @param previous The previous board
+	 * @param transition The move to make to get to the position that this method provides the pawn hash for
+	 * @return The pawn hash for the resulting board
+	 */
+	public abstract long getNextPawnHash(Board previous, Move transition);
+	
 }
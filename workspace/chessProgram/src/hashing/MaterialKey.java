@@ -0,0 +1,86 @@
+package hashing;
+
+import boardFeatures.Square;
+import moves.Move;
+import pieces.Piece;
+import representation.Board;
+
+/**
+ * Describes the material on a board as a single {@code long}, which holds how many of each piece there are, for both colors. Each
+ * piece gets four bits, in the order of their bit representations, which is enough for any number of pieces promotions can lead to.
+ * Since the counts are stored exactly, two boards get the same key if and only if they have the same material, so the key can be
+ * used to look up anything that depends only on material, and the counts can be read back out of it.
+ *
+ * Like the hashcode, the key can be calculated for a board from the key of the board before it and the move made, since only a
+ * capture or a promotion changes it.
+ * @author matthewslesinski
+ *
+ */
+public class MaterialKey {
+
+	/** The number of bits each piece's count takes up */
+	private static final int BITS_PER_PIECE = 4;
+
+	/** A mask covering one piece's count, once it's shifted down */
+	private static final long COUNT_MASK = (1L << BITS_PER_PIECE) - 1;
+
+	/**
+	 * Gets how far up in the key a piece's count is
+	 * @param piece The {@code Piece}, which shouldn't be {@code Piece.NONE}
+	 * @return The number of bits
+	 */
+	private static int getShift(Piece piece) {
+		return (piece.getBitRepresentation() - 1) * BITS_PER_PIECE;
+	}
+
+	/**
+	 * Gets the amount one more of a piece adds to a key
+	 * @param piece The {@code Piece}, which shouldn't be {@code Piece.NONE}
+	 * @return The amount
+	 */
+	private static long getUnit(Piece piece) {
+		return 1L << getShift(piece);
+	}
+
+	/**
+	 * Counts the material on a board directly
+	 * @param board The {@code Board}
+	 * @return The key
+	 */
+	public static long calculate(Board board) {
+		long key = 0L;
+		for (Square square : Square.values()) {
+			Piece piece = board.getPieceAtSquare(square);
+			if (piece != Piece.NONE) {
+				key += getUnit(piece);
+			}
+		}
+		return key;
+	}
+
+	/**
+	 * Gets how much a move changes the key of the board it's made on
+	 * @param move The {@code Move}
+	 * @return The amount to add to the key, which may be negative
+	 */
+	public static long getChange(Move move) {
+		long change = 0L;
+		if (move.isCapture()) {
+			change -= getUnit(move.getCapturedPiece());
+		}
+		if (move.isPromotion()) {
+			change += getUnit(move.getPromotionPiece()) - getUnit(move.getMovingPiece());
+		}
+		return change;
+	}
+
+	/**
+	 * Reads how many of a piece there are out of a key
+	 * @param key The key
+	 * @param piece The {@code Piece}, which shouldn't be {@code Piece.NONE}
+	 * @return The number of that piece
+	 */
+	public static int getCount(long key, Piece piece) {
+		return (int) ((key >>> getShift(piece)) & COUNT_MASK);
+	}
+}
@@ -0,0 +1,69 @@
+package hashing;
+
+import support.Constants;
+
+/**
+ * Generates random longs with SplitMix64, starting from a fixed seed, so the same seed always gives the same sequence, in every run and
+ * on every machine. That keeps hashes stable from one process to the next, so that anything keyed by them, like a saved transposition
+ * table or an opening book, can be shared. Each number is a counter, which goes up by a fixed odd constant each time, run through a
+ * mixing function whose output passes the usual statistical tests, so the numbers are as good as {@code Random}'s for hashing, and
+ * better than its low bits.
+ *
+ * The sequence starts from {@code Constants.HASH_SEED}, unless it's given another seed. The counter goes up by
+ * {@code 0x9E3779B97F4A7C15}, and the mixing function is:
+ * <pre>
+ * z = (z ^ (z &gt;&gt;&gt; 30)) * 0xBF58476D1CE4E5B9;
+ * z = (z ^ (z &gt;&gt;&gt; 27)) * 0x94D049BB133111EB;
+ * z = z ^ (z &gt;&gt;&gt; 31);
+ * </pre>
+ * @author matthewslesinski
+ *
+ */
+public class SplitMixRandomNumbers implements RandomNumberGenerator {
+
+	/** What the counter goes up by for each number, which is the golden ratio scaled up to 64 bits */
+	private static final long INCREMENT = 0x9E3779B97F4A7C15L;
+
+	/** The first multiplier in the mixing function */
+	private static final long FIRST_MULTIPLIER = 0xBF58476D1CE4E5B9L;
+
+	/** The second multiplier in the mixing function */
+	private static final long SECOND_MULTIPLIER = 0x94D049BB133111EBL;
+
+	/** The counter, which holds the seed until the first number is generated */
+	private long state;
+
+	public SplitMixRandomNumbers() {
+		this(Constants.HASH_SEED);
+	}
+
+	/**
+	 * Creates a generator whose sequence starts from the given seed
+	 * @param seed The seed
+	 */
+	public SplitMixRandomNumbers(long seed) {
+		this.state = seed;
+	}
+
+	/**
+	 * Generates the next number in the sequence
+	 * @return The next long
+	 */
+	private long getNextLong() {
+		state += INCREMENT;
+		long z = state;
+		z = (z ^ (z >>> 30)) * FIRST_MULTIPLIER;
+		z = (z ^ (z >>> 27)) * SECOND_MULTIPLIER;
+		return z ^ (z >>> 31);
+	}
+
+	@Override
+	public long[] generateNumbers(int length) {
+		long[] numberStore = new long[length];
+		for (int i = 0; i < length; i++) {
+			numberStore[i] = getNextLong();
+		}
+		return numberStore;
+	}
+
+}
@@ -1,15 +1,12 @@
 package hashing;
 
-import java.util.LinkedList;
-import java.util.List;
-
 import boardFeatures.Square;
 import lines.File;
 import moves.Move;
 import pieces.Piece;
+import pieces.PieceType;
 import representation.Board;
 import representation.CastlingRights;
-import support.UtilityFunctions;
 
 import static support.Constructors.*;
 
@@ -21,6 +18,10 @@ import static support.Constructors.*;
  * Furthermore, because XORing is reversible, to remove a feature, simply XOR that feature's number again, which makes it easy to get the hash for the
  * board that results from making a move on a preceding board. Just find the features that change and XOR their numbers on the hash of the preceding board.
  * 
+ * Since a hash is calculated for every board that gets made, the features' numbers are laid out in tables that can be indexed directly: one for each
+ * piece on each square, one for each combination of castling rights, and one for each en passant file. That way a move's changes get XORed straight
+ * into a {@code long}, without making any objects.
+ * 
  * For Zobrist Hashing, linear independence is important. It would be useful if the random number generator used in this class provides numbers that have
  * a high minimum for the size of the subset of numbers that are not linearly independent
  * @author matthewslesinski
@@ -28,145 +29,148 @@ import static support.Constructors.*;
 public class ZobristHasher extends Hasher {
 
 	private static final int NUMBER_OF_FEATURES = 781;
-	private static final long[] FEATURE_VALUES = RANDOM_NUMBER_GENERATOR.get().generateNumbers(NUMBER_OF_FEATURES);
 	private static final long STARTER_CODE = 0L;
 	private static final int NUMBER_OF_POSSIBLE_PIECES = 12;
 	private static final int PIECE_INDEX_BASE = 0;
 	private static final int COLOR_BASE = NUMBER_OF_POSSIBLE_PIECES * Square.values().length + PIECE_INDEX_BASE;
 	private static final int CASTLING_RIGHTS_BASE = COLOR_BASE + 1;
 	private static final int EN_PASSANT_BASE = CASTLING_RIGHTS_BASE + CastlingRights.values().length;
-	
-	public ZobristHasher() {}
-	
+
+	/** The number for each piece on each square, indexed by the piece's bit representation and then the square's index. Empty squares get 0 */
+	private final long[][] pieceSquareValues = new long[Piece.values().length][Square.values().length];
+
+	/** The number for it being white's move */
+	private final long colorValue;
+
+	/** The numbers for each combination of castling rights XORed together, indexed by a mask with a bit set at each right's index */
+	private final long[] castlingValues = new long[1 << CastlingRights.values().length];
+
+	/** The number for en passant being allowed on each file, indexed by the file's index */
+	private final long[] enPassantValues = new long[File.values().length];
+
+	public ZobristHasher() {
+		this(RANDOM_NUMBER_GENERATOR.get(), true);
+	}
+
 	/**
-	 * Retrieves the feature with a given index in the array of values
-	 * @param index The index to retrieve
-	 * @return The random number for that feature
+	 * Creates a hasher whose features' numbers come from the given generator
+	 * @param generator The {@code RandomNumberGenerator}
+	 * @param global Whether this should become the global {@code Hasher}
 	 */
-	private static long getFeatureWithIndex(int index) {
-		return FEATURE_VALUES[index];
+	public ZobristHasher(RandomNumberGenerator generator, boolean global) {
+		super(global);
+		long[] featureValues = generator.generateNumbers(NUMBER_OF_FEATURES);
+		colorValue = featureValues[COLOR_BASE];
+		initializeTables(featureValues);
 	}
-	
+
 	/**
-	 * Gets the list of indices for the zobrist features that are present in a {@code Board}
-	 * @param board The board to get the features for
-	 * @return The {@code List}, where each entry is an index referring to a number in {@code FEATURE_VALUES}
+	 * Lays the features' numbers out in the tables they're looked up in
+	 * @param featureValues The number for each feature, in the order described above
 	 */
-	private static List<Integer> getPresentFeatures(Board board) {
-		List<Integer> presentFeatures = new LinkedList<>();
-		for (Square square : Square.values()) {
-			Piece occupant = board.getPieceAtSquare(square);
-			if (occupant != null && occupant != Piece.NONE) {
-				addPieceAtSquareFeature(square, occupant, presentFeatures);
+	private void initializeTables(long[] featureValues) {
+		for (Piece piece : Piece.realPieces()) {
+			for (Square square : Square.values()) {
+				int index = square.getIndex() * NUMBER_OF_POSSIBLE_PIECES + piece.getBitRepresentation() - 1 + PIECE_INDEX_BASE;
+				pieceSquareValues[piece.getBitRepresentation()][square.getIndex()] = featureValues[index];
 			}
 		}
+		for (int mask = 0; mask < castlingValues.length; mask++) {
+			long value = 0L;
+			for (CastlingRights right : CastlingRights.values()) {
+				if ((mask & (1 << right.getIndex())) != 0) {
+					value ^= featureValues[right.getIndex() + CASTLING_RIGHTS_BASE];
+				}
+			}
+			castlingValues[mask] = value;
+		}
+		for (File file : File.values()) {
+			enPassantValues[file.getIndex()] = featureValues[file.getIndex() + EN_PASSANT_BASE];
+		}
+	}
+
+	/**
+	 * Gets the number for the feature of having a piece at a square
+	 * @param piece The piece
+	 * @param square The square with the piece
+	 * @return The number, which is 0 if the piece is {@code Piece.NONE}
+	 */
+	private long getPieceAtSquareValue(Piece piece, Square square) {
+		return pieceSquareValues[piece.getBitRepresentation()][square.getIndex()];
+	}
+
+	@Override
+	public long getHash(Board board) {
+		long code = STARTER_CODE;
+		for (Square square : Square.values()) {
+			code ^= getPieceAtSquareValue(board.getPieceAtSquare(square), square);
+		}
 		if (board.whoseMove().isWhite()) {
-			addColorFeature(presentFeatures);
+			code ^= colorValue;
 		}
+		int castlingMask = 0;
 		for (CastlingRights right : CastlingRights.values()) {
 			if (board.canCastle(right)) {
-				addCastlingRightsFeature(right, presentFeatures);
+				castlingMask |= 1 << right.getIndex();
 			}
 		}
+		code ^= castlingValues[castlingMask];
 		File enPassantFile = board.enPassantCaptureFile();
 		if (enPassantFile != null) {
-			addEnPassantFileFeature(enPassantFile, presentFeatures);
+			code ^= enPassantValues[enPassantFile.getIndex()];
 		}
-		return presentFeatures;
+		return code;
 	}
-	
-	/**
-	 * Gets the indices for the features that are changed by the given {@code Move}
-	 * @param transition The {@code Move}
-	 * @return The {@code List} of the indices in {@code FEATURE_VALUES} for the features that would get changed when performing the {@code Move}
-	 */
-	private static List<Integer> getChangedFeatures(Move transition) {
-		List<Integer> changedFeatures = new LinkedList<>();
-		addPieceMovement(transition, changedFeatures);
+
+	@Override
+	public long getNextHash(Board previous, Move transition) {
+		long code = previous.getHashCode() ^ colorValue;
+		code ^= getPieceAtSquareValue(transition.getMovingPiece(), transition.getStartSquare());
+		code ^= getPieceAtSquareValue(transition.getEndPiece(), transition.getDestinationSquare());
 		if (transition.isCapture()) {
-			Square captureSquare = transition.getCaptureSquare();
-			addPieceAtSquareFeature(captureSquare,
-					Piece.getByColorAndType(transition.getMovingColor().getOtherColor(),transition.getCapturedPieceType()), changedFeatures);
+			code ^= getPieceAtSquareValue(transition.getCapturedPiece(), transition.getCaptureSquare());
 		}
 		if (transition.isCastle()) {
-			addPieceAtSquareFeature(transition.getSecondaryStartSquareForCastling(), transition.getSecondaryMovingPieceForCastling(), changedFeatures);
-			addPieceAtSquareFeature(transition.getSecondaryEndSquareForCastling(), transition.getSecondaryMovingPieceForCastling(), changedFeatures);
-		}
-		addColorFeature(changedFeatures);
-		for (CastlingRights right : transition.newlyDisabledCastlingRights()) {
-			addCastlingRightsFeature(right, changedFeatures);
+			Piece rook = transition.getSecondaryMovingPieceForCastling();
+			code ^= getPieceAtSquareValue(rook, transition.getSecondaryStartSquareForCastling());
+			code ^= getPieceAtSquareValue(rook, transition.getSecondaryEndSquareForCastling());
 		}
+		code ^= castlingValues[transition.getNewlyDisabledCastlingMask()];
 		if (transition.removesEnPassantPrivileges()) {
-			addEnPassantFileFeature(transition.removedEnPassantFile(), changedFeatures);
+			code ^= enPassantValues[transition.removedEnPassantFile().getIndex()];
 		}
 		if (transition.allowsEnPassant()) {
-			addEnPassantFileFeature(transition.allowedEnPassantFile(), changedFeatures);
+			code ^= enPassantValues[transition.allowedEnPassantFile().getIndex()];
 		}
-		return changedFeatures;
-	}
-	
-	/**
-	 * Adds to the {@code List} the features changed specifically by the moving of the piece from one square to another
-	 * @param transition The {@code Move} describing the movement, among other things
-	 * @param presentFeatures The list of feature indices to add to
-	 */
-	private static void addPieceMovement(Move transition, List<Integer> presentFeatures) {
-		addPieceAtSquareFeature(transition.getStartSquare(), transition.getMovingPiece(), presentFeatures);
-		addPieceAtSquareFeature(transition.getDestinationSquare(), transition.getEndPiece(), presentFeatures);
-	}
-	
-	/**
-	 * Adds the feature associated with having a piece at the given square
-	 * @param square The square with the piece
-	 * @param occupant The piece
-	 * @param presentFeatures The list of feature indices to add to
-	 */
-	private static void addPieceAtSquareFeature(Square square, Piece occupant, List<Integer> presentFeatures) {
-		int index = square.getIndex() * NUMBER_OF_POSSIBLE_PIECES + occupant.getBitRepresentation() - 1 + PIECE_INDEX_BASE;
-		presentFeatures.add(index);
-	}
-	
-	/**
-	 * Adds the feature associated with the change of color of the moving player
-	 * @param presentFeatures The list of feature indices to add to
-	 */
-	private static void addColorFeature(List<Integer> presentFeatures) {
-		presentFeatures.add(COLOR_BASE);
-	}
-	
-	/**
-	 * Adds the feature associated with the ability to castle a certain way
-	 * @param right The way of castling
-	 * @param presentFeatures The list of feature indices to add to
-	 */
-	private static void addCastlingRightsFeature(CastlingRights right, List<Integer> presentFeatures) {
-		int index = right.getIndex() + CASTLING_RIGHTS_BASE;
-		presentFeatures.add(index);
-	}
-	
-	/**
-	 * Adds the feature associated with the given {@code File} and en passant
-	 * @param enPassantFile The en passant {@code File}
-	 * @param presentFeatures The list of feature indices to add to
-	 */
-	private static void addEnPassantFileFeature(File enPassantFile, List<Integer> presentFeatures) {
-		int index = enPassantFile.getIndex() + EN_PASSANT_BASE;
-		presentFeatures.add(index);
+		return code;
 	}
-	
-	
+
 	@Override
-	public long getHash(Board board) { 
-		return getPresentFeatures(board).stream()
-				.mapToLong(ZobristHasher::getFeatureWithIndex)
-				.reduce(STARTER_CODE, UtilityFunctions::xor);
+	public long getPawnHash(Board board) {
+		long code = STARTER_CODE;
+		for (Square square : Square.values()) {
+			Piece occupant = board.getPieceAtSquare(square);
+			if (occupant.getType() == PieceType.PAWN) {
+				code ^= getPieceAtSquareValue(occupant, square);
+			}
+		}
+		return code;
 	}
-	
+
 	@Override
-	public long getNextHash(Board previous, Move transition) {
-		return getChangedFeatures(transition).stream()
-				.mapToLong(ZobristHasher::getFeatureWithIndex)
-				.reduce(previous.getHashCode(), UtilityFunctions::xor);
+	public long getNextPawnHash(Board previous, Move transition) {
+		// Only a pawn moving, a pawn promoting, or a pawn getting captured changes the pawn hash
+		long code = previous.getPawnHashCode();
+		if (transition.getMovingPieceType() == PieceType.PAWN) {
+			code ^= getPieceAtSquareValue(transition.getMovingPiece(), transition.getStartSquare());
+			if (!transition.isPromotion()) {
+				code ^= getPieceAtSquareValue(transition.getEndPiece(), transition.getDestinationSquare());
+			}
+		}
+		if (transition.isCapture() && transition.getCapturedPieceType() == PieceType.PAWN) {
+			code ^= getPieceAtSquareValue(transition.getCapturedPiece(), transition.getCaptureSquare());
+		}
+		return code;
 	}
 
 }
@@ -1,14 +1,20 @@
 package immutableArrayBoard;
 
 
+import java.util.Arrays;
 import java.util.function.Supplier;
 
 import boardFeatures.Square;
+import evaluation.ConventionalMaterialEvaluation;
+import evaluation.GamePhase;
+import evaluation.PieceSquareTables;
 import gamePlaying.Color;
 import hashing.Hasher;
+import hashing.MaterialKey;
 import lines.File;
 import moves.Move;
 import pieces.Piece;
+import pieces.PieceType;
 import representation.Board;
 import representation.BoardBuilder;
 import representation.CastlingRights;
@@ -33,7 +39,7 @@ public class ImmutableArrayBoard extends Board {
 	private static final int RIGHTS_INDEX = 8;
 	
 	/** The number of ints it takes to represent a board */
-	private static final int ARRAY_SIZE = 12;
+	private static final int ARRAY_SIZE = 21;
 	
 	/** The index of the int that stores the righter bits of the hashcode for this board */
 	private static final int HASHCODE_INDEX_1 = 10;
@@ -41,6 +47,39 @@ public class ImmutableArrayBoard extends Board {
 	/** The index of the int that stores the lefter bits of the hashcode for this board */
 	private static final int HASHCODE_INDEX_2 = 11;
 	
+	/** The index of the int that stores the total middlegame score of the pieces on this board */
+	private static final int MIDDLEGAME_SCORE_INDEX = 12;
+	
+	/** The index of the int that stores the total endgame score of the pieces on this board */
+	private static final int ENDGAME_SCORE_INDEX = 13;
+	
+	/** The index of the int that stores the game phase of this board */
+	private static final int PHASE_INDEX = 14;
+	
+	/** The index of the int that stores the righter bits of the pawn hashcode for this board */
+	private static final int PAWN_HASHCODE_INDEX_1 = 15;
+	
+	/** The index of the int that stores the lefter bits of the pawn hashcode for this board */
+	private static final int PAWN_HASHCODE_INDEX_2 = 16;
+	
+	/** The index of the int that stores the indices of the squares the kings are on, white's in the lowest byte and black's in the next */
+	private static final int KING_SQUARES_INDEX = 17;
+	
+	/** The index of the int that stores the righter bits of the material key for this board */
+	private static final int MATERIAL_KEY_INDEX_1 = 18;
+	
+	/** The index of the int that stores the lefter bits of the material key for this board */
+	private static final int MATERIAL_KEY_INDEX_2 = 19;
+	
+	/** The index of the int that stores the conventional material balance of this board */
+	private static final int MATERIAL_BALANCE_INDEX = 20;
+	
+	/** The number of bits each king's square takes up in the int that stores them */
+	private static final int KING_SQUARE_BITS = 8;
+	
+	/** A bit mask that covers one king's square in the int that stores them */
+	private static final int KING_SQUARE_MASK = 0xFF;
+	
 	/** The number of bits in an int */
 	private static final int INT_SIZE = 32;
 	
@@ -59,6 +98,9 @@ public class ImmutableArrayBoard extends Board {
 	/** The log of the log of the number of pieces that can be represented by bits. */
 	private static final int LOG_OF_LOG_OF_NUM_PIECES = 2;
 	
+	/** The number of squares whose pieces fit in each of the ints for the files, which is the number of squares on a file */
+	private static final int SQUARES_PER_FILE = INT_SIZE >>> LOG_OF_LOG_OF_NUM_PIECES;
+	
 	/** A bit mask that has ones in the same bits as the ones used to represent what en passant is allowed in the rights int*/
 	private static final int ONES_IN_EN_PASSANT_BITS = 0b11110000;
 	
@@ -86,7 +128,9 @@ public class ImmutableArrayBoard extends Board {
 	 * to say what file a pawn could take a pawn from through en passant, it uses the first bit of the next quarter of the int to say whose move it is,
 	 * and it uses the next bit to say if it's in check. After the check bit, the next 7 bits are used to store how many plies it has been since an
 	 * irreversible change in the board, as used by the 50 move draw rule. Everything except the check bit is calculated by the builder,
-	 * but the check is set when calculating moves.
+	 * but the check is set when calculating moves. The ints after that hold the last move, the hashcode, and the middlegame and endgame
+	 * totals of the piece square tables, the game phase, the pawn hashcode, where the kings are, the material key, and the material
+	 * balance, all of which are calculated when the board is created.
 	 */
 	private final int[] board;
 	
@@ -100,10 +144,13 @@ public class ImmutableArrayBoard extends Board {
 		this.board = board;
 		this.previousBoard = previousBoard;
 		withCalculatedHash(previousBoard);
+		withCalculatedScores(previousBoard);
+		withKingSquares(previousBoard);
 	}
 	
 	/**
-	 * Records hashcode, a long, for this {@code Board}, based on the board preceding this one and the move used to get to this one
+	 * Records the hashcode, the pawn hashcode, and the material key, all longs, for this {@code Board}, based on the board preceding this one
+	 * and the move used to get to this one
 	 * @param previousBoardArg The {@code Board} preceding this one. Note the {@code Move} to get to this one is already stored in this board
 	 */
 	private void withCalculatedHash(Board previousBoardArg) {
@@ -111,12 +158,83 @@ public class ImmutableArrayBoard extends Board {
 		long code = previousBoardArg == null ? hasher.getHash(this) : hasher.getNextHash(previousBoardArg, lastMove());
 		board[HASHCODE_INDEX_1] = (int) code;
 		board[HASHCODE_INDEX_2] = (int) (code >>> INT_SIZE);
+		long pawnCode = previousBoardArg == null ? hasher.getPawnHash(this) : hasher.getNextPawnHash(previousBoardArg, lastMove());
+		board[PAWN_HASHCODE_INDEX_1] = (int) pawnCode;
+		board[PAWN_HASHCODE_INDEX_2] = (int) (pawnCode >>> INT_SIZE);
+		long materialKey = previousBoardArg == null ? MaterialKey.calculate(this)
+				: previousBoardArg.getMaterialKey() + MaterialKey.getChange(lastMove());
+		board[MATERIAL_KEY_INDEX_1] = (int) materialKey;
+		board[MATERIAL_KEY_INDEX_2] = (int) (materialKey >>> INT_SIZE);
+	}
+	
+	/**
+	 * Records the squares the kings are on for this {@code Board}. Unless this is the first board, only the king that just moved, if any,
+	 * can be on a different square than in the board preceding this one
+	 * @param previousBoardArg The {@code Board} preceding this one. Note the {@code Move} to get to this one is already stored in this board
+	 */
+	private void withKingSquares(Board previousBoardArg) {
+		if (previousBoardArg == null) {
+			for (Square square : Square.values()) {
+				Piece piece = getPieceAtSquare(square);
+				if (piece.getType() == PieceType.KING) {
+					setKingSquare(piece.getColor(), square);
+				}
+			}
+		} else {
+			board[KING_SQUARES_INDEX] = ((ImmutableArrayBoard) previousBoardArg).board[KING_SQUARES_INDEX];
+			Move move = lastMove();
+			if (move.getMovingPieceType() == PieceType.KING) {
+				setKingSquare(move.getMovingColor(), move.getEndSquare());
+			}
+		}
+	}
+	
+	/**
+	 * Records the square a king is on
+	 * @param color The {@code Color} of the king
+	 * @param square The {@code Square} it's on
+	 */
+	private void setKingSquare(Color color, Square square) {
+		int shift = color.isWhite() ? 0 : KING_SQUARE_BITS;
+		board[KING_SQUARES_INDEX] = (board[KING_SQUARES_INDEX] & ~(KING_SQUARE_MASK << shift)) | (square.getIndex() << shift);
+	}
+	
+	/**
+	 * Records the middlegame and endgame totals of the piece square tables, the game phase, and the material balance, for this {@code Board}, based on
+	 * the board preceding this one and the move used to get to this one, so that only the pieces the move affected have to be looked at
+	 * @param previousBoardArg The {@code Board} preceding this one. Note the {@code Move} to get to this one is already stored in this board
+	 */
+	private void withCalculatedScores(Board previousBoardArg) {
+		if (previousBoardArg == null) {
+			board[MIDDLEGAME_SCORE_INDEX] = PieceSquareTables.calculateMiddlegameScore(this);
+			board[ENDGAME_SCORE_INDEX] = PieceSquareTables.calculateEndgameScore(this);
+			board[PHASE_INDEX] = GamePhase.calculatePhase(this);
+			board[MATERIAL_BALANCE_INDEX] = ConventionalMaterialEvaluation.calculateBalance(this);
+		} else {
+			Move move = lastMove();
+			board[MIDDLEGAME_SCORE_INDEX] = previousBoardArg.getMiddlegameScore() + PieceSquareTables.getMiddlegameChange(move);
+			board[ENDGAME_SCORE_INDEX] = previousBoardArg.getEndgameScore() + PieceSquareTables.getEndgameChange(move);
+			board[PHASE_INDEX] = previousBoardArg.getPhase() + GamePhase.getPhaseChange(move);
+			board[MATERIAL_BALANCE_INDEX] = previousBoardArg.getMaterialBalance() + ConventionalMaterialEvaluation.getBalanceChange(move);
+		}
 	}
 	
 	@Override
 	public Piece getPieceAtSquare(Square square) {
 		return Piece.getPieceByBits(getBitsAtSquare(square, board));
 	}
+	
+	@Override
+	public void fillPieceLocations(long[] locations) {
+		Arrays.fill(locations, 0L);
+		// The pieces' bits are read straight out of the ints for the files, without looking up any squares or pieces
+		for (int file = 0; file < File.values().length; file++) {
+			int pieces = board[file];
+			for (int rank = 0; rank < SQUARES_PER_FILE; rank++) {
+				locations[(pieces >>> (rank << LOG_OF_LOG_OF_NUM_PIECES)) & FOUR_ONES] |= 1L << (file * SQUARES_PER_FILE + rank);
+			}
+		}
+	}
 
 
 	@Override
@@ -149,7 +267,43 @@ public class ImmutableArrayBoard extends Board {
 
 	@Override
 	public long getHashCode() {
-		return (((long) board[HASHCODE_INDEX_2]) << INT_SIZE) | board[HASHCODE_INDEX_1];
+		return (((long) board[HASHCODE_INDEX_2]) << INT_SIZE) | (board[HASHCODE_INDEX_1] & 0xFFFFFFFFL);
+	}
+	
+	@Override
+	public long getPawnHashCode() {
+		return (((long) board[PAWN_HASHCODE_INDEX_2]) << INT_SIZE) | (board[PAWN_HASHCODE_INDEX_1] & 0xFFFFFFFFL);
+	}
+	
+	@Override
+	public long getMaterialKey() {
+		return (((long) board[MATERIAL_KEY_INDEX_2]) << INT_SIZE) | (board[MATERIAL_KEY_INDEX_1] & 0xFFFFFFFFL);
+	}
+	
+	@Override
+	public Square getKingSquare(Color color) {
+		int shift = color.isWhite() ? 0 : KING_SQUARE_BITS;
+		return Square.getByIndex((board[KING_SQUARES_INDEX] >>> shift) & KING_SQUARE_MASK);
+	}
+	
+	@Override
+	public int getMiddlegameScore() {
+		return board[MIDDLEGAME_SCORE_INDEX];
+	}
+	
+	@Override
+	public int getEndgameScore() {
+		return board[ENDGAME_SCORE_INDEX];
+	}
+	
+	@Override
+	public int getPhase() {
+		return board[PHASE_INDEX];
+	}
+	
+	@Override
+	public int getMaterialBalance() {
+		return board[MATERIAL_BALANCE_INDEX];
 	}
 	
 	@Override
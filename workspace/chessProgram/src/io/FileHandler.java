@@ -6,7 +6,9 @@ import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import support.BadArgumentException;
@@ -34,6 +36,23 @@ public class FileHandler {
 		}
 	}
 	
+	/**
+	 * Goes through the lines of a file one at a time, without holding them all in memory at once
+	 * @param filepath The path to the file
+	 * @param action What to do with each line
+	 */
+	public static void forEachLine(String filepath, Consumer<String> action) {
+		File file = openFile(filepath);
+		try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				action.accept(line);
+			}
+		} catch (IOException e) {
+			throw new BadArgumentException(filepath, File.class, "Can't read this file");
+		}
+	}
+	
 	/**
 	 * Writes a string to a file
 	 * @param sequence The string to write
@@ -42,6 +61,7 @@ public class FileHandler {
 	public static void writeToFile(String sequence, String filepath) {
 		File file = openFile(filepath);
 		try (OutputStream out = new FileOutputStream(file)) {
+			out.write(sequence.getBytes(StandardCharsets.UTF_8));
 		} catch (IOException e) {
 			throw new BadArgumentException(filepath, File.class, "Can't write to this file");
 		}
@@ -210,22 +210,22 @@ public class BasicMove implements Move {
 	
 	@Override
 	public boolean preventsWhiteKingsideCastling() {
-		return getMovingColor().isWhite() ? kingsideCastlingPrevented : (preventsEnemyCastling && getEndSquare() == CastlingRights.BLACK_KINGSIDE.getRookSquare());
+		return getMovingColor().isWhite() ? kingsideCastlingPrevented : (preventsEnemyCastling && getEndSquare() == CastlingRights.WHITE_KINGSIDE.getRookSquare());
 	}
 	
 	@Override
 	public boolean preventsWhiteQueensideCastling() {
-		return getMovingColor().isWhite() ? queensideCastlingPrevented : (preventsEnemyCastling && getEndSquare() == CastlingRights.BLACK_QUEENSIDE.getRookSquare());
+		return getMovingColor().isWhite() ? queensideCastlingPrevented : (preventsEnemyCastling && getEndSquare() == CastlingRights.WHITE_QUEENSIDE.getRookSquare());
 	}
 	
 	@Override
 	public boolean preventsBlackKingsideCastling() {
-		return getMovingColor().isWhite() ? (preventsEnemyCastling && getEndSquare() == CastlingRights.WHITE_KINGSIDE.getRookSquare()) : kingsideCastlingPrevented;
+		return getMovingColor().isWhite() ? (preventsEnemyCastling && getEndSquare() == CastlingRights.BLACK_KINGSIDE.getRookSquare()) : kingsideCastlingPrevented;
 	}
 	
 	@Override
 	public boolean preventsBlackQueensideCastling() {
-		return getMovingColor().isWhite() ? (preventsEnemyCastling && getEndSquare() == CastlingRights.WHITE_QUEENSIDE.getRookSquare()) : queensideCastlingPrevented;
+		return getMovingColor().isWhite() ? (preventsEnemyCastling && getEndSquare() == CastlingRights.BLACK_QUEENSIDE.getRookSquare()) : queensideCastlingPrevented;
 	}
 
 	@Override
@@ -290,6 +290,28 @@ public interface Move {
 		return newlyDisabledRights;
 	}
 	
+	/**
+	 * Describes the {@code CastlingRights} that get disabled by making this move as a mask, which, unlike
+	 * {@code newlyDisabledCastlingRights}, doesn't make any objects
+	 * @return The mask, with the bit at each disabled right's index set
+	 */
+	public default int getNewlyDisabledCastlingMask() {
+		int mask = 0;
+		if (preventsWhiteKingsideCastling()) {
+			mask |= 1 << CastlingRights.WHITE_KINGSIDE.getIndex();
+		}
+		if (preventsWhiteQueensideCastling()) {
+			mask |= 1 << CastlingRights.WHITE_QUEENSIDE.getIndex();
+		}
+		if (preventsBlackKingsideCastling()) {
+			mask |= 1 << CastlingRights.BLACK_KINGSIDE.getIndex();
+		}
+		if (preventsBlackQueensideCastling()) {
+			mask |= 1 << CastlingRights.BLACK_QUEENSIDE.getIndex();
+		}
+		return mask;
+	}
+	
 	/**
 	 * Compresses this {@code Move} into an int
 	 * @return The compressed move in int form
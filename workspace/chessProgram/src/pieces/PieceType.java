@@ -31,7 +31,7 @@ public enum PieceType {
 	private final String readableForm;
 	private final String moveLetter;
 	private final String pieceLetter;
-	private final double conventionalEvaluation;
+	private final int conventionalEvaluation;
 	private final static PieceType[] HORIZONTAL_MOVERS = {ROOK, QUEEN};
 	private final static PieceType[] PROMOTION_PIECES = {KNIGHT, BISHOP, ROOK, QUEEN};
 	private final static PieceType[] LINE_MOVERS = {BISHOP, ROOK, QUEEN};
@@ -48,12 +48,12 @@ public enum PieceType {
 	 * @param readableForm How to describe this piece type in plain english
 	 * @param moveLetter The letter used to represent this piece
 	 * @param pieceLetter The letter used to abbreviate this piece type
-	 * @param conventionalEvaluation The conventional values, in pawns, assumed to each piece type, when chess is taught to beginners (king's get 0)
+	 * @param conventionalEvaluation The conventional values, in centipawns, assumed to each piece type, when chess is taught to beginners (king's get 0)
 	 * @param constructor A constructor for the utility class for this type of piece. A constructor
 	 * is an argument here because the utility class can't be instantiated earlier, since its constructor
 	 * takes this {@code PieceType} as an argument.
 	 */
-	private PieceType(String readableForm, String moveLetter, String pieceLetter, double conventionalEvaluation, Function<Color, PieceUtility> constructor) {
+	private PieceType(String readableForm, String moveLetter, String pieceLetter, int conventionalEvaluation, Function<Color, PieceUtility> constructor) {
 		this.readableForm = readableForm;
 		this.utilityInstanceConstructor = constructor;
 		this.moveLetter = moveLetter;
@@ -172,9 +172,9 @@ public enum PieceType {
 	/**
 	 * Gets the conventional value attributed to pieces of this type, when chess is taught to beginners. Kings are
 	 * given 0, so they don't overshadow the values of the other pieces
-	 * @return The double representation of the value
+	 * @return The value in centipawns
 	 */
-	public double getConventionalEvaluation() {
+	public int getConventionalEvaluation() {
 		return conventionalEvaluation;
 	}
 	
@@ -5,8 +5,11 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import boardFeatures.Square;
+import evaluation.Evaluator;
+import gamePlaying.Color;
 import gamePlaying.GameState;
 import gamePlaying.State;
+import hashing.MaterialKey;
 import lines.File;
 import moves.Move;
 import pieces.Piece;
@@ -26,6 +29,12 @@ public abstract class Board implements State {
 	 */
 	protected Set<Move> legalMoves = null;
 	
+	/**
+	 * The evaluators used by {@code evaluate}, one per thread, since evaluators can keep caches that aren't safe to share and are too
+	 * costly to create for every call
+	 */
+	private static final ThreadLocal<Evaluator> EVALUATORS = ThreadLocal.withInitial(EVALUATOR_CONSTRUCTOR);
+	
 	/**
 	 * Calculates the legal moves for this position and stores them in the {@code legalMoves Set}.
 	 * If the game is over, the {@code legalMoves Set} will be empty
@@ -77,7 +86,19 @@ public abstract class Board implements State {
 				.map(square -> this.getPieceAtSquare(square))
 				.collect(Collectors.toList()).toArray(new Piece[Square.values().length]);
 	}
-	
+
+	/**
+	 * Fills in the squares each piece is on, as {@code long}s with the bit for each square's index set, so that evaluation terms can
+	 * work with whole sets of squares at once. Empty squares go in the slot for {@code Piece.NONE}
+	 * @param locations Where to put the squares, indexed by each piece's bit representation. It's overwritten, so it needn't be cleared
+	 */
+	public void fillPieceLocations(long[] locations) {
+		Arrays.fill(locations, 0L);
+		for (Square square : Square.values()) {
+			locations[getPieceAtSquare(square).getBitRepresentation()] |= 1L << square.getIndex();
+		}
+	}
+
 	/**
 	 * Gets the last move that was made to get to this board
 	 * @return The move
@@ -90,6 +111,64 @@ public abstract class Board implements State {
 	 */
 	public abstract long getHashCode();
 	
+	/**
+	 * Retrieves the long used as the hashcode for only the pawns on this board, which changes only when a pawn moves, promotes, or
+	 * gets captured
+	 * @return The long
+	 */
+	public abstract long getPawnHashCode();
+	
+	/**
+	 * Retrieves the key describing how many of each piece are on this board, as given by {@code MaterialKey}. This changes only on
+	 * captures and promotions
+	 * @return The long
+	 */
+	public abstract long getMaterialKey();
+	
+	/**
+	 * Retrieves how many of a piece are on this board, which is read out of the material key, so it doesn't have to be counted
+	 * @param piece The {@code Piece}, which shouldn't be {@code Piece.NONE}
+	 * @return The number of that piece
+	 */
+	public int getPieceCount(Piece piece) {
+		return MaterialKey.getCount(getMaterialKey(), piece);
+	}
+	
+	/**
+	 * Retrieves the {@code Square} a player's king is on. This is kept from board to board, so it doesn't have to be searched for
+	 * @param color The {@code Color} of the player
+	 * @return The {@code Square}
+	 */
+	public abstract Square getKingSquare(Color color);
+	
+	/**
+	 * Retrieves the sum of the middlegame scores in {@code PieceSquareTables} of all the pieces on this board. This is kept as a running
+	 * total from board to board, so it's as cheap to get as the hashcode
+	 * @return The score, in centipawns, where positive is good for white
+	 */
+	public abstract int getMiddlegameScore();
+	
+	/**
+	 * Retrieves the sum of the endgame scores in {@code PieceSquareTables} of all the pieces on this board. This is kept as a running
+	 * total from board to board, so it's as cheap to get as the hashcode
+	 * @return The score, in centipawns, where positive is good for white
+	 */
+	public abstract int getEndgameScore();
+	
+	/**
+	 * Retrieves how much material other than pawns is left on this board, as measured by {@code GamePhase}. This is kept as a running
+	 * total from board to board, so it's as cheap to get as the hashcode
+	 * @return The phase, from 0 with only kings and pawns, to {@code GamePhase.MAX_PHASE} with all the pieces, or more after promotions
+	 */
+	public abstract int getPhase();
+	
+	/**
+	 * Retrieves the sum of the conventional material values of all the pieces on this board, as given by
+	 * {@code ConventionalMaterialEvaluation}. This is kept as a running total from board to board, so it's as cheap to get as the hashcode
+	 * @return The balance, in centipawns, where positive is good for white
+	 */
+	public abstract int getMaterialBalance();
+	
 	@Override
 	public Set<Move> getLegalMoves() {
 		if (legalMoves == null) {
@@ -111,16 +190,12 @@ public abstract class Board implements State {
 	
 	@Override
 	public boolean isOver() {
-		return getLegalMoves().isEmpty();
+		return getState() != GameState.STILL_GOING;
 	}
 	
 	@Override
-	public double evaluate() {
-		GameState state = getState();
-		if (state != GameState.STILL_GOING) {
-			return state.getEvaluation();
-		}
-		return EVALUATOR_CONSTRUCTOR.get().evaluateBoard(this);
+	public int evaluate() {
+		return EVALUATORS.get().evaluateBoard(this);
 	}
 	
 	/**
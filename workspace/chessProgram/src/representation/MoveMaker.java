@@ -14,6 +14,9 @@ import pieces.PieceType;
  */
 public abstract class MoveMaker<B extends Board> {
 
+	/** All the {@code CastlingRights}, kept so they don't have to be copied out of the enum for every move */
+	private static final CastlingRights[] CASTLING_RIGHTS = CastlingRights.values();
+
 	/**
 	 * Retrieves a new builder to build the new board with
 	 * @param board The board to seed the builder with
@@ -69,7 +72,12 @@ public abstract class MoveMaker<B extends Board> {
 			}
 			break;
 		}
-		move.newlyDisabledCastlingRights().stream().forEach(right -> builder.withCastlingRight(right, false));
+		int disabledRights = move.getNewlyDisabledCastlingMask();
+		for (CastlingRights right : CASTLING_RIGHTS) {
+			if ((disabledRights & (1 << right.getIndex())) != 0) {
+				builder.withCastlingRight(right, false);
+			}
+		}
 		// change whose move it is and record the last move
 		return builder.withColorToMove(movingColor.getOtherColor()).build();
 	}	
@@ -1,5 +1,8 @@
 package search;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
 import moves.Move;
 import representation.Board;
 
@@ -14,7 +17,54 @@ public interface AI {
 	/**
 	 * Determines which move should be made in a given position to maximize the likelihood that the position is winning for the player making the move
 	 * @param board The position to evaluate the best move for
-	 * @return The most likely best move
+	 * @return The most likely best move, or null if the position has no legal moves
 	 */
 	public Move bestMove(Board board);
+
+	/**
+	 * Determines which move should be made in a given position, taking no more time or effort than some limits allow. Implementors
+	 * that can't be limited just ignore the limits
+	 * @param board The position to evaluate the best move for
+	 * @param limits When the search has to stop
+	 * @return The most likely best move, or null if the position has no legal moves
+	 */
+	public default Move bestMove(Board board, SearchLimits limits) {
+		return bestMove(board);
+	}
+
+	/**
+	 * Starts searching for the move that should be made in a given position in another thread. Once this returns, {@code stop} and
+	 * {@code ponderHit} apply to the search it started
+	 * @param board The position to evaluate the best move for
+	 * @param limits When the search has to stop
+	 * @return A {@code CompletableFuture} that completes with the most likely best move
+	 */
+	public default CompletableFuture<Move> startSearch(Board board, SearchLimits limits) {
+		return CompletableFuture.supplyAsync(() -> bestMove(board, limits));
+	}
+
+	/**
+	 * Forgets anything remembered from earlier searches, since it won't apply to a new game. Implementors that don't remember
+	 * anything needn't do anything
+	 */
+	public default void newGame() {}
+
+	/**
+	 * Tells a ponder search running in another thread that the opponent played the expected reply, so it should go on as a normal
+	 * search under its limits. Implementors that can't ponder needn't do anything
+	 */
+	public default void ponderHit() {}
+
+	/**
+	 * Tells a search running in another thread to stop as soon as it can and return the best move it has found. Implementors that
+	 * can't be stopped needn't do anything
+	 */
+	public default void stop() {}
+
+	/**
+	 * Registers something to be told about the progress of a search, each time the search finishes looking at the position to some
+	 * depth. Implementors that don't search that way needn't report anything
+	 * @param listener The {@code Consumer} to give each {@code SearchReport} to
+	 */
+	public default void addProgressListener(Consumer<SearchReport> listener) {}
 }
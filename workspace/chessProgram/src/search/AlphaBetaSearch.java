@@ -0,0 +1,226 @@
+package search;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import moves.Move;
+import representation.Board;
+import static support.Constants.*;
+
+/**
+ * An implementation of the alpha-beta algorithm, which finds the same moves as minimax but skips the branches that can't change the
+ * result. How many branches can be skipped depends heavily on trying the best moves first, so the search is run with iterative
+ * deepening: the position is searched to depth 1, then 2, and so on, and each iteration leaves its best moves in a
+ * {@code TranspositionTable} for the next iteration to try first. Iterations continue until the {@code SearchLimits} say to stop, and
+ * an iteration that gets cut off partway through is thrown away.
+ *
+ * Unlike {@code BasicDepthBasedMinimax}, the table is kept from one call to the next, since positions from the last search are likely
+ * to come up again. Each search starts a new generation of the table so that stale entries are replaced first, and the table is only
+ * emptied by {@code newGame}. The {@code EvaluationCache} is kept too, and never needs emptying, since a position's evaluation never
+ * changes. The searching itself is done by a {@code SearchWorker}, which also takes care of the quiescence search and the check and
+ * singular extensions. After each iteration, a {@code SearchReport} for each line found is given to every registered listener, and the
+ * best move of the best line is the move returned.
+ *
+ * With more than one thread, the extra threads each run their own {@code SearchWorker} on the same position at the same time, sharing
+ * only the tables and the {@code TimeManager}, which counts every thread's positions toward the position limit and the reports'
+ * position counts. They don't report anything, but the positions they fill the table with let the main thread's worker skip work.
+ * So the helpers only look for the best line, since the others are only there to be reported, and they start at alternating depths
+ * so that they don't all search the same positions in the same order.
+ * @author matthewslesinski
+ *
+ */
+public class AlphaBetaSearch implements AI {
+
+	/** The limits used when none are given */
+	private static final SearchLimits DEFAULT_LIMITS = new SearchLimits.Builder().withMoveTime(COMPUTER_MOVE_TIME).withMultiPV(COMPUTER_MULTI_PV).build();
+
+	/** The number of lines the helper threads look for */
+	private static final int HELPER_LINE_COUNT = 1;
+
+	/** The deepest iteration that can be searched. The extensions can double the depth, and no search can go further than MAX_PLY */
+	private static final int MAX_ITERATION_DEPTH = SearchWorker.MAX_PLY / 2 - 1;
+
+	/** A table to hold the results for positions that have already been searched */
+	private final TranspositionTable table = new TranspositionTable();
+
+	/** A cache of the static evaluations of positions, kept for as long as the search is */
+	private final EvaluationCache evaluationCache = new EvaluationCache();
+
+	/** The number of threads to search with */
+	private final int threadCount;
+
+	/** The listeners to tell about each iteration */
+	private final List<Consumer<SearchReport>> listeners = new LinkedList<>();
+
+	/** Decides when the current search has to stop */
+	private volatile TimeManager timeManager = null;
+
+	public AlphaBetaSearch() {
+		this(SEARCH_THREADS);
+	}
+
+	/**
+	 * Creates a search that uses a number of threads
+	 * @param threadCount The number of threads, including the one that calls {@code bestMove}
+	 */
+	public AlphaBetaSearch(int threadCount) {
+		this.threadCount = threadCount;
+	}
+
+	@Override
+	public Move bestMove(Board board) {
+		return bestMove(board, DEFAULT_LIMITS);
+	}
+
+	@Override
+	public Move bestMove(Board board, SearchLimits limits) {
+		return search(board, limits, startTimeManager(limits));
+	}
+
+	@Override
+	public CompletableFuture<Move> startSearch(Board board, SearchLimits limits) {
+		// The manager is made before returning, so that a call to stop or ponderHit right after can't miss the search
+		TimeManager manager = startTimeManager(limits);
+		return CompletableFuture.supplyAsync(() -> search(board, limits, manager));
+	}
+
+	/**
+	 * Makes the manager for a new search, which is the one {@code stop} and {@code ponderHit} apply to from then on
+	 * @param limits The limits of the search
+	 * @return The {@code TimeManager}
+	 */
+	private TimeManager startTimeManager(SearchLimits limits) {
+		TimeManager manager = new TimeManager(limits);
+		timeManager = manager;
+		return manager;
+	}
+
+	/**
+	 * Runs iterative deepening on a position, along with any helper threads, until the search has to stop
+	 * @param board The position to search
+	 * @param limits The limits of the search
+	 * @param manager Decides when the search has to stop
+	 * @return The best move found, or null if the position has no legal moves
+	 */
+	private Move search(Board board, SearchLimits limits, TimeManager manager) {
+		// The root is shared by every thread, so its lazily calculated state has to be filled in before any of them start
+		if (board.getLegalMoves().isEmpty()) {
+			return null;
+		}
+		board.isInCheck();
+		table.newSearch();
+		List<Thread> helpers = startHelpers(board, limits, manager);
+		SearchWorker worker = new SearchWorker(table, evaluationCache, manager, limits.getMultiPV());
+		List<SearchReport> reports = null;
+		for (int depth = 1; depth <= MAX_ITERATION_DEPTH && (depth == 1 || manager.shouldStartIteration(depth)); depth++) {
+			worker.searchRoot(board, depth);
+			if (worker.isAborted()) {
+				break;
+			}
+			reports = new LinkedList<>();
+			SearchStatistics statistics = worker.getStatistics().copy();
+			table.recordCollisions(statistics);
+			for (int line = 0; line < worker.getLineCount(); line++) {
+				reports.add(new SearchReport(board, depth, worker.getSelectiveDepth(), line + 1, worker.getScore(line), manager.getNodes(),
+						manager.getElapsedTime(), worker.getPrincipalVariation(line), statistics));
+			}
+			for (SearchReport report : reports) {
+				for (Consumer<SearchReport> listener : listeners) {
+					listener.accept(report);
+				}
+			}
+		}
+		manager.stop();
+		joinHelpers(helpers);
+		return reports != null ? reports.get(0).getBestMove() : getFallbackMove(board);
+	}
+
+	/**
+	 * Picks a move for a position whose first iteration was cut off by the position limit or a call to {@code stop}, so that the
+	 * search found nothing of its own. The table's move for the position is the best guess, and otherwise any legal move will do
+	 * @param board The position, which must have a legal move
+	 * @return The move
+	 */
+	private Move getFallbackMove(Board board) {
+		long entry = table.probe(board.getHashCode(), TranspositionTable.getVerificationKey(board));
+		Move move = SearchWorker.findLegalMove(board, TranspositionTable.getMove(entry));
+		return move != null ? move : board.getLegalMoves().iterator().next();
+	}
+
+	/**
+	 * Starts the helper threads, which search until they are told to stop
+	 * @param board The position to search
+	 * @param limits The limits of the search
+	 * @param manager Decides when the search has to stop
+	 * @return The {@code Thread}s
+	 */
+	private List<Thread> startHelpers(Board board, SearchLimits limits, TimeManager manager) {
+		List<Thread> helpers = new LinkedList<>();
+		for (int i = 1; i < threadCount; i++) {
+			int startDepth = 1 + i % 2;
+			Thread helper = new Thread(() -> runHelper(board, limits, manager, startDepth), "Search helper " + i);
+			helper.setDaemon(true);
+			helper.start();
+			helpers.add(helper);
+		}
+		return helpers;
+	}
+
+	/**
+	 * Runs iterative deepening on a helper thread, ignoring the results, until the search is told to stop
+	 * @param board The position to search
+	 * @param limits The limits of the search
+	 * @param manager Decides when the search has to stop
+	 * @param startDepth The depth of the first iteration
+	 */
+	private void runHelper(Board board, SearchLimits limits, TimeManager manager, int startDepth) {
+		SearchWorker helper = new SearchWorker(table, evaluationCache, manager, HELPER_LINE_COUNT);
+		for (int depth = startDepth; depth <= Math.min(MAX_ITERATION_DEPTH, limits.getMaxDepth()) && !manager.isStopped(); depth++) {
+			helper.searchRoot(board, depth);
+		}
+	}
+
+	/**
+	 * Waits for the helper threads to finish, which they do soon after the search is told to stop
+	 * @param helpers The {@code Thread}s
+	 */
+	private static void joinHelpers(List<Thread> helpers) {
+		for (Thread helper : helpers) {
+			try {
+				helper.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	@Override
+	public void newGame() {
+		table.clear();
+	}
+
+	@Override
+	public void ponderHit() {
+		TimeManager manager = timeManager;
+		if (manager != null) {
+			manager.ponderHit();
+		}
+	}
+
+	@Override
+	public void stop() {
+		TimeManager manager = timeManager;
+		if (manager != null) {
+			manager.stop();
+		}
+	}
+
+	@Override
+	public void addProgressListener(Consumer<SearchReport> listener) {
+		listeners.add(listener);
+	}
+
+}
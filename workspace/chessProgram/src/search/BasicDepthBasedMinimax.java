@@ -6,6 +6,7 @@ import java.util.Map;
 import java.util.function.BinaryOperator;
 import java.util.function.Function;
 
+import gamePlaying.GameState;
 import moves.Move;
 import representation.Board;
 import static support.UtilityFunctions.*;
@@ -32,41 +33,46 @@ public class BasicDepthBasedMinimax implements AI {
 	/** How many plies down the road to look */
 	private static final int MAX_PLIES = 3;
 	
-	/** A comparator for doubles that describes their natural ordering */
-	private static final Comparator<Double> NATURAL_ORDER = Comparator.naturalOrder();
+	/** A comparator for ints that describes their natural ordering */
+	private static final Comparator<Integer> NATURAL_ORDER = Comparator.naturalOrder();
 
-	/** A comparator for doubles that describes the reverse of their natural ordering */
-	private static final Comparator<Double> REVERSE_ORDER = NATURAL_ORDER.reversed();
+	/** A comparator for ints that describes the reverse of their natural ordering */
+	private static final Comparator<Integer> REVERSE_ORDER = NATURAL_ORDER.reversed();
 
 	/** A table to hold evaluations for boards that have already been evaluated */
-	private static Map<Long, Double> TRANSPOSITION_TABLE = null;
+	private static Map<Long, Integer> TRANSPOSITION_TABLE = null;
 	
 	@Override
 	public Move bestMove(Board board) {
 		TRANSPOSITION_TABLE = new HashMap<>();
-		Comparator<Double> comparator = board.whoseMove().isWhite() ? NATURAL_ORDER : REVERSE_ORDER;
-		Function<Move, Double> translator = bindAtEnd(BasicDepthBasedMinimax::bestMoveHelper, MAX_PLIES).compose(board::performMove);
+		Comparator<Integer> comparator = board.whoseMove().isWhite() ? NATURAL_ORDER : REVERSE_ORDER;
+		Function<Move, Integer> translator = bindAtEnd(BasicDepthBasedMinimax::bestMoveHelper, MAX_PLIES).compose(board::performMove);
 		BinaryOperator<Move> operator = (move1, move2) -> argmax(comparator, translator, move1, move2);
-		return board.getLegalMoves().stream().reduce(operator).get();
+		return board.getLegalMoves().stream().reduce(operator).orElse(null);
 	}
 	
 	/**
 	 * Performs much of the recursive calls for evaluating boards in the game tree. If the board has already been evaluated, that
-	 * evaluation is returned. Otherwise, if the maximum depth has been reached,
-	 * the boards get evaluated. Otherwise, it looks for the optimal branch for the moving player. Either way, whatever is
+	 * evaluation is returned. Otherwise, if the game is over, the board gets the evaluation of its {@code GameState}, and if the maximum
+	 * depth has been reached, the boards get evaluated. Otherwise, it looks for the optimal branch for the moving player. Either way, whatever is
 	 * returned gets put in the transposition table as the evaluation for the provided board. 
 	 * @param board The board being evaluated
 	 * @param pliesLeft The number of plies left until the maximum depth has been reached. That maximum depth is when this value is 1
 	 * @return The evaluation for the provided board
 	 */
-	private static double bestMoveHelper(Board board, int pliesLeft) {
+	private static int bestMoveHelper(Board board, int pliesLeft) {
 		if (TRANSPOSITION_TABLE.containsKey(board.getHashCode())) {
 			return TRANSPOSITION_TABLE.get(board.getHashCode());
 		}
-		if (pliesLeft == 1 || board.isOver()) {
+		// The static evaluation assumes the game is still going, so the end of the game is checked for first
+		GameState state = board.getState();
+		if (state != GameState.STILL_GOING) {
+			return recordEvaluation(board, state.getEvaluation());
+		}
+		if (pliesLeft == 1) {
 			return recordEvaluation(board, board.evaluate());
 		}
-		BinaryOperator<Double> optimumFinder = board.whoseMove().isWhite() ? Math::max : Math::min;
+		BinaryOperator<Integer> optimumFinder = board.whoseMove().isWhite() ? Math::max : Math::min;
 		return recordEvaluation(board, board.getLegalMoves().stream()
 				.map(bindAtEnd(BasicDepthBasedMinimax::bestMoveHelper, pliesLeft - 1).compose(board::performMove))
 				.reduce(optimumFinder).get());
@@ -78,7 +84,7 @@ public class BasicDepthBasedMinimax implements AI {
 	 * @param evaluation The board's evaluation
 	 * @return The evaluation
 	 */
-	private static double recordEvaluation(Board board, double evaluation) {
+	private static int recordEvaluation(Board board, int evaluation) {
 		TRANSPOSITION_TABLE.put(board.getHashCode(), evaluation);
 		return evaluation;
 	}
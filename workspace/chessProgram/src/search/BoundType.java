@@ -0,0 +1,44 @@
+package search;
+
+/**
+ * Describes how a score stored in a {@code TranspositionTable} relates to the real score of the position. Because alpha-beta
+ * cuts off the search as soon as it knows a branch is irrelevant, the scores it finds are often only bounds on the real score.
+ * @author matthewslesinski
+ *
+ */
+public enum BoundType {
+
+	/** No score has been stored */
+	NONE,
+	/** The score was found inside the search window, so it is the real score */
+	EXACT,
+	/** The search failed high, so the real score is at least the stored score */
+	LOWER,
+	/** The search failed low, so the real score is at most the stored score */
+	UPPER;
+
+	/**
+	 * Gets the bound type given by the index
+	 * @param index The index to get
+	 * @return The {@code BoundType} at that index
+	 */
+	public static BoundType getByIndex(int index) {
+		return values()[index];
+	}
+
+	/**
+	 * Determines if the real score can be at least the stored score, which is what matters when checking if a move fails high
+	 * @return true iff this is {@code EXACT} or {@code LOWER}
+	 */
+	public boolean isLowerBound() {
+		return this == EXACT || this == LOWER;
+	}
+
+	/**
+	 * Determines if the real score can be at most the stored score, which is what matters when checking if a position fails low
+	 * @return true iff this is {@code EXACT} or {@code UPPER}
+	 */
+	public boolean isUpperBound() {
+		return this == EXACT || this == UPPER;
+	}
+}
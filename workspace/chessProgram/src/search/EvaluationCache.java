@@ -0,0 +1,105 @@
+package search;
+
+import java.util.Arrays;
+
+import support.BadArgumentException;
+
+/**
+ * A fixed size table that remembers the static evaluations of positions, so that a position the search reaches again, whether through
+ * a transposition, a later iteration, or the quiescence search going over the same captures, doesn't have to be evaluated again. Each
+ * position goes in the slot given by the low bits of its hashcode, and simply replaces whatever was there, since an evaluation costs
+ * the same to redo no matter how it was reached.
+ *
+ * An evaluation only depends on the position, so entries stay correct for as long as the evaluator doesn't change, and the cache can
+ * be kept from one search to the next. Like a {@code TranspositionTable}, it can be shared by several search threads without any
+ * locking: each slot keeps its hashcode XORed with its entry, so a slot that two threads wrote to at once just looks like it holds some
+ * other position.
+ * @author matthewslesinski
+ *
+ */
+public class EvaluationCache {
+
+	/** What a probe returns when the position isn't in the cache */
+	public static final long NO_ENTRY = 0L;
+
+	/** The number of entries in a cache when no size is specified. This must be a power of two */
+	private static final int DEFAULT_SIZE = 1 << 18;
+
+	/** The bit set in every entry, above the evaluation, so that no entry is {@code NO_ENTRY} */
+	private static final long PRESENT_BIT = 1L << Integer.SIZE;
+
+	/** Masks a hashcode down to the index of its slot */
+	private final int indexMask;
+
+	/** The full hashcodes of the positions held in each slot, XORed with their entries */
+	private final long[] keys;
+
+	/** The entry for the position in each slot, which is its evaluation along with {@code PRESENT_BIT} */
+	private final long[] entries;
+
+	public EvaluationCache() {
+		this(DEFAULT_SIZE);
+	}
+
+	/**
+	 * Creates a cache with a given number of slots
+	 * @param size The number of slots. This must be a power of two
+	 */
+	public EvaluationCache(int size) {
+		if (Integer.bitCount(size) != 1) {
+			throw new BadArgumentException(size, int.class, "The size of an evaluation cache must be a power of two");
+		}
+		indexMask = size - 1;
+		keys = new long[size];
+		entries = new long[size];
+	}
+
+	/**
+	 * Looks up a position in the cache
+	 * @param key The hashcode of the position
+	 * @return The entry for the position, or {@code NO_ENTRY} if the position isn't in the cache
+	 */
+	public long probe(long key) {
+		int index = (int) key & indexMask;
+		long entry = entries[index];
+		return (keys[index] ^ entry) == key ? entry : NO_ENTRY;
+	}
+
+	/**
+	 * Determines if a probe found the position
+	 * @param entry The entry returned by {@code probe}
+	 * @return true iff there is an entry
+	 */
+	public static boolean isPresent(long entry) {
+		return entry != NO_ENTRY;
+	}
+
+	/**
+	 * Gets the evaluation out of an entry
+	 * @param entry The entry returned by {@code probe}, which must be present
+	 * @return The evaluation, as given by the {@code Evaluator}
+	 */
+	public static int getEvaluation(long entry) {
+		return (int) entry;
+	}
+
+	/**
+	 * Records the evaluation of a position
+	 * @param key The hashcode of the position
+	 * @param evaluation The evaluation, as given by the {@code Evaluator}
+	 */
+	public void store(long key, int evaluation) {
+		int index = (int) key & indexMask;
+		long entry = PRESENT_BIT | (evaluation & 0xFFFFFFFFL);
+		entries[index] = entry;
+		keys[index] = key ^ entry;
+	}
+
+	/**
+	 * Empties the cache, which should be done if the evaluator changes
+	 */
+	public void clear() {
+		Arrays.fill(keys, 0L);
+		Arrays.fill(entries, NO_ENTRY);
+	}
+}
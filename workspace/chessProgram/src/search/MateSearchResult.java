@@ -0,0 +1,66 @@
+package search;
+
+import java.util.Collections;
+import java.util.List;
+
+import moves.Move;
+
+/**
+ * What a {@code ProofNumberSearch} found out about a position: whether the player to move can force mate, the mating line if so, and
+ * how many positions it took to find out.
+ * @author matthewslesinski
+ *
+ */
+public class MateSearchResult {
+
+	/** Whether mate was proven, disproven, or neither */
+	private final ProofStatus status;
+
+	/** The mating line, if mate was proven */
+	private final List<Move> line;
+
+	/** The number of positions the solver visited */
+	private final long nodes;
+
+	/**
+	 * Creates a result
+	 * @param status Whether mate was proven, disproven, or neither
+	 * @param line The mating line, which should be empty unless mate was proven
+	 * @param nodes The number of positions the solver visited
+	 */
+	public MateSearchResult(ProofStatus status, List<Move> line, long nodes) {
+		this.status = status;
+		this.line = Collections.unmodifiableList(line);
+		this.nodes = nodes;
+	}
+
+	/**
+	 * Gets whether mate was proven, disproven, or neither
+	 * @return The {@code ProofStatus}
+	 */
+	public ProofStatus getStatus() {
+		return status;
+	}
+
+	/**
+	 * Gets the mating line, which has the attacker's moves and one defence to each of them, ending in mate. It isn't necessarily the
+	 * quickest mate, nor the longest defence
+	 * @return The {@code List} of {@code Move}s, which is empty unless mate was proven
+	 */
+	public List<Move> getLine() {
+		return line;
+	}
+
+	/**
+	 * Gets the number of positions the solver visited
+	 * @return The number of positions
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+
+	@Override
+	public String toString() {
+		return status + " " + line + " nodes " + nodes;
+	}
+}
@@ -0,0 +1,294 @@
+package search;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import support.BadArgumentException;
+
+/**
+ * The tree a {@code MonteCarloTreeSearch} grows. Rather than one object per node, the tree is an arena of parallel primitive arrays,
+ * and a node is just an index into them, so growing the tree doesn't create any objects and the whole tree can be thrown away by
+ * resetting one counter. The children of a node are allocated together, so they are a contiguous range of indices.
+ *
+ * Several threads can search the same tree at once. The statistics every thread updates, the visit counts, the sums of the values and
+ * the virtual losses, are kept in atomic arrays. The rest of a node's fields are written once, while it is being expanded, by the one
+ * thread that won the race to expand it. That thread then marks the node as expanded, which is an atomic write, so any thread that
+ * sees the node as expanded also sees its children.
+ *
+ * Values are the chance of winning, between 0 and 1, for the player who made the move leading to the node, so a parent picks among
+ * its children by their values directly. They are summed as fixed point {@code long}s so that they can be added atomically.
+ * @author matthewslesinski
+ *
+ */
+public class MonteCarloTree {
+
+	/** The index of the root */
+	public static final int ROOT = 0;
+
+	/** The index used to say that there is no node, such as for the parent of the root */
+	public static final int NO_NODE = -1;
+
+	/** How much a value of 1 adds to the sum of a node's values */
+	private static final long VALUE_SCALE = 1L << 20;
+
+	/** The state of a node whose children haven't been made */
+	private static final int UNEXPANDED = 0;
+
+	/** The state of a node whose children are being made by some thread */
+	private static final int EXPANDING = 1;
+
+	/** The state of a node whose children have been made. A node with no legal moves is expanded with no children */
+	private static final int EXPANDED = 2;
+
+	/** The most nodes the tree can hold */
+	private final int capacity;
+
+	/** The number of nodes allocated so far. This can go past the capacity, when an allocation fails */
+	private final AtomicInteger size = new AtomicInteger(0);
+
+	/** The parent of each node */
+	private final int[] parents;
+
+	/** The compressed move leading to each node */
+	private final int[] moves;
+
+	/** The index of the first child of each node */
+	private final int[] firstChildren;
+
+	/** The number of children of each node */
+	private final int[] childCounts;
+
+	/** How promising each node's move looked before searching it, as a fraction of its siblings' total */
+	private final float[] priors;
+
+	/** Whether each node is unexpanded, expanding, or expanded */
+	private final AtomicIntegerArray states;
+
+	/** The number of simulations that have gone through each node */
+	private final AtomicIntegerArray visits;
+
+	/** The number of simulations currently going through each node, which count as losses until they finish */
+	private final AtomicIntegerArray virtualLosses;
+
+	/** The sum of the values of the simulations that have gone through each node, in fixed point */
+	private final AtomicLongArray valueSums;
+
+	/**
+	 * Creates a tree that can hold a number of nodes
+	 * @param capacity The most nodes the tree can hold
+	 */
+	public MonteCarloTree(int capacity) {
+		if (capacity <= 0) {
+			throw new BadArgumentException(capacity, int.class, "A tree has to be able to hold at least its root");
+		}
+		this.capacity = capacity;
+		parents = new int[capacity];
+		moves = new int[capacity];
+		firstChildren = new int[capacity];
+		childCounts = new int[capacity];
+		priors = new float[capacity];
+		states = new AtomicIntegerArray(capacity);
+		visits = new AtomicIntegerArray(capacity);
+		virtualLosses = new AtomicIntegerArray(capacity);
+		valueSums = new AtomicLongArray(capacity);
+		reset();
+	}
+
+	/**
+	 * Throws away every node but a fresh root. This must not be called while any thread is searching the tree
+	 */
+	public void reset() {
+		size.set(1);
+		initializeNode(ROOT, NO_NODE, TranspositionTable.NO_MOVE, 1f);
+	}
+
+	/**
+	 * Sets up a newly allocated node, overwriting whatever an earlier search left there
+	 * @param node The node
+	 * @param parent Its parent
+	 * @param move The compressed move leading to it
+	 * @param prior How promising its move looks
+	 */
+	private void initializeNode(int node, int parent, int move, float prior) {
+		parents[node] = parent;
+		moves[node] = move;
+		firstChildren[node] = NO_NODE;
+		childCounts[node] = 0;
+		priors[node] = prior;
+		visits.set(node, 0);
+		virtualLosses.set(node, 0);
+		valueSums.set(node, 0L);
+		states.set(node, UNEXPANDED);
+	}
+
+	/**
+	 * Determines if the tree has no room for more nodes
+	 * @return true iff it's full
+	 */
+	public boolean isFull() {
+		return size.get() >= capacity;
+	}
+
+	/**
+	 * Gets the number of nodes in the tree
+	 * @return The number of nodes
+	 */
+	public int getSize() {
+		return Math.min(size.get(), capacity);
+	}
+
+	/**
+	 * Claims a node for expansion, so that no other thread expands it too
+	 * @param node The node
+	 * @return true iff this thread should expand it
+	 */
+	public boolean tryStartExpansion(int node) {
+		return states.compareAndSet(node, UNEXPANDED, EXPANDING);
+	}
+
+	/**
+	 * Allocates the children of a node being expanded
+	 * @param count The number of children
+	 * @return The index of the first child, or {@code NO_NODE} if the tree is full
+	 */
+	public int allocateChildren(int count) {
+		int first = size.getAndAdd(count);
+		return first + count <= capacity ? first : NO_NODE;
+	}
+
+	/**
+	 * Sets up one of the children of a node being expanded
+	 * @param child The child, which was allocated by {@code allocateChildren}
+	 * @param parent The node being expanded
+	 * @param move The compressed move leading to the child
+	 * @param prior How promising the move looks, as a fraction of its siblings' total
+	 */
+	public void initializeChild(int child, int parent, int move, float prior) {
+		initializeNode(child, parent, move, prior);
+	}
+
+	/**
+	 * Finishes expanding a node, which makes its children visible to every thread
+	 * @param node The node
+	 * @param firstChild The index of its first child, or {@code NO_NODE} if it has none
+	 * @param childCount The number of children
+	 */
+	public void finishExpansion(int node, int firstChild, int childCount) {
+		firstChildren[node] = firstChild;
+		childCounts[node] = childCount;
+		states.set(node, EXPANDED);
+	}
+
+	/**
+	 * Gives up on expanding a node, such as when the tree is full, so that it goes back to being a leaf
+	 * @param node The node
+	 */
+	public void abandonExpansion(int node) {
+		states.set(node, UNEXPANDED);
+	}
+
+	/**
+	 * Determines if a node's children have been made
+	 * @param node The node
+	 * @return true iff it's expanded
+	 */
+	public boolean isExpanded(int node) {
+		return states.get(node) == EXPANDED;
+	}
+
+	/**
+	 * Gets the parent of a node
+	 * @param node The node
+	 * @return The parent, or {@code NO_NODE} for the root
+	 */
+	public int getParent(int node) {
+		return parents[node];
+	}
+
+	/**
+	 * Gets the move leading to a node
+	 * @param node The node
+	 * @return The compressed move
+	 */
+	public int getMove(int node) {
+		return moves[node];
+	}
+
+	/**
+	 * Gets the first child of an expanded node
+	 * @param node The node
+	 * @return The index of the first child
+	 */
+	public int getFirstChild(int node) {
+		return firstChildren[node];
+	}
+
+	/**
+	 * Gets the number of children of an expanded node
+	 * @param node The node
+	 * @return The number of children
+	 */
+	public int getChildCount(int node) {
+		return childCounts[node];
+	}
+
+	/**
+	 * Gets how promising a node's move looked before searching it
+	 * @param node The node
+	 * @return The prior, as a fraction of its siblings' total
+	 */
+	public float getPrior(int node) {
+		return priors[node];
+	}
+
+	/**
+	 * Gets the number of simulations that have gone through a node
+	 * @param node The node
+	 * @return The number of visits
+	 */
+	public int getVisits(int node) {
+		return visits.get(node);
+	}
+
+	/**
+	 * Gets the number of simulations that have gone through a node, counting the ones still going through it
+	 * @param node The node
+	 * @return The number of visits
+	 */
+	public int getVisitsWithVirtualLosses(int node) {
+		return visits.get(node) + virtualLosses.get(node);
+	}
+
+	/**
+	 * Gets the average value of a node, counting the simulations still going through it as losses, so that other threads are steered
+	 * away from the paths already being searched
+	 * @param node The node, which must have been visited at least once
+	 * @return The average value, between 0 and 1, for the player who made the move leading to the node
+	 */
+	public double getMeanValue(int node) {
+		return (double) valueSums.get(node) / VALUE_SCALE / getVisitsWithVirtualLosses(node);
+	}
+
+	/**
+	 * Marks that a simulation is going through a node
+	 * @param node The node
+	 */
+	public void addVirtualLoss(int node) {
+		virtualLosses.incrementAndGet(node);
+	}
+
+	/**
+	 * Records the result of a simulation that went through a node, and takes away the virtual loss it added
+	 * @param node The node
+	 * @param value The result, between 0 and 1, for the player who made the move leading to the node
+	 * @param hadVirtualLoss Whether the simulation added a virtual loss to the node
+	 */
+	public void update(int node, double value, boolean hadVirtualLoss) {
+		valueSums.addAndGet(node, (long) (value * VALUE_SCALE));
+		visits.incrementAndGet(node);
+		if (hadVirtualLoss) {
+			virtualLosses.decrementAndGet(node);
+		}
+	}
+}
@@ -0,0 +1,366 @@
+package search;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import evaluation.Evaluator;
+import evaluation.Score;
+import moves.Move;
+import representation.Board;
+import static support.Constants.*;
+import static support.Constructors.*;
+
+/**
+ * An alternative to {@code AlphaBetaSearch} that uses Monte Carlo tree search. Each simulation walks down the tree from the root,
+ * picking the child with the best PUCT score, which adds to a child's average value a bonus for having a high prior and few visits.
+ * When it reaches a leaf, it expands the leaf and estimates the leaf's value with the {@code Evaluator}, squashed into a chance of
+ * winning. That value is then added to every node on the way back up. Captures and promotions get higher priors than quiet moves, so
+ * they are looked at sooner. The move played is the root's most visited child.
+ *
+ * The tree is a {@code MonteCarloTree}, an arena of primitive arrays. Several threads search it at once: each one adds a virtual loss
+ * to the nodes it walks through until its simulation finishes, so that the other threads are steered onto different paths. The
+ * search goes on until the {@code SearchLimits} say to stop, or until the arena is full. Draws by repetition and by the fifty move
+ * rule aren't detected, so positions where they matter are scored by the evaluation alone.
+ * @author matthewslesinski
+ *
+ */
+public class MonteCarloTreeSearch implements AI {
+
+	/** The limits used when none are given */
+	private static final SearchLimits DEFAULT_LIMITS = new SearchLimits.Builder().withMoveTime(COMPUTER_MOVE_TIME).withMultiPV(COMPUTER_MULTI_PV).build();
+
+	/** The number of nodes the tree can hold when no capacity is specified */
+	private static final int DEFAULT_CAPACITY = 1 << 20;
+
+	/** How much the PUCT score favors exploring children with high priors and few visits over exploiting ones with high values */
+	private static final double EXPLORATION = 1.5;
+
+	/** The number of centipawns of evaluation that make the player to move 10 times as likely to win as to lose */
+	private static final double CENTIPAWNS_PER_ODDS_DECADE = 400;
+
+	/** How many times the prior of a quiet move the prior of a capture or promotion is */
+	private static final float TACTICAL_PRIOR_WEIGHT = 3f;
+
+	/** The value of a position in which the player to move is checkmated */
+	private static final double LOSS = 0;
+
+	/** The value of a drawn position */
+	private static final double DRAW = 0.5;
+
+	/** How many simulations each thread runs between checks of whether the search has to stop. This must be a power of two */
+	private static final int LIMIT_CHECK_INTERVAL = 1 << 4;
+
+	/** The tree being searched */
+	private final MonteCarloTree tree;
+
+	/** The number of threads to search with */
+	private final int threadCount;
+
+	/** The listeners to tell about each search */
+	private final List<Consumer<SearchReport>> listeners = new LinkedList<>();
+
+	/** The furthest from the root any simulation has gone in the current search */
+	private final AtomicInteger selectiveDepth = new AtomicInteger();
+
+	/** Decides when the current search has to stop */
+	private volatile TimeManager timeManager = null;
+
+	public MonteCarloTreeSearch() {
+		this(SEARCH_THREADS, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a search that uses a number of threads and a tree of a given size
+	 * @param threadCount The number of threads, including the one that calls {@code bestMove}
+	 * @param capacity The most nodes the tree can hold
+	 */
+	public MonteCarloTreeSearch(int threadCount, int capacity) {
+		this.threadCount = threadCount;
+		this.tree = new MonteCarloTree(capacity);
+	}
+
+	@Override
+	public Move bestMove(Board board) {
+		return bestMove(board, DEFAULT_LIMITS);
+	}
+
+	@Override
+	public Move bestMove(Board board, SearchLimits limits) {
+		return search(board, limits, startTimeManager(limits));
+	}
+
+	@Override
+	public CompletableFuture<Move> startSearch(Board board, SearchLimits limits) {
+		// The manager is made before returning, so that a call to stop or ponderHit right after can't miss the search
+		TimeManager manager = startTimeManager(limits);
+		return CompletableFuture.supplyAsync(() -> search(board, limits, manager));
+	}
+
+	/**
+	 * Makes the manager for a new search, which is the one {@code stop} and {@code ponderHit} apply to from then on
+	 * @param limits The limits of the search
+	 * @return The {@code TimeManager}
+	 */
+	private TimeManager startTimeManager(SearchLimits limits) {
+		TimeManager manager = new TimeManager(limits);
+		timeManager = manager;
+		return manager;
+	}
+
+	/**
+	 * Grows a new tree from a position on every thread until the search has to stop, then reports on it
+	 * @param board The position to search
+	 * @param limits The limits of the search
+	 * @param manager Decides when the search has to stop
+	 * @return The most visited move, or null if the position has no legal moves
+	 */
+	private Move search(Board board, SearchLimits limits, TimeManager manager) {
+		// The root is shared by every thread, so its lazily calculated state has to be filled in before any of them start
+		if (board.getLegalMoves().isEmpty()) {
+			return null;
+		}
+		board.isInCheck();
+		tree.reset();
+		selectiveDepth.set(0);
+		List<Thread> helpers = new LinkedList<>();
+		for (int i = 1; i < threadCount; i++) {
+			Thread helper = new Thread(() -> runSimulations(board, manager), "Monte Carlo helper " + i);
+			helper.setDaemon(true);
+			helper.start();
+			helpers.add(helper);
+		}
+		runSimulations(board, manager);
+		for (Thread helper : helpers) {
+			try {
+				helper.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		int[] ranked = getRankedRootChildren();
+		for (int rank = 0; rank < Math.min(limits.getMultiPV(), ranked.length); rank++) {
+			SearchReport report = createReport(board, ranked[rank], rank + 1, manager.getElapsedTime());
+			for (Consumer<SearchReport> listener : listeners) {
+				listener.accept(report);
+			}
+		}
+		return MOVE_DECOMPRESSOR.apply(tree.getMove(ranked[0]));
+	}
+
+	/**
+	 * Runs simulations on one thread until the search has to stop or the tree is full
+	 * @param board The root position
+	 * @param manager Decides when the search has to stop
+	 */
+	private void runSimulations(Board board, TimeManager manager) {
+		Evaluator evaluator = EVALUATOR_CONSTRUCTOR.get();
+		long simulations = 0;
+		// The root always gets expanded, so that there is always a move to play
+		do {
+			simulate(board, evaluator);
+			simulations++;
+			if ((simulations & (LIMIT_CHECK_INTERVAL - 1)) == 0 && (manager.checkLimits(tree.getVisits(MonteCarloTree.ROOT)) || tree.isFull())) {
+				manager.stop();
+			}
+		} while (!manager.isStopped() || !tree.isExpanded(MonteCarloTree.ROOT));
+	}
+
+	/**
+	 * Runs one simulation: walks down to a leaf, expands and evaluates it, and adds its value to every node on the path
+	 * @param root The root position
+	 * @param evaluator The evaluator for this thread
+	 */
+	private void simulate(Board root, Evaluator evaluator) {
+		int node = MonteCarloTree.ROOT;
+		Board position = root;
+		int ply = 0;
+		while (tree.isExpanded(node) && tree.getChildCount(node) > 0) {
+			node = selectChild(node);
+			tree.addVirtualLoss(node);
+			position = position.performMove(MOVE_DECOMPRESSOR.apply(tree.getMove(node)));
+			ply++;
+		}
+		if (ply > selectiveDepth.get()) {
+			selectiveDepth.accumulateAndGet(ply, Math::max);
+		}
+		double value;
+		Set<Move> legalMoves = position.getLegalMoves();
+		if (legalMoves.isEmpty()) {
+			value = position.isInCheck() ? LOSS : DRAW;
+			if (tree.tryStartExpansion(node)) {
+				tree.finishExpansion(node, MonteCarloTree.NO_NODE, 0);
+			}
+		} else {
+			if (tree.tryStartExpansion(node)) {
+				expand(node, legalMoves);
+			}
+			value = evaluate(position, evaluator);
+		}
+		backpropagate(node, value);
+	}
+
+	/**
+	 * Picks the child of a node with the best PUCT score. Children that haven't been visited are assumed to be as good as their parent
+	 * @param node The node, which must have children
+	 * @return The child
+	 */
+	private int selectChild(int node) {
+		int first = tree.getFirstChild(node);
+		int end = first + tree.getChildCount(node);
+		int parentVisits = tree.getVisitsWithVirtualLosses(node);
+		double exploration = EXPLORATION * Math.sqrt(Math.max(parentVisits, 1));
+		double unvisitedValue = parentVisits > 0 ? 1 - tree.getMeanValue(node) : DRAW;
+		int best = first;
+		double bestScore = Double.NEGATIVE_INFINITY;
+		for (int child = first; child < end; child++) {
+			int visits = tree.getVisitsWithVirtualLosses(child);
+			double value = visits > 0 ? tree.getMeanValue(child) : unvisitedValue;
+			double score = value + exploration * tree.getPrior(child) / (1 + visits);
+			if (score > bestScore) {
+				bestScore = score;
+				best = child;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Makes the children of a leaf, one per legal move. If the tree is full, the leaf stays a leaf
+	 * @param node The leaf, which this thread has claimed for expansion
+	 * @param legalMoves The legal moves in the leaf's position
+	 */
+	private void expand(int node, Set<Move> legalMoves) {
+		int first = tree.allocateChildren(legalMoves.size());
+		if (first == MonteCarloTree.NO_NODE) {
+			tree.abandonExpansion(node);
+			return;
+		}
+		float totalWeight = 0;
+		for (Move move : legalMoves) {
+			totalWeight += MovePicker.isTactical(move) ? TACTICAL_PRIOR_WEIGHT : 1f;
+		}
+		int child = first;
+		for (Move move : legalMoves) {
+			float weight = MovePicker.isTactical(move) ? TACTICAL_PRIOR_WEIGHT : 1f;
+			tree.initializeChild(child++, node, move.compress(), weight / totalWeight);
+		}
+		tree.finishExpansion(node, first, legalMoves.size());
+	}
+
+	/**
+	 * Adds the value of a simulation to every node on its path
+	 * @param leaf The node the simulation ended at
+	 * @param value The value of the leaf's position, for the player to move in it
+	 */
+	private void backpropagate(int leaf, double value) {
+		// Each node's value is for the player who moved into it, which is the player not to move in its position
+		double nodeValue = 1 - value;
+		for (int node = leaf; node != MonteCarloTree.NO_NODE; node = tree.getParent(node)) {
+			tree.update(node, nodeValue, node != MonteCarloTree.ROOT);
+			nodeValue = 1 - nodeValue;
+		}
+	}
+
+	/**
+	 * Estimates the chance that the player to move wins a position, from its evaluation
+	 * @param position The position, which must not be over
+	 * @param evaluator The evaluator for this thread
+	 * @return The chance, between 0 and 1
+	 */
+	private static double evaluate(Board position, Evaluator evaluator) {
+		int evaluation = evaluator.evaluateBoard(position);
+		int centipawns = position.whoseMove().isWhite() ? evaluation : -evaluation;
+		return 1 / (1 + Math.pow(10, -centipawns / CENTIPAWNS_PER_ODDS_DECADE));
+	}
+
+	/**
+	 * Converts a chance of winning back to centipawns, the inverse of {@code evaluate}
+	 * @param value The chance, between 0 and 1
+	 * @return The score, kept short of the mate scores
+	 */
+	private static int toCentipawns(double value) {
+		double clamped = Math.min(Math.max(value, 1e-6), 1 - 1e-6);
+		int centipawns = (int) Math.round(CENTIPAWNS_PER_ODDS_DECADE * Math.log10(clamped / (1 - clamped)));
+		return Math.max(-Score.MATE_BOUND + 1, Math.min(Score.MATE_BOUND - 1, centipawns));
+	}
+
+	/**
+	 * Gets the root's children, from most visited to least visited
+	 * @return The children
+	 */
+	private int[] getRankedRootChildren() {
+		int first = tree.getFirstChild(MonteCarloTree.ROOT);
+		int count = tree.getChildCount(MonteCarloTree.ROOT);
+		Integer[] children = new Integer[count];
+		for (int i = 0; i < count; i++) {
+			children[i] = first + i;
+		}
+		Arrays.sort(children, (child1, child2) -> Integer.compare(tree.getVisits(child2), tree.getVisits(child1)));
+		return Arrays.stream(children).mapToInt(Integer::intValue).toArray();
+	}
+
+	/**
+	 * Describes the line starting with one of the root's children, which follows the most visited child from there on
+	 * @param board The root position
+	 * @param rootChild The child of the root
+	 * @param rank Where the child ranks among the root's children
+	 * @param time The number of milliseconds the search took
+	 * @return The {@code SearchReport}
+	 */
+	private SearchReport createReport(Board board, int rootChild, int rank, long time) {
+		List<Integer> line = new LinkedList<>();
+		int node = rootChild;
+		while (true) {
+			line.add(tree.getMove(node));
+			if (!tree.isExpanded(node) || tree.getChildCount(node) == 0) {
+				break;
+			}
+			int first = tree.getFirstChild(node);
+			int best = first;
+			for (int child = first + 1; child < first + tree.getChildCount(node); child++) {
+				if (tree.getVisits(child) > tree.getVisits(best)) {
+					best = child;
+				}
+			}
+			if (tree.getVisits(best) == 0) {
+				break;
+			}
+			node = best;
+		}
+		int score = tree.getVisits(rootChild) > 0 ? toCentipawns(tree.getMeanValue(rootChild)) : Score.DRAW;
+		return new SearchReport(board, line.size(), selectiveDepth.get(), rank, score, tree.getVisits(MonteCarloTree.ROOT), time,
+				line.stream().mapToInt(Integer::intValue).toArray());
+	}
+
+	@Override
+	public void newGame() {
+		tree.reset();
+	}
+
+	@Override
+	public void ponderHit() {
+		TimeManager manager = timeManager;
+		if (manager != null) {
+			manager.ponderHit();
+		}
+	}
+
+	@Override
+	public void stop() {
+		TimeManager manager = timeManager;
+		if (manager != null) {
+			manager.stop();
+		}
+	}
+
+	@Override
+	public void addProgressListener(Consumer<SearchReport> listener) {
+		listeners.add(listener);
+	}
+}
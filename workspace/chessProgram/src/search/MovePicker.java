@@ -0,0 +1,216 @@
+package search;
+
+import java.util.Set;
+
+import moves.Move;
+import representation.Board;
+import static support.Constructors.*;
+
+/**
+ * Hands out the legal moves of a position one at a time, in the order the search should try them. The moves are handed out in stages:
+ * first the move remembered by the {@code TranspositionTable}, then captures and promotions, best first, and lastly the quiet moves.
+ * Since a node often gets cut off after its first move or two, the later stages aren't even set up until they're reached, so the
+ * work of ordering moves that never get searched is skipped.
+ *
+ * A picker can also be told to skip one move entirely. That is used by the singular extension search, which has to find out how good
+ * a position is without the move the table thinks is best.
+ * @author matthewslesinski
+ *
+ */
+public class MovePicker {
+
+	/** The stages the picker goes through, in order */
+	private enum Stage {
+		HASH_MOVE,
+		GENERATE_TACTICAL_MOVES,
+		TACTICAL_MOVES,
+		GENERATE_QUIET_MOVES,
+		QUIET_MOVES,
+		DONE;
+	}
+
+	/** How much more a captured piece counts than the piece capturing it, when ordering captures by most valuable victim, least valuable attacker */
+	private static final int VICTIM_WEIGHT = 8;
+
+	/** The position whose moves are being picked */
+	private final Board board;
+
+	/** The compressed move to try before all others, or {@code TranspositionTable.NO_MOVE} */
+	private final int hashMove;
+
+	/** The compressed move that should never be handed out, or {@code TranspositionTable.NO_MOVE} */
+	private final int excludedMove;
+
+	/** If only captures and promotions should be handed out, as in the quiescence search */
+	private final boolean tacticalOnly;
+
+	/** The compressed moves of the current stage */
+	private int[] stageMoves;
+
+	/** The ordering scores of the moves of the current stage */
+	private int[] stageScores;
+
+	/** The number of moves of the current stage */
+	private int stageSize;
+
+	/** The index of the next move of the current stage to hand out */
+	private int stageIndex;
+
+	/** The stage the picker is in */
+	private Stage stage = Stage.HASH_MOVE;
+
+	/**
+	 * Creates a picker that hands out all of the legal moves of a position
+	 * @param board The position
+	 * @param hashMove The compressed move to try first, or {@code TranspositionTable.NO_MOVE}
+	 * @param excludedMove The compressed move to skip, or {@code TranspositionTable.NO_MOVE}
+	 */
+	public MovePicker(Board board, int hashMove, int excludedMove) {
+		this(board, hashMove, excludedMove, false);
+	}
+
+	/**
+	 * Creates a picker for a position
+	 * @param board The position
+	 * @param hashMove The compressed move to try first, or {@code TranspositionTable.NO_MOVE}
+	 * @param excludedMove The compressed move to skip, or {@code TranspositionTable.NO_MOVE}
+	 * @param tacticalOnly If only captures and promotions should be handed out
+	 */
+	public MovePicker(Board board, int hashMove, int excludedMove, boolean tacticalOnly) {
+		this.board = board;
+		this.hashMove = hashMove == excludedMove ? TranspositionTable.NO_MOVE : hashMove;
+		this.excludedMove = excludedMove;
+		this.tacticalOnly = tacticalOnly;
+	}
+
+	/**
+	 * Gets the next move to try
+	 * @return The {@code Move}, or null if there are no more
+	 */
+	public Move next() {
+		int compressed = nextCompressed();
+		return compressed == TranspositionTable.NO_MOVE ? null : MOVE_DECOMPRESSOR.apply(compressed);
+	}
+
+	/**
+	 * Gets the compressed form of the next move to try, moving through the stages as they run out
+	 * @return The compressed move, or {@code TranspositionTable.NO_MOVE} if there are no more
+	 */
+	private int nextCompressed() {
+		while (true) {
+			switch (stage) {
+			case HASH_MOVE:
+				stage = Stage.GENERATE_TACTICAL_MOVES;
+				if (hashMove != TranspositionTable.NO_MOVE && isLegal(hashMove)) {
+					return hashMove;
+				}
+				break;
+			case GENERATE_TACTICAL_MOVES:
+				generate(true);
+				stage = Stage.TACTICAL_MOVES;
+				break;
+			case TACTICAL_MOVES:
+				if (stageIndex < stageSize) {
+					return selectBest();
+				}
+				stage = tacticalOnly ? Stage.DONE : Stage.GENERATE_QUIET_MOVES;
+				break;
+			case GENERATE_QUIET_MOVES:
+				generate(false);
+				stage = Stage.QUIET_MOVES;
+				break;
+			case QUIET_MOVES:
+				if (stageIndex < stageSize) {
+					return stageMoves[stageIndex++];
+				}
+				stage = Stage.DONE;
+				break;
+			case DONE:
+			default:
+				return TranspositionTable.NO_MOVE;
+			}
+		}
+	}
+
+	/**
+	 * Checks if a compressed move, such as one that came from the {@code TranspositionTable}, is legal in the position. A different
+	 * position that shares a slot in the table could have left behind a move that can't be made here
+	 * @param compressed The compressed move
+	 * @return true iff it is one of the legal moves
+	 */
+	private boolean isLegal(int compressed) {
+		for (Move move : board.getLegalMoves()) {
+			if (move.compress() == compressed) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Collects the moves for the next stage, leaving out the hash move and excluded move since they are handled separately
+	 * @param tactical Whether to collect the captures and promotions, or the quiet moves
+	 */
+	private void generate(boolean tactical) {
+		Set<Move> legalMoves = board.getLegalMoves();
+		stageMoves = new int[legalMoves.size()];
+		stageScores = new int[legalMoves.size()];
+		stageSize = 0;
+		stageIndex = 0;
+		for (Move move : legalMoves) {
+			int compressed = move.compress();
+			if (isTactical(move) != tactical || compressed == hashMove || compressed == excludedMove) {
+				continue;
+			}
+			stageScores[stageSize] = tactical ? getTacticalOrderingScore(move) : 0;
+			stageMoves[stageSize++] = compressed;
+		}
+	}
+
+	/**
+	 * Finds the best scored of the moves not yet handed out in this stage and hands it out. This is a selection sort done one step
+	 * at a time, which is cheaper than sorting everything up front when the node is likely to get cut off early
+	 * @return The compressed move
+	 */
+	private int selectBest() {
+		int best = stageIndex;
+		for (int i = stageIndex + 1; i < stageSize; i++) {
+			if (stageScores[i] > stageScores[best]) {
+				best = i;
+			}
+		}
+		int bestMove = stageMoves[best];
+		int bestScore = stageScores[best];
+		stageMoves[best] = stageMoves[stageIndex];
+		stageScores[best] = stageScores[stageIndex];
+		stageMoves[stageIndex] = bestMove;
+		stageScores[stageIndex++] = bestScore;
+		return bestMove;
+	}
+
+	/**
+	 * Determines if a move changes the material on the board, which is what the quiescence search looks at
+	 * @param move The move
+	 * @return true iff it's a capture or a promotion
+	 */
+	public static boolean isTactical(Move move) {
+		return move.isCapture() || move.isPromotion();
+	}
+
+	/**
+	 * Scores a capture or promotion for ordering. Captures of valuable pieces by cheap pieces come first, and promotions count as
+	 * capturing the piece promoted to
+	 * @param move The move
+	 * @return The score, where higher is tried earlier
+	 */
+	private static int getTacticalOrderingScore(Move move) {
+		int score = -move.getMovingPieceType().ordinal();
+		if (move.isCapture()) {
+			score += VICTIM_WEIGHT * move.getCapturedPieceType().ordinal();
+		}
+		if (move.isPromotion()) {
+			score += VICTIM_WEIGHT * move.getPromotionPieceType().ordinal();
+		}
+		return score;
+	}
+}
@@ -0,0 +1,73 @@
+package search;
+
+import java.util.Arrays;
+
+/**
+ * Keeps track of the principal variation, the line of play the search expects, while a search is running. It is a triangular table:
+ * row {@code ply} holds the best line found so far starting at that ply, so it only needs the columns from {@code ply} onwards. When a
+ * move becomes the best in a position, the row for that position becomes that move followed by the row of the position it leads to.
+ * When the search finishes, row 0 is the principal variation from the root.
+ *
+ * The table is allocated once, to fit the deepest a search can go, so filling it in during the search doesn't create any objects.
+ * Every search thread needs its own table.
+ * @author matthewslesinski
+ *
+ */
+public class PrincipalVariationTable {
+
+	/** The compressed moves of each row */
+	private final int[][] moves;
+
+	/** The ply one past the end of the line in each row */
+	private final int[] ends;
+
+	/**
+	 * Creates a table that fits lines up to a maximum number of plies
+	 * @param maxPly The most plies from the root a search can go
+	 */
+	public PrincipalVariationTable(int maxPly) {
+		moves = new int[maxPly + 1][];
+		for (int ply = 0; ply <= maxPly; ply++) {
+			moves[ply] = new int[maxPly + 1];
+		}
+		ends = new int[maxPly + 2];
+	}
+
+	/**
+	 * Empties the row for a ply, which is done whenever a position at that ply starts to be searched
+	 * @param ply The ply
+	 */
+	public void clear(int ply) {
+		ends[ply] = ply;
+	}
+
+	/**
+	 * Records that a move is the best found so far at a ply, so the line for that ply becomes the move followed by the line for the
+	 * next ply
+	 * @param ply The ply the move is made from
+	 * @param move The compressed move
+	 */
+	public void update(int ply, int move) {
+		int[] row = moves[ply];
+		row[ply] = move;
+		int end = Math.max(ends[ply + 1], ply + 1);
+		System.arraycopy(moves[ply + 1], ply + 1, row, ply + 1, end - ply - 1);
+		ends[ply] = end;
+	}
+
+	/**
+	 * Gets the first move of the line from the root
+	 * @return The compressed move, or {@code TranspositionTable.NO_MOVE} if there isn't one
+	 */
+	public int getBestMove() {
+		return ends[0] > 0 ? moves[0][0] : TranspositionTable.NO_MOVE;
+	}
+
+	/**
+	 * Gets the line from the root
+	 * @return The compressed moves, in the order they would be played
+	 */
+	public int[] getPrincipalVariation() {
+		return Arrays.copyOf(moves[0], ends[0]);
+	}
+}
@@ -0,0 +1,242 @@
+package search;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+import gamePlaying.Color;
+import moves.Move;
+import representation.Board;
+
+/**
+ * Proves or disproves that the player to move in a position can force mate, using depth-first proof-number search (df-PN). Each
+ * position has a proof number, the least number of leaves that would have to be shown to be mates to prove the mate, and a disproof
+ * number, the least number that would have to be shown not to be mates to disprove it. In a position where the attacker is to move,
+ * one good move is enough, so the proof number is the least of its children's and the disproof number is the sum. Where the defender
+ * is to move, every move has to be answered, so it's the other way around.
+ *
+ * Rather than keeping the whole tree in memory, the search goes depth first, and only leaves a position once its numbers go past
+ * thresholds set by its parent, which is when some other branch has become more promising. The numbers of positions that were left
+ * are kept in a bounded {@code ProofTable}, so the memory used doesn't depend on how long the search runs.
+ *
+ * Repeating a position on the current path, or going past the ply limit, counts as failing to mate. Those results depend on the path
+ * taken, and so do the numbers of every position above them that they fed into, unless that position was proven anyway, since a
+ * proof never relies on a line failing. None of those path dependent numbers are stored in the table, so a position reached by another
+ * path is searched again rather than inheriting a disproof that only held on the first path. A disproof therefore only means there
+ * is no mate within the ply limit.
+ * @author matthewslesinski
+ *
+ */
+public class ProofNumberSearch {
+
+	/** The number of slots in the table when no size is specified */
+	private static final int DEFAULT_TABLE_SIZE = 1 << 20;
+
+	/** The most plies from the root the solver looks at when no limit is specified */
+	private static final int DEFAULT_MAX_PLY = 63;
+
+	/** The table of numbers for positions the search has left */
+	private final ProofTable table;
+
+	/** The most plies from the root the solver looks at */
+	private final int maxPly;
+
+	/** The hashcodes of the positions on the current path */
+	private final long[] path;
+
+	/** The player trying to force mate */
+	private Color attacker;
+
+	/** The most positions the current call to {@code solve} can visit */
+	private long maxNodes;
+
+	/** The number of positions visited by the current call to {@code solve} */
+	private long nodes;
+
+	/** Whether the numbers the last call to {@code search} returned depend on the path taken to its position */
+	private boolean pathDependent;
+
+	public ProofNumberSearch() {
+		this(DEFAULT_TABLE_SIZE, DEFAULT_MAX_PLY);
+	}
+
+	/**
+	 * Creates a solver with a table of a given size, which looks a given number of plies ahead
+	 * @param tableSize The number of slots in the table. This must be a power of two
+	 * @param maxPly The most plies from the root to look at
+	 */
+	public ProofNumberSearch(int tableSize, int maxPly) {
+		this.table = new ProofTable(tableSize);
+		this.maxPly = maxPly;
+		this.path = new long[maxPly + 1];
+	}
+
+	/**
+	 * Determines if the player to move in a position can force mate
+	 * @param board The position
+	 * @param maxNodes The most positions to visit before giving up
+	 * @return The {@code MateSearchResult}
+	 */
+	public MateSearchResult solve(Board board, long maxNodes) {
+		this.attacker = board.whoseMove();
+		this.maxNodes = maxNodes;
+		this.nodes = 0;
+		table.clear();
+		long entry = search(board, ProofTable.INFINITY, ProofTable.INFINITY, 0);
+		if (ProofTable.getProof(entry) == 0) {
+			return new MateSearchResult(ProofStatus.PROVEN, readLine(board), nodes);
+		}
+		if (ProofTable.getDisproof(entry) == 0) {
+			return new MateSearchResult(ProofStatus.DISPROVEN, new LinkedList<>(), nodes);
+		}
+		return new MateSearchResult(ProofStatus.UNKNOWN, new LinkedList<>(), nodes);
+	}
+
+	/**
+	 * Searches a position until it is solved, until its numbers reach the thresholds, or until the solver runs out of nodes
+	 * @param board The position
+	 * @param proofThreshold The proof number at which the parent would rather search elsewhere
+	 * @param disproofThreshold The disproof number at which the parent would rather search elsewhere
+	 * @param ply The number of plies from the root
+	 * @return The packed proof and disproof numbers of the position. Whether they depend on the path taken is left in
+	 * {@code pathDependent}
+	 */
+	private long search(Board board, int proofThreshold, int disproofThreshold, int ply) {
+		nodes++;
+		Set<Move> legalMoves = board.getLegalMoves();
+		boolean attacking = board.whoseMove() == attacker;
+		long key = board.getHashCode();
+		if (legalMoves.isEmpty()) {
+			long entry = !attacking && board.isInCheck() ? ProofTable.PROVEN_ENTRY : ProofTable.DISPROVEN_ENTRY;
+			table.store(key, entry);
+			pathDependent = false;
+			return entry;
+		}
+		if (ply >= maxPly || isOnPath(key, ply)) {
+			pathDependent = true;
+			return ProofTable.DISPROVEN_ENTRY;
+		}
+		path[ply] = key;
+		Board[] children = new Board[legalMoves.size()];
+		int[] proofs = new int[children.length];
+		int[] disproofs = new int[children.length];
+		// The numbers from the table never depend on the path, but those from searching a child might
+		boolean[] dependent = new boolean[children.length];
+		int index = 0;
+		for (Move move : legalMoves) {
+			Board child = board.performMove(move);
+			long childEntry = table.probe(child.getHashCode());
+			children[index] = child;
+			proofs[index] = ProofTable.getProof(childEntry);
+			disproofs[index++] = ProofTable.getDisproof(childEntry);
+		}
+		long entry;
+		while (true) {
+			// From the point of view of the player to move, "phi" is the number it wants to bring to 0, and "delta" is the other one
+			int[] phis = attacking ? disproofs : proofs;
+			int[] deltas = attacking ? proofs : disproofs;
+			int best = 0;
+			int secondBestDelta = ProofTable.INFINITY;
+			int phiSum = 0;
+			for (int i = 0; i < children.length; i++) {
+				phiSum = saturatingAdd(phiSum, phis[i]);
+				if (deltas[i] < deltas[best]) {
+					secondBestDelta = deltas[best];
+					best = i;
+				} else if (i != best && deltas[i] < secondBestDelta) {
+					secondBestDelta = deltas[i];
+				}
+			}
+			int delta = deltas[best];
+			entry = attacking ? ProofTable.pack(delta, phiSum) : ProofTable.pack(phiSum, delta);
+			int phiThreshold = attacking ? proofThreshold : disproofThreshold;
+			int deltaThreshold = attacking ? disproofThreshold : proofThreshold;
+			if (delta >= phiThreshold || phiSum >= deltaThreshold || nodes >= maxNodes) {
+				break;
+			}
+			int childPhiThreshold = (int) Math.min(ProofTable.INFINITY, (long) deltaThreshold - phiSum + phis[best]);
+			int childDeltaThreshold = (int) Math.min(phiThreshold, (long) secondBestDelta + 1);
+			// The child's phi is this position's delta and the other way around, since the other player is to move there
+			long childEntry = attacking
+					? search(children[best], childDeltaThreshold, childPhiThreshold, ply + 1)
+					: search(children[best], childPhiThreshold, childDeltaThreshold, ply + 1);
+			proofs[best] = ProofTable.getProof(childEntry);
+			disproofs[best] = ProofTable.getDisproof(childEntry);
+			dependent[best] = pathDependent;
+		}
+		boolean dependsOnPath = false;
+		if (ProofTable.getProof(entry) != 0) {
+			for (boolean childDependent : dependent) {
+				dependsOnPath |= childDependent;
+			}
+		}
+		if (!dependsOnPath) {
+			table.store(key, entry);
+		}
+		pathDependent = dependsOnPath;
+		return entry;
+	}
+
+	/**
+	 * Adds two proof or disproof numbers, where anything infinite stays infinite
+	 * @param a The first number
+	 * @param b The second number
+	 * @return The sum, or {@code ProofTable.INFINITY} if it would be at least that
+	 */
+	private static int saturatingAdd(int a, int b) {
+		return (int) Math.min(ProofTable.INFINITY, (long) a + b);
+	}
+
+	/**
+	 * Determines if a position repeats one on the current path. Only positions with the same player to move can be the same
+	 * @param key The hashcode of the position
+	 * @param ply The number of plies from the root
+	 * @return true iff it does
+	 */
+	private boolean isOnPath(long key, int ply) {
+		for (int i = ply - 2; i >= 0; i -= 2) {
+			if (path[i] == key) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Reads a mating line out of the table after mate has been proven. The attacker plays a move that was proven to mate, preferring
+	 * an immediate mate, and the defender plays the first move found. Neither goes back to a position already in the line, since a
+	 * move that was proven only by way of a transposition could otherwise lead the line around in a circle. If an entry along the
+	 * way was replaced in the table, the line stops short
+	 * @param root The position mate was proven in
+	 * @return The moves of the line
+	 */
+	private List<Move> readLine(Board root) {
+		List<Move> line = new LinkedList<>();
+		Board position = root;
+		path[0] = root.getHashCode();
+		while (line.size() < maxPly && !position.getLegalMoves().isEmpty()) {
+			boolean attacking = position.whoseMove() == attacker;
+			Move chosen = null;
+			for (Move move : position.getLegalMoves()) {
+				Board child = position.performMove(move);
+				if (isOnPath(child.getHashCode(), line.size() + 1)) {
+					continue;
+				}
+				boolean mates = child.getLegalMoves().isEmpty() && child.isInCheck();
+				if (mates || ProofTable.getProof(table.probe(child.getHashCode())) == 0) {
+					chosen = move;
+					if (mates || !attacking) {
+						break;
+					}
+				}
+			}
+			if (chosen == null) {
+				break;
+			}
+			line.add(chosen);
+			position = position.performMove(chosen);
+			path[line.size()] = position.getHashCode();
+		}
+		return line;
+	}
+}
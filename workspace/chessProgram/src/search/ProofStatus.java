@@ -0,0 +1,16 @@
+package search;
+
+/**
+ * Describes what a {@code ProofNumberSearch} found out about whether the player to move in a position can force mate.
+ * @author matthewslesinski
+ *
+ */
+public enum ProofStatus {
+
+	/** The player to move can force mate */
+	PROVEN,
+	/** The player to move can't force mate, at least not within the number of plies the solver looks at */
+	DISPROVEN,
+	/** The solver ran out of nodes before it could tell */
+	UNKNOWN;
+}
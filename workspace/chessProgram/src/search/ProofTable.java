@@ -0,0 +1,124 @@
+package search;
+
+import java.util.Arrays;
+
+import support.BadArgumentException;
+
+/**
+ * A fixed size table that remembers the proof and disproof numbers a {@code ProofNumberSearch} found for positions, so that the
+ * solver can use a bounded amount of memory no matter how long it runs. Each position is put in the slot given by the low bits of its
+ * hashcode, with the full hashcode alongside, like in a {@code TranspositionTable}. Both numbers are packed into one {@code long},
+ * with the proof number in the high half.
+ *
+ * The solver only uses the table as a cache, so losing an entry costs time but never correctness. When two positions want the same
+ * slot, a solved position, one whose proof or disproof number is 0, is kept over an unsolved one, since its result is final and is
+ * what lets the solver read back the mating line at the end.
+ * @author matthewslesinski
+ *
+ */
+public class ProofTable {
+
+	/** The proof or disproof number of a position that can't be proven or disproven, respectively */
+	public static final int INFINITY = Integer.MAX_VALUE;
+
+	/** What a probe returns for a position that isn't in the table: a leaf that hasn't been looked at, with both numbers 1 */
+	public static final long UNKNOWN_ENTRY = pack(1, 1);
+
+	/** The entry of a position the player to move can force mate in */
+	public static final long PROVEN_ENTRY = pack(0, INFINITY);
+
+	/** The entry of a position the player to move can't force mate in */
+	public static final long DISPROVEN_ENTRY = pack(INFINITY, 0);
+
+	/** Masks a hashcode down to an index in the table */
+	private final int indexMask;
+
+	/** The full hashcodes of the positions held in each slot */
+	private final long[] keys;
+
+	/** The packed entry for the position in each slot */
+	private final long[] entries;
+
+	/**
+	 * Creates a table with a given number of slots
+	 * @param size The number of slots. This must be a power of two
+	 */
+	public ProofTable(int size) {
+		if (Integer.bitCount(size) != 1) {
+			throw new BadArgumentException(size, int.class, "The size of a proof table must be a power of two");
+		}
+		indexMask = size - 1;
+		keys = new long[size];
+		entries = new long[size];
+		clear();
+	}
+
+	/**
+	 * Packs a proof number and a disproof number into an entry
+	 * @param proof The proof number
+	 * @param disproof The disproof number
+	 * @return The packed entry
+	 */
+	public static long pack(int proof, int disproof) {
+		return ((long) proof << Integer.SIZE) | (disproof & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Gets the proof number out of an entry
+	 * @param entry The packed entry
+	 * @return The proof number
+	 */
+	public static int getProof(long entry) {
+		return (int) (entry >>> Integer.SIZE);
+	}
+
+	/**
+	 * Gets the disproof number out of an entry
+	 * @param entry The packed entry
+	 * @return The disproof number
+	 */
+	public static int getDisproof(long entry) {
+		return (int) entry;
+	}
+
+	/**
+	 * Determines if an entry's position has been proven or disproven
+	 * @param entry The packed entry
+	 * @return true iff either number is 0
+	 */
+	public static boolean isSolved(long entry) {
+		return getProof(entry) == 0 || getDisproof(entry) == 0;
+	}
+
+	/**
+	 * Looks up a position in the table
+	 * @param key The hashcode of the position
+	 * @return The packed entry, or {@code UNKNOWN_ENTRY} if the position isn't in the table
+	 */
+	public long probe(long key) {
+		int index = (int) key & indexMask;
+		return keys[index] == key ? entries[index] : UNKNOWN_ENTRY;
+	}
+
+	/**
+	 * Records the numbers found for a position, unless that would replace a solved position with an unsolved one
+	 * @param key The hashcode of the position
+	 * @param entry The packed entry
+	 */
+	public void store(long key, long entry) {
+		int index = (int) key & indexMask;
+		if (keys[index] != key && isSolved(entries[index]) && !isSolved(entry)) {
+			return;
+		}
+		keys[index] = key;
+		entries[index] = entry;
+	}
+
+	/**
+	 * Empties the table
+	 */
+	public void clear() {
+		Arrays.fill(keys, 0L);
+		Arrays.fill(entries, UNKNOWN_ENTRY);
+	}
+}
@@ -0,0 +1,264 @@
+package search;
+
+import support.BadArgumentException;
+
+/**
+ * Describes when a search has to stop. A search can be limited by depth, by the number of positions it visits, by a fixed amount of
+ * time for the move, or by a game clock: the time remaining, the increment added after each move, and how many moves are left until
+ * the next time control. Any combination can be given, and the search stops as soon as any of them is reached. Without any limits, a
+ * search only stops when it is told to. The time related limits are turned into deadlines by a {@code TimeManager}.
+ *
+ * The limits also say how many lines the search should find. Finding more than one is only useful for analysis, since each extra line
+ * takes extra time that could have gone into searching deeper.
+ *
+ * A search can also be a ponder search, run on the opponent's time in the position expected after their reply. Then none of the limits
+ * apply until the {@code TimeManager} is told that the opponent did play the expected reply, and from then on, the limits apply as
+ * if the search had started when the pondering did.
+ * @author matthewslesinski
+ *
+ */
+public class SearchLimits {
+
+	/** The value of a limit that wasn't given */
+	public static final long UNLIMITED = Long.MAX_VALUE;
+
+	/** The number of moves to go when it isn't known how many moves are left until the next time control */
+	public static final int UNKNOWN_MOVES_TO_GO = 0;
+
+	/** The deepest iteration to search */
+	private final int maxDepth;
+
+	/** The most positions to visit */
+	private final long maxNodes;
+
+	/** The number of milliseconds to spend on the move */
+	private final long moveTime;
+
+	/** The number of milliseconds left on the clock of the player to move */
+	private final long timeRemaining;
+
+	/** The number of milliseconds added to the clock after each move */
+	private final long increment;
+
+	/** The number of moves left until the next time control */
+	private final int movesToGo;
+
+	/** The number of lines to find */
+	private final int multiPV;
+
+	/** Whether the search is a ponder search */
+	private final boolean ponder;
+
+	/**
+	 * Creates a set of limits. Use a {@code SearchLimits.Builder} to do so
+	 * @param maxDepth The deepest iteration to search
+	 * @param maxNodes The most positions to visit
+	 * @param moveTime The number of milliseconds to spend on the move
+	 * @param timeRemaining The number of milliseconds left on the clock of the player to move
+	 * @param increment The number of milliseconds added to the clock after each move
+	 * @param movesToGo The number of moves left until the next time control
+	 * @param multiPV The number of lines to find
+	 * @param ponder Whether the search is a ponder search
+	 */
+	private SearchLimits(int maxDepth, long maxNodes, long moveTime, long timeRemaining, long increment, int movesToGo, int multiPV,
+			boolean ponder) {
+		this.maxDepth = maxDepth;
+		this.maxNodes = maxNodes;
+		this.moveTime = moveTime;
+		this.timeRemaining = timeRemaining;
+		this.increment = increment;
+		this.movesToGo = movesToGo;
+		this.multiPV = multiPV;
+		this.ponder = ponder;
+	}
+
+	/**
+	 * Gets the deepest iteration to search
+	 * @return The depth, or {@code Integer.MAX_VALUE} if there's no limit
+	 */
+	public int getMaxDepth() {
+		return maxDepth;
+	}
+
+	/**
+	 * Gets the most positions to visit
+	 * @return The number of positions, or {@code UNLIMITED}
+	 */
+	public long getMaxNodes() {
+		return maxNodes;
+	}
+
+	/**
+	 * Gets the number of milliseconds to spend on the move
+	 * @return The time, or {@code UNLIMITED}
+	 */
+	public long getMoveTime() {
+		return moveTime;
+	}
+
+	/**
+	 * Gets the number of milliseconds left on the clock of the player to move
+	 * @return The time, or {@code UNLIMITED}
+	 */
+	public long getTimeRemaining() {
+		return timeRemaining;
+	}
+
+	/**
+	 * Gets the number of milliseconds added to the clock after each move
+	 * @return The time
+	 */
+	public long getIncrement() {
+		return increment;
+	}
+
+	/**
+	 * Gets the number of moves left until the next time control
+	 * @return The number of moves, or {@code UNKNOWN_MOVES_TO_GO}
+	 */
+	public int getMovesToGo() {
+		return movesToGo;
+	}
+
+	/**
+	 * Gets the number of lines to find, each with a different first move
+	 * @return The number of lines
+	 */
+	public int getMultiPV() {
+		return multiPV;
+	}
+
+	/**
+	 * Determines if the search is a ponder search, which ignores the limits until the opponent plays the expected reply
+	 * @return true iff it is
+	 */
+	public boolean isPonder() {
+		return ponder;
+	}
+
+	/**
+	 * Determines if the search has to stop after some amount of time
+	 * @return true iff there is a move time or a clock
+	 */
+	public boolean isTimed() {
+		return moveTime != UNLIMITED || timeRemaining != UNLIMITED;
+	}
+
+	@Override
+	public String toString() {
+		return "depth " + maxDepth + ", nodes " + maxNodes + ", movetime " + moveTime + ", time " + timeRemaining + ", inc " + increment
+				+ ", movestogo " + movesToGo + ", multipv " + multiPV + (ponder ? ", ponder" : "");
+	}
+
+	public static class Builder {
+
+		private int maxDepth = Integer.MAX_VALUE;
+		private long maxNodes = UNLIMITED;
+		private long moveTime = UNLIMITED;
+		private long timeRemaining = UNLIMITED;
+		private long increment = 0;
+		private int movesToGo = UNKNOWN_MOVES_TO_GO;
+		private int multiPV = 1;
+		private boolean ponder = false;
+
+		/**
+		 * Limits the search to a depth
+		 * @param maxDepthArg The deepest iteration to search, which must be positive
+		 * @return This builder
+		 */
+		public Builder withMaxDepth(int maxDepthArg) {
+			if (maxDepthArg <= 0) {
+				throw new BadArgumentException(maxDepthArg, int.class, "The depth to search to must be positive");
+			}
+			this.maxDepth = maxDepthArg;
+			return this;
+		}
+
+		/**
+		 * Limits the search to a number of positions
+		 * @param maxNodesArg The most positions to visit, which must be positive
+		 * @return This builder
+		 */
+		public Builder withMaxNodes(long maxNodesArg) {
+			if (maxNodesArg <= 0) {
+				throw new BadArgumentException(maxNodesArg, long.class, "The number of positions to search must be positive");
+			}
+			this.maxNodes = maxNodesArg;
+			return this;
+		}
+
+		/**
+		 * Limits the search to a fixed amount of time
+		 * @param moveTimeArg The number of milliseconds to spend on the move, which must be positive
+		 * @return This builder
+		 */
+		public Builder withMoveTime(long moveTimeArg) {
+			if (moveTimeArg <= 0) {
+				throw new BadArgumentException(moveTimeArg, long.class, "The time to spend on a move must be positive");
+			}
+			this.moveTime = moveTimeArg;
+			return this;
+		}
+
+		/**
+		 * Limits the search by the clock of the player to move
+		 * @param timeRemainingArg The number of milliseconds left on the clock, which can't be negative
+		 * @param incrementArg The number of milliseconds added to the clock after each move, which can't be negative
+		 * @return This builder
+		 */
+		public Builder withClock(long timeRemainingArg, long incrementArg) {
+			if (timeRemainingArg < 0) {
+				throw new BadArgumentException(timeRemainingArg, long.class, "The time left on a clock can't be negative");
+			}
+			if (incrementArg < 0) {
+				throw new BadArgumentException(incrementArg, long.class, "The increment of a clock can't be negative");
+			}
+			this.timeRemaining = timeRemainingArg;
+			this.increment = incrementArg;
+			return this;
+		}
+
+		/**
+		 * Gives the number of moves left until the next time control, which only matters with a clock
+		 * @param movesToGoArg The number of moves, which must be positive
+		 * @return This builder
+		 */
+		public Builder withMovesToGo(int movesToGoArg) {
+			if (movesToGoArg <= 0) {
+				throw new BadArgumentException(movesToGoArg, int.class, "The number of moves until the time control must be positive");
+			}
+			this.movesToGo = movesToGoArg;
+			return this;
+		}
+
+		/**
+		 * Gives the number of lines to find, each with a different first move
+		 * @param multiPVArg The number of lines, which must be positive
+		 * @return This builder
+		 */
+		public Builder withMultiPV(int multiPVArg) {
+			if (multiPVArg <= 0) {
+				throw new BadArgumentException(multiPVArg, int.class, "The number of lines to find must be positive");
+			}
+			this.multiPV = multiPVArg;
+			return this;
+		}
+
+		/**
+		 * Makes the search a ponder search, which ignores the limits until the opponent plays the expected reply
+		 * @return This builder
+		 */
+		public Builder withPonder() {
+			this.ponder = true;
+			return this;
+		}
+
+		/**
+		 * Creates the limits
+		 * @return The {@code SearchLimits}
+		 */
+		public SearchLimits build() {
+			return new SearchLimits(maxDepth, maxNodes, moveTime, timeRemaining, increment, movesToGo, multiPV, ponder);
+		}
+	}
+}
@@ -0,0 +1,190 @@
+package search;
+
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+import evaluation.Score;
+import moves.Move;
+import representation.Board;
+import stringUtilities.MoveWriter;
+import static support.Constructors.*;
+
+/**
+ * Describes what a search found after finishing one iteration: how deep it went, the score it found, how much work that took, and the
+ * principal variation, which is the line of play it expects from the root position. When the search finds more than one line, there is
+ * a report for each line, and the rank says which one it is.
+ * @author matthewslesinski
+ *
+ */
+public class SearchReport {
+
+	/** The position that was searched */
+	private final Board root;
+
+	/** The depth the iteration was started with */
+	private final int depth;
+
+	/** The furthest from the root any position was visited, including extensions and the quiescence search */
+	private final int selectiveDepth;
+
+	/** Where the line ranks among the lines the search found, starting from 1 for the best line */
+	private final int rank;
+
+	/** The score of the root position for the player to move */
+	private final int score;
+
+	/** The number of positions every searching thread has visited since the search started */
+	private final long nodes;
+
+	/** The number of milliseconds since the search started */
+	private final long time;
+
+	/** The expected line of play from the root */
+	private final List<Move> principalVariation;
+
+	/** How often the search used some of its techniques since it started */
+	private final SearchStatistics statistics;
+
+	/**
+	 * Creates a report
+	 * @param root The position that was searched
+	 * @param depth The depth the iteration was started with
+	 * @param selectiveDepth The furthest from the root any position was visited
+	 * @param rank Where the line ranks among the lines found, starting from 1 for the best line
+	 * @param score The score of the root position for the player to move
+	 * @param nodes The number of positions every searching thread has visited since the search started
+	 * @param time The number of milliseconds since the search started
+	 * @param principalVariation The compressed moves of the expected line of play
+	 */
+	public SearchReport(Board root, int depth, int selectiveDepth, int rank, int score, long nodes, long time, int[] principalVariation) {
+		this(root, depth, selectiveDepth, rank, score, nodes, time, principalVariation, new SearchStatistics());
+	}
+
+	/**
+	 * Creates a report that includes the statistics of the search
+	 * @param root The position that was searched
+	 * @param depth The depth the iteration was started with
+	 * @param selectiveDepth The furthest from the root any position was visited
+	 * @param rank Where the line ranks among the lines found, starting from 1 for the best line
+	 * @param score The score of the root position for the player to move
+	 * @param nodes The number of positions every searching thread has visited since the search started
+	 * @param time The number of milliseconds since the search started
+	 * @param principalVariation The compressed moves of the expected line of play
+	 * @param statistics How often the search used some of its techniques since it started. This should be a copy no one else changes
+	 */
+	public SearchReport(Board root, int depth, int selectiveDepth, int rank, int score, long nodes, long time, int[] principalVariation,
+			SearchStatistics statistics) {
+		this.statistics = statistics;
+		this.root = root;
+		this.depth = depth;
+		this.selectiveDepth = selectiveDepth;
+		this.rank = rank;
+		this.score = score;
+		this.nodes = nodes;
+		this.time = time;
+		List<Move> line = new LinkedList<>();
+		for (int compressed : principalVariation) {
+			line.add(MOVE_DECOMPRESSOR.apply(compressed));
+		}
+		this.principalVariation = Collections.unmodifiableList(line);
+	}
+
+	/**
+	 * Gets the position that was searched
+	 * @return The {@code Board}
+	 */
+	public Board getRoot() {
+		return root;
+	}
+
+	/**
+	 * Gets the depth the iteration was started with
+	 * @return The depth
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * Gets the furthest from the root any position was visited, including extensions and the quiescence search
+	 * @return The number of plies
+	 */
+	public int getSelectiveDepth() {
+		return selectiveDepth;
+	}
+
+	/**
+	 * Gets where the line ranks among the lines the search found
+	 * @return The rank, starting from 1 for the best line
+	 */
+	public int getRank() {
+		return rank;
+	}
+
+	/**
+	 * Gets the score of the root position for the player to move, following the conventions in {@code Score}
+	 * @return The score
+	 */
+	public int getScore() {
+		return score;
+	}
+
+	/**
+	 * Gets the number of positions every searching thread has visited since the search started
+	 * @return The number of positions
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * Gets the number of milliseconds since the search started
+	 * @return The time
+	 */
+	public long getTime() {
+		return time;
+	}
+
+	/**
+	 * Gets the expected line of play from the root
+	 * @return The {@code List} of {@code Move}s, in the order they would be played
+	 */
+	public List<Move> getPrincipalVariation() {
+		return principalVariation;
+	}
+
+	/**
+	 * Gets the move the search thinks is best
+	 * @return The {@code Move}, or null if the search didn't find one
+	 */
+	public Move getBestMove() {
+		return principalVariation.isEmpty() ? null : principalVariation.get(0);
+	}
+
+	/**
+	 * Gets how often the search used some of its techniques since it started
+	 * @return The {@code SearchStatistics}
+	 */
+	public SearchStatistics getStatistics() {
+		return statistics;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("depth ").append(depth)
+			.append(" seldepth ").append(selectiveDepth)
+			.append(" multipv ").append(rank)
+			.append(" score ").append(Score.toString(score))
+			.append(" nodes ").append(nodes)
+			.append(" time ").append(time)
+			.append(" pv");
+		Board position = root;
+		for (Move move : principalVariation) {
+			builder.append(" ").append(MoveWriter.getMoveAsStringInContext(move, position));
+			position = position.performMove(move);
+		}
+		return builder.toString();
+	}
+}
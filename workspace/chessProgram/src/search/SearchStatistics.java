@@ -0,0 +1,237 @@
+package search;
+
+import static support.Constants.*;
+
+/**
+ * Counts how often a {@code SearchWorker} used some of its techniques, and how many positions were searched because of them, so that
+ * they can be tuned.
+ * The counters only ever go up, for as long as the worker lives. A worker updates its own statistics without any synchronization, so
+ * anything that wants to look at them from another thread should take a {@code copy}. When hashes are being verified, the copies given
+ * out in reports also hold how often the shared {@code TranspositionTable}'s probes have collided.
+ * @author matthewslesinski
+ *
+ */
+public class SearchStatistics {
+
+	/** The number of positions that had no table move and were searched one ply shallower because of it */
+	private long internalIterativeReductions = 0;
+
+	/**
+	 * The number of positions visited below the positions that were reduced. This is what the reduced searches cost, not how many
+	 * positions the reductions saved. That's found by searching to the same depth with {@code USE_INTERNAL_ITERATIVE_REDUCTIONS} off
+	 * and comparing the total positions visited
+	 */
+	private long nodesBelowReductions = 0;
+
+	/** The number of positions that had no table move and were searched at a reduced depth first to find one */
+	private long internalIterativeDeepenings = 0;
+
+	/** The number of positions visited by those reduced depth searches */
+	private long internalIterativeDeepeningNodes = 0;
+
+	/** The number of times a reduced depth search found a move to try first */
+	private long internalIterativeDeepeningMovesFound = 0;
+
+	/** The number of times the move a reduced depth search found turned out to be the best move */
+	private long internalIterativeDeepeningMovesBest = 0;
+
+	/** The number of static evaluations looked up in the evaluation cache */
+	private long evaluationCacheProbes = 0;
+
+	/** The number of static evaluations found in the evaluation cache, so that the evaluator didn't have to be called */
+	private long evaluationCacheHits = 0;
+
+	/** The number of probes of the transposition table, by every worker, counted only when hashes are being verified */
+	private long tableProbes = 0;
+
+	/** The number of probes of the transposition table that found their position, counted only when hashes are being verified */
+	private long tableHits = 0;
+
+	/** The number of probes that found a different position with the same hashcode, counted only when hashes are being verified */
+	private long trueCollisions = 0;
+
+	/** The number of probes that missed in a bucket holding other positions, counted only when hashes are being verified */
+	private long indexCollisions = 0;
+
+	/**
+	 * Records that a position was searched a ply shallower because it had no table move
+	 * @param nodes The number of positions visited below it
+	 */
+	public void recordInternalIterativeReduction(long nodes) {
+		internalIterativeReductions++;
+		nodesBelowReductions += nodes;
+	}
+
+	/**
+	 * Records that a position was searched at a reduced depth to find a move to try first
+	 * @param nodes The number of positions the reduced depth search visited
+	 * @param foundMove Whether it found a move
+	 */
+	public void recordInternalIterativeDeepening(long nodes, boolean foundMove) {
+		internalIterativeDeepenings++;
+		internalIterativeDeepeningNodes += nodes;
+		if (foundMove) {
+			internalIterativeDeepeningMovesFound++;
+		}
+	}
+
+	/**
+	 * Records that the move a reduced depth search found turned out to be the best move
+	 */
+	public void recordInternalIterativeDeepeningMoveBest() {
+		internalIterativeDeepeningMovesBest++;
+	}
+
+	/**
+	 * Records a lookup in the evaluation cache
+	 * @param hit Whether the evaluation was found
+	 */
+	public void recordEvaluationCacheProbe(boolean hit) {
+		evaluationCacheProbes++;
+		if (hit) {
+			evaluationCacheHits++;
+		}
+	}
+
+	/**
+	 * Records how often the transposition table's probes have collided since it was last emptied. The table is shared by every worker,
+	 * so these are totals for the whole search rather than counts that go up with this worker's, and they're set on copies for reports
+	 * @param probes The number of probes
+	 * @param hits The number of probes that found their position
+	 * @param trueCollisions The number of probes that found a different position with the same hashcode
+	 * @param indexCollisions The number of probes that missed in a bucket holding other positions
+	 */
+	public void recordTableCollisions(long probes, long hits, long trueCollisions, long indexCollisions) {
+		this.tableProbes = probes;
+		this.tableHits = hits;
+		this.trueCollisions = trueCollisions;
+		this.indexCollisions = indexCollisions;
+	}
+
+	/**
+	 * Gets the number of positions that were searched a ply shallower because they had no table move
+	 * @return The number of positions
+	 */
+	public long getInternalIterativeReductions() {
+		return internalIterativeReductions;
+	}
+
+	/**
+	 * Gets the number of positions visited below the positions that were reduced, which is what the reduced searches cost
+	 * @return The number of positions
+	 */
+	public long getNodesBelowReductions() {
+		return nodesBelowReductions;
+	}
+
+	/**
+	 * Gets the number of positions that were searched at a reduced depth first to find a move to try first
+	 * @return The number of positions
+	 */
+	public long getInternalIterativeDeepenings() {
+		return internalIterativeDeepenings;
+	}
+
+	/**
+	 * Gets the number of positions visited by the reduced depth searches
+	 * @return The number of positions
+	 */
+	public long getInternalIterativeDeepeningNodes() {
+		return internalIterativeDeepeningNodes;
+	}
+
+	/**
+	 * Gets the number of times a reduced depth search found a move to try first
+	 * @return The number of times
+	 */
+	public long getInternalIterativeDeepeningMovesFound() {
+		return internalIterativeDeepeningMovesFound;
+	}
+
+	/**
+	 * Gets the number of times the move a reduced depth search found turned out to be the best move
+	 * @return The number of times
+	 */
+	public long getInternalIterativeDeepeningMovesBest() {
+		return internalIterativeDeepeningMovesBest;
+	}
+
+	/**
+	 * Gets the number of static evaluations looked up in the evaluation cache
+	 * @return The number of lookups
+	 */
+	public long getEvaluationCacheProbes() {
+		return evaluationCacheProbes;
+	}
+
+	/**
+	 * Gets the number of static evaluations found in the evaluation cache
+	 * @return The number of hits
+	 */
+	public long getEvaluationCacheHits() {
+		return evaluationCacheHits;
+	}
+
+	/**
+	 * Gets the number of probes of the transposition table
+	 * @return The number of probes, which is 0 unless hashes are being verified
+	 */
+	public long getTableProbes() {
+		return tableProbes;
+	}
+
+	/**
+	 * Gets the number of probes of the transposition table that found their position
+	 * @return The number of hits, which is 0 unless hashes are being verified
+	 */
+	public long getTableHits() {
+		return tableHits;
+	}
+
+	/**
+	 * Gets the number of probes that found a different position with the same hashcode
+	 * @return The number of collisions, which is 0 unless hashes are being verified
+	 */
+	public long getTrueCollisions() {
+		return trueCollisions;
+	}
+
+	/**
+	 * Gets the number of probes that missed in a bucket holding other positions
+	 * @return The number of collisions, which is 0 unless hashes are being verified
+	 */
+	public long getIndexCollisions() {
+		return indexCollisions;
+	}
+
+	/**
+	 * Makes a snapshot of these statistics, which is safe to hand to another thread
+	 * @return The copy
+	 */
+	public SearchStatistics copy() {
+		SearchStatistics copy = new SearchStatistics();
+		copy.internalIterativeReductions = internalIterativeReductions;
+		copy.nodesBelowReductions = nodesBelowReductions;
+		copy.internalIterativeDeepenings = internalIterativeDeepenings;
+		copy.internalIterativeDeepeningNodes = internalIterativeDeepeningNodes;
+		copy.internalIterativeDeepeningMovesFound = internalIterativeDeepeningMovesFound;
+		copy.internalIterativeDeepeningMovesBest = internalIterativeDeepeningMovesBest;
+		copy.evaluationCacheProbes = evaluationCacheProbes;
+		copy.evaluationCacheHits = evaluationCacheHits;
+		copy.recordTableCollisions(tableProbes, tableHits, trueCollisions, indexCollisions);
+		return copy;
+	}
+
+	@Override
+	public String toString() {
+		String counts = "iir " + internalIterativeReductions + " iirbelow " + nodesBelowReductions
+				+ " iid " + internalIterativeDeepenings + " iidnodes " + internalIterativeDeepeningNodes
+				+ " iidfound " + internalIterativeDeepeningMovesFound + " iidbest " + internalIterativeDeepeningMovesBest
+				+ " evalprobes " + evaluationCacheProbes + " evalhits " + evaluationCacheHits;
+		if (VERIFY_HASHES) {
+			counts += " ttprobes " + tableProbes + " tthits " + tableHits + " truecollisions " + trueCollisions
+					+ " indexcollisions " + indexCollisions;
+		}
+		return counts;
+	}
+}
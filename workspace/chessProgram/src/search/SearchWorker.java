@@ -0,0 +1,667 @@
+package search;
+
+import java.util.Arrays;
+import java.util.Set;
+
+import evaluation.Evaluator;
+import evaluation.MaterialTable;
+import evaluation.Score;
+import moves.Move;
+import representation.Board;
+import static support.Constants.*;
+import static support.Constructors.*;
+
+/**
+ * Does the actual work of an alpha-beta search from a root position. The search is written in the negamax form, so every score is
+ * from the point of view of the player to move in the position it belongs to. A worker keeps all the state it needs while searching,
+ * and only shares the {@code TranspositionTable} with the rest of the program.
+ *
+ * On top of the plain alpha-beta algorithm, the worker extends the search by a ply in two cases. The first is after a move that gives
+ * check, since checks are forcing and often lead to something decisive just past the horizon. The second is for a singular move: when
+ * the table says one move is good, and a reduced depth search that leaves that move out shows every other move is clearly worse, the
+ * position depends on that one move, so it is worth looking at more closely.
+ *
+ * Scores are {@code int}s following the conventions in {@code Score}, so mates are scored by their distance from the root. That
+ * allows mate distance pruning: once a mate has been found, a branch that can't possibly lead to a quicker mate isn't searched.
+ *
+ * Draws by repetition and by the fifty move rule are found using a stack of the hashcodes of the positions leading to the one being
+ * searched, starting with the positions played in the game before the root. A position can only repeat one that came after the last
+ * capture or pawn move, by the same player to move, so only every other hashcode back to that point has to be compared. Within the
+ * search, a position repeating once is treated as a draw, since whichever side could avoid the repetition would have done so already.
+ * A position where neither side has enough material left to mate is a draw too, which the global {@code MaterialTable} says in one probe.
+ *
+ * While searching, the worker fills in a {@code PrincipalVariationTable} with the line it expects. A position whose score comes
+ * straight from the table has no line of its own, so the line stops there, and once the search is done, it's lengthened with the
+ * table's moves, for as long as they're legal and don't repeat a position. Each iteration, the moves of the previous iteration's line
+ * are tried first along that line, since they are the best guesses the worker has.
+ *
+ * A worker can find more than one line at a time, for analysis. Each iteration then searches the root once per line, leaving out the
+ * first moves of the lines already found, so the lines come out ranked from best to worst. The table is shared by all of them, so
+ * after the first line, most positions have already been searched and the later lines cost much less.
+ *
+ * Every {@code LIMIT_CHECK_INTERVAL} positions, the worker asks its {@code TimeManager} whether the search has to stop. If so, the
+ * iteration is abandoned: every call returns right away without touching the table or the line, and the results of the last finished
+ * iteration stand. The hard deadline doesn't cut off the first iteration, so that there is a move to play when time runs out, but the
+ * position limit and a call to {@code stop} do.
+ *
+ * A position with no move in the table has nothing to guide the order its moves are tried in, which makes it expensive to search.
+ * Since the table hasn't seen the position, it's also less likely to matter. So by default, such a position is searched a ply
+ * shallower, which is an internal iterative reduction. The next time it comes up, there will be a move in the table. Alternatively,
+ * with internal iterative deepening, the position is first searched at a reduced depth just to find a move to try first, and either
+ * can be turned off. How often each happens, and what it costs, is counted in the worker's {@code SearchStatistics}.
+ *
+ * Static evaluations are looked up in an {@code EvaluationCache} shared with the other workers before the evaluator is called, since
+ * the same positions get evaluated over and over, by transpositions, by later iterations, and by the quiescence search.
+ * @author matthewslesinski
+ *
+ */
+public class SearchWorker {
+
+	/** The furthest from the root the search can go, no matter how many extensions are made */
+	static final int MAX_PLY = 64;
+
+	/** How many positions are visited between checks of whether the search has to stop. This must be a power of two */
+	private static final int LIMIT_CHECK_INTERVAL = 1 << 8;
+
+	/** The shallowest depth at which singular extensions are tried. Shallower than this and the extra search costs more than it finds */
+	private static final int SINGULAR_EXTENSION_MIN_DEPTH = 4;
+
+	/** How much shallower than the current depth the table's entry can be and still be trusted for a singular extension */
+	private static final int SINGULAR_EXTENSION_DEPTH_MARGIN = 3;
+
+	/** How far, in centipawns per ply of depth, every other move must fall below the table's score for its move to count as singular */
+	private static final int SINGULAR_EXTENSION_MARGIN_PER_PLY = 5;
+
+	/** The shallowest depth at which a position with no table move is reduced, or searched first to find a move */
+	private static final int INTERNAL_ITERATIVE_MIN_DEPTH = 4;
+
+	/** How much shallower than the current depth internal iterative deepening searches to find a move */
+	private static final int INTERNAL_ITERATIVE_DEEPENING_REDUCTION = 2;
+
+	/** The table shared with the rest of the search */
+	private final TranspositionTable table;
+
+	/** Decides when the search has to stop */
+	private final TimeManager timeManager;
+
+	/** Estimates who is winning in positions where the search stops */
+	private final Evaluator evaluator = EVALUATOR_CONSTRUCTOR.get();
+
+	/** Remembers the evaluator's results, shared with the rest of the search */
+	private final EvaluationCache evaluationCache;
+
+	/** The expected line of play found in the current iteration */
+	private final PrincipalVariationTable principalVariation = new PrincipalVariationTable(MAX_PLY);
+
+	/** The number of lines to find */
+	private final int lineCount;
+
+	/** The expected lines of play found in the last finished iteration, from best to worst */
+	private int[][] principalVariations;
+
+	/** The scores of the lines found in the last finished iteration */
+	private int[] scores;
+
+	/** The expected line of play found in the previous iteration, for the line currently being searched */
+	private int[] previousPrincipalVariation = new int[0];
+
+	/** The first moves of the lines already found in the current iteration, which are left out at the root */
+	private final int[] rootExclusions;
+
+	/** The number of moves in {@code rootExclusions} that are currently left out */
+	private int rootExclusionCount = 0;
+
+	/** The compressed moves leading from the root to the position being searched */
+	private final int[] currentLine = new int[MAX_PLY + 1];
+
+	/** The hashcodes of the positions leading to the position being searched, including the ones played before the root */
+	private final long[] keyHistory = new long[FIFTY_MOVE_RULE_PLIES + MAX_PLY + 1];
+
+	/** The index in {@code keyHistory} of the root's hashcode */
+	private int rootHistoryIndex;
+
+	/** The depth the current iteration was started with */
+	private int rootDepth;
+
+	/** The furthest from the root any position was visited in the current iteration */
+	private int selectiveDepth;
+
+	/** The number of positions visited so far */
+	private long nodes = 0;
+
+	/** The number of positions visited that have been added to the time manager's total, which is shared with the other workers */
+	private long reportedNodes = 0;
+
+	/** Whether the current iteration was abandoned because the search has to stop */
+	private boolean aborted = false;
+
+	/** Counts how often the worker used some of its techniques */
+	private final SearchStatistics statistics = new SearchStatistics();
+
+	/**
+	 * Creates a worker that searches using a table
+	 * @param table The table to read from and record results in
+	 * @param evaluationCache The cache to look up static evaluations in before calling the evaluator
+	 * @param timeManager Decides when the search has to stop
+	 * @param lineCount The number of lines to find
+	 */
+	public SearchWorker(TranspositionTable table, EvaluationCache evaluationCache, TimeManager timeManager, int lineCount) {
+		this.table = table;
+		this.evaluationCache = evaluationCache;
+		this.timeManager = timeManager;
+		this.lineCount = lineCount;
+		this.principalVariations = new int[lineCount][0];
+		this.scores = new int[lineCount];
+		this.rootExclusions = new int[lineCount];
+	}
+
+	/**
+	 * Searches a position to a given depth, which finds the best moves in it and the lines of play expected after them. If there are
+	 * fewer legal moves than lines to find, only as many lines as there are moves are found
+	 * @param board The position to search
+	 * @param depth The number of plies to search, not counting extensions or the quiescence search
+	 * @return The score of the best line for the player to move, which is meaningless if the iteration was abandoned
+	 */
+	public int searchRoot(Board board, int depth) {
+		rootDepth = depth;
+		selectiveDepth = 0;
+		initializeKeyHistory(board);
+		int lines = Math.min(lineCount, board.getLegalMoves().size());
+		int[][] newPrincipalVariations = new int[lines][];
+		int[] newScores = new int[lines];
+		for (int line = 0; line < lines; line++) {
+			rootExclusionCount = line;
+			previousPrincipalVariation = line < principalVariations.length ? principalVariations[line] : new int[0];
+			newScores[line] = search(board, -Score.INFINITE, Score.INFINITE, depth, 0, TranspositionTable.NO_MOVE);
+			if (aborted) {
+				return newScores[0];
+			}
+			newPrincipalVariations[line] = extendFromTable(board, principalVariation.getPrincipalVariation());
+			rootExclusions[line] = principalVariation.getBestMove();
+		}
+		rootExclusionCount = 0;
+		principalVariations = newPrincipalVariations;
+		scores = newScores;
+		// The positions since the last check are added now, so the total is up to date for reporting the iteration
+		timeManager.addNodes(nodes - reportedNodes);
+		reportedNodes = nodes;
+		return scores[0];
+	}
+
+	/**
+	 * Lengthens a line past where the search's line ended by following the table's best moves. The table's moves are followed until
+	 * the table has no move, its move isn't legal, a position on the line or one played before the root comes up again, or the line is
+	 * {@code MAX_PLY} long
+	 * @param root The position the line starts from
+	 * @param line The compressed moves of the line the search found
+	 * @return The lengthened line
+	 */
+	private int[] extendFromTable(Board root, int[] line) {
+		if (line.length >= MAX_PLY) {
+			return line;
+		}
+		long[] keys = new long[MAX_PLY + 1];
+		int[] extended = Arrays.copyOf(line, MAX_PLY);
+		Board position = root;
+		keys[0] = root.getHashCode();
+		for (int ply = 0; ply < line.length; ply++) {
+			position = position.performMove(findLegalMove(position, line[ply]));
+			keys[ply + 1] = position.getHashCode();
+		}
+		int length = line.length;
+		// A line that ends in a repetition ends there because it's a draw, so there's nothing to add
+		if (length > 0 && isOnLine(keys[length], keys, length - 1)) {
+			return line;
+		}
+		while (length < MAX_PLY) {
+			int compressed = TranspositionTable.getMove(table.probe(keys[length], TranspositionTable.getVerificationKey(position)));
+			Move move = findLegalMove(position, compressed);
+			if (move == null) {
+				break;
+			}
+			position = position.performMove(move);
+			long key = position.getHashCode();
+			if (isOnLine(key, keys, length)) {
+				break;
+			}
+			extended[length++] = compressed;
+			keys[length] = key;
+		}
+		return Arrays.copyOf(extended, length);
+	}
+
+	/**
+	 * Determines if a position is one on a line being lengthened, or one played before the root
+	 * @param key The hashcode of the position
+	 * @param keys The hashcodes of the positions on the line, starting with the root
+	 * @param length The number of moves on the line
+	 * @return true iff the position came up already
+	 */
+	private boolean isOnLine(long key, long[] keys, int length) {
+		for (int ply = 0; ply <= length; ply++) {
+			if (keys[ply] == key) {
+				return true;
+			}
+		}
+		for (int index = 0; index < rootHistoryIndex; index++) {
+			if (keyHistory[index] == key) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Finds the legal move in a position that a compressed move stands for
+	 * @param board The position
+	 * @param compressed The compressed move
+	 * @return The {@code Move}, or null if none of the legal moves compresses to it
+	 */
+	static Move findLegalMove(Board board, int compressed) {
+		if (compressed == TranspositionTable.NO_MOVE) {
+			return null;
+		}
+		for (Move move : board.getLegalMoves()) {
+			if (move.compress() == compressed) {
+				return move;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Fills in the start of the hashcode stack with the positions played before the root, going back only as far as the last
+	 * capture or pawn move, since no position before that can be repeated
+	 * @param root The position being searched
+	 */
+	private void initializeKeyHistory(Board root) {
+		int count = Math.min(root.pliesSinceLastIrreversibleChange(), FIFTY_MOVE_RULE_PLIES);
+		Board position = root;
+		int index = count;
+		keyHistory[index] = position.getHashCode();
+		while (index > 0 && (position = position.getPreviousPosition()) != null) {
+			keyHistory[--index] = position.getHashCode();
+		}
+		// If the game started partway through, there may be fewer earlier positions than the count says
+		if (index > 0) {
+			System.arraycopy(keyHistory, index, keyHistory, 0, count - index + 1);
+			count -= index;
+		}
+		rootHistoryIndex = count;
+	}
+
+	/**
+	 * Determines if the last call to {@code searchRoot} was abandoned because the search has to stop
+	 * @return true iff it was
+	 */
+	public boolean isAborted() {
+		return aborted;
+	}
+
+	/**
+	 * Gets the best expected line of play found by the last finished call to {@code searchRoot}
+	 * @return The compressed moves, in the order they would be played
+	 */
+	public int[] getPrincipalVariation() {
+		return getPrincipalVariation(0);
+	}
+
+	/**
+	 * Gets one of the expected lines of play found by the last finished call to {@code searchRoot}
+	 * @param line The rank of the line, starting from 0 for the best line
+	 * @return The compressed moves, in the order they would be played
+	 */
+	public int[] getPrincipalVariation(int line) {
+		return principalVariations[line];
+	}
+
+	/**
+	 * Gets the score of one of the lines found by the last finished call to {@code searchRoot}
+	 * @param line The rank of the line, starting from 0 for the best line
+	 * @return The score for the player to move
+	 */
+	public int getScore(int line) {
+		return scores[line];
+	}
+
+	/**
+	 * Gets the number of lines found by the last finished call to {@code searchRoot}
+	 * @return The number of lines
+	 */
+	public int getLineCount() {
+		return principalVariations.length;
+	}
+
+	/**
+	 * Gets the furthest from the root any position was visited in the last call to {@code searchRoot}
+	 * @return The number of plies
+	 */
+	public int getSelectiveDepth() {
+		return selectiveDepth;
+	}
+
+	/**
+	 * Gets the number of positions this worker has visited
+	 * @return The number of positions
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * Gets the counts of how often this worker used some of its techniques, over all of its searches. These are updated while
+	 * searching, so another thread should only look at a copy
+	 * @return The {@code SearchStatistics}
+	 */
+	public SearchStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * Searches a position with alpha-beta pruning, consulting and updating the table as it goes
+	 * @param board The position
+	 * @param alpha The score the player to move is already guaranteed elsewhere
+	 * @param beta The score the opponent is already guaranteed elsewhere, so anything at or above it won't be allowed
+	 * @param depth The number of plies left to search
+	 * @param ply The number of plies from the root
+	 * @param excludedMove The compressed move to leave out of the search, or {@code TranspositionTable.NO_MOVE}
+	 * @return The score of the position for the player to move
+	 */
+	private int search(Board board, int alpha, int beta, int depth, int ply, int excludedMove) {
+		if (depth <= 0) {
+			return quiescence(board, alpha, beta, ply);
+		}
+		if (shouldStop()) {
+			return 0;
+		}
+		principalVariation.clear(ply);
+		selectiveDepth = Math.max(selectiveDepth, ply);
+		long key = board.getHashCode();
+		long verificationKey = TranspositionTable.getVerificationKey(board);
+		keyHistory[rootHistoryIndex + ply] = key;
+		if (ply > 0 && isRepetition(key, ply, board.pliesSinceLastIrreversibleChange())) {
+			return Score.DRAW;
+		}
+		Set<Move> legalMoves = board.getLegalMoves();
+		if (legalMoves.isEmpty()) {
+			return board.isInCheck() ? Score.matedIn(ply) : Score.DRAW;
+		}
+		if (ply > 0 && (board.pliesSinceLastIrreversibleChange() >= FIFTY_MOVE_RULE_PLIES
+				|| MaterialTable.getGlobalTable().probe(board).isInsufficientMaterial())) {
+			return Score.DRAW;
+		}
+		if (ply >= MAX_PLY) {
+			return evaluate(board);
+		}
+		if (ply > 0) {
+			// Neither side can do better than mating right away, or worse than getting mated right away, so if that range doesn't
+			// overlap the window, the result of this branch is already known
+			alpha = Math.max(alpha, Score.matedIn(ply));
+			beta = Math.min(beta, Score.mateIn(ply + 1));
+			if (alpha >= beta) {
+				return alpha;
+			}
+		}
+		// A search that leaves out a move is only asking a question about the position, so its answer doesn't belong in the table
+		long entry = excludedMove == TranspositionTable.NO_MOVE ? table.probe(key, verificationKey) : TranspositionTable.NO_ENTRY;
+		int hashMove = TranspositionTable.getMove(entry);
+		if (ply > 0 && TranspositionTable.isPresent(entry) && TranspositionTable.getDepth(entry) >= depth) {
+			int storedScore = TranspositionTable.getScore(entry, ply);
+			BoundType bound = TranspositionTable.getBound(entry);
+			if (bound == BoundType.EXACT || (bound.isLowerBound() && storedScore >= beta) || (bound.isUpperBound() && storedScore <= alpha)) {
+				return storedScore;
+			}
+		}
+		long nodesBeforeReduction = -1;
+		int internalIterativeMove = TranspositionTable.NO_MOVE;
+		if (ply > 0 && excludedMove == TranspositionTable.NO_MOVE && hashMove == TranspositionTable.NO_MOVE
+				&& depth >= INTERNAL_ITERATIVE_MIN_DEPTH) {
+			if (USE_INTERNAL_ITERATIVE_DEEPENING) {
+				long nodesBefore = nodes;
+				search(board, alpha, beta, depth - INTERNAL_ITERATIVE_DEEPENING_REDUCTION, ply, TranspositionTable.NO_MOVE);
+				if (aborted) {
+					return 0;
+				}
+				hashMove = TranspositionTable.getMove(table.probe(key, verificationKey));
+				internalIterativeMove = hashMove;
+				statistics.recordInternalIterativeDeepening(nodes - nodesBefore, hashMove != TranspositionTable.NO_MOVE);
+				principalVariation.clear(ply);
+			} else if (USE_INTERNAL_ITERATIVE_REDUCTIONS) {
+				depth--;
+				nodesBeforeReduction = nodes;
+			}
+		}
+		int singularMove = TranspositionTable.NO_MOVE;
+		if (ply > 0 && isSingularExtensionCandidate(entry, depth)) {
+			int singularBeta = TranspositionTable.getScore(entry, ply) - SINGULAR_EXTENSION_MARGIN_PER_PLY * depth;
+			int score = search(board, singularBeta - 1, singularBeta, (depth - 1) / 2, ply, hashMove);
+			if (aborted) {
+				return 0;
+			}
+			if (score < singularBeta) {
+				singularMove = hashMove;
+			}
+			// The line the test found leaves out the best move, so it isn't the line from this position
+			principalVariation.clear(ply);
+		}
+		int principalVariationMove = getPreviousPrincipalVariationMove(ply);
+		MovePicker picker = new MovePicker(board, principalVariationMove != TranspositionTable.NO_MOVE ? principalVariationMove : hashMove, excludedMove);
+		int bestScore = -Score.INFINITE;
+		int bestMove = TranspositionTable.NO_MOVE;
+		boolean searchedAny = false;
+		Move move;
+		while ((move = picker.next()) != null) {
+			int compressed = move.compress();
+			if (ply == 0 && isExcludedAtRoot(compressed)) {
+				continue;
+			}
+			Board child = board.performMove(move);
+			searchedAny = true;
+			currentLine[ply] = compressed;
+			int extension = ply < 2 * rootDepth && (compressed == singularMove || child.isInCheck()) ? 1 : 0;
+			int score = -search(child, -beta, -alpha, depth - 1 + extension, ply + 1, TranspositionTable.NO_MOVE);
+			if (aborted) {
+				return 0;
+			}
+			if (score > bestScore) {
+				bestScore = score;
+				if (score > alpha) {
+					alpha = score;
+					bestMove = compressed;
+					principalVariation.update(ply, compressed);
+					if (alpha >= beta) {
+						break;
+					}
+				}
+			}
+		}
+		if (!searchedAny) {
+			// The excluded move was the only legal move, so the rest of the moves can't do any better than alpha
+			return alpha;
+		}
+		if (nodesBeforeReduction >= 0) {
+			statistics.recordInternalIterativeReduction(nodes - nodesBeforeReduction);
+		}
+		if (internalIterativeMove != TranspositionTable.NO_MOVE && bestMove == internalIterativeMove) {
+			statistics.recordInternalIterativeDeepeningMoveBest();
+		}
+		// With moves left out at the root, the root's result isn't the real result for its position
+		if (excludedMove == TranspositionTable.NO_MOVE && (ply > 0 || rootExclusionCount == 0)) {
+			BoundType bound = bestScore >= beta ? BoundType.LOWER : bestMove != TranspositionTable.NO_MOVE ? BoundType.EXACT : BoundType.UPPER;
+			table.store(key, verificationKey, bestMove, bestScore, depth, bound, ply);
+		}
+		return bestScore;
+	}
+
+	/**
+	 * Determines if a root move is the first move of a line already found in the current iteration
+	 * @param move The compressed move
+	 * @return true iff the move should be left out
+	 */
+	private boolean isExcludedAtRoot(int move) {
+		for (int i = 0; i < rootExclusionCount; i++) {
+			if (rootExclusions[i] == move) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Determines if a position repeats one that leads to it. Only positions with the same player to move, and since the last capture or
+	 * pawn move, can be the same, so only every other hashcode back to there is compared
+	 * @param key The hashcode of the position
+	 * @param ply The number of plies from the root
+	 * @param pliesSinceIrreversibleChange The number of plies since the last capture or pawn move
+	 * @return true iff the position has come up before
+	 */
+	private boolean isRepetition(long key, int ply, int pliesSinceIrreversibleChange) {
+		int index = rootHistoryIndex + ply;
+		int limit = Math.min(pliesSinceIrreversibleChange, index);
+		// A position can't repeat the one two plies before it, since that would take a move that does nothing
+		for (int back = 4; back <= limit; back += 2) {
+			if (keyHistory[index - back] == key) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Counts a visited position, and every {@code LIMIT_CHECK_INTERVAL} positions, adds the positions visited since the last check to
+	 * the time manager's total and checks if the search has to stop. Once it does, the rest of the iteration is abandoned. The hard
+	 * deadline doesn't apply to the first iteration, so that the search always has a move to give when it runs out of time
+	 * @return true iff the iteration has been abandoned
+	 */
+	private boolean shouldStop() {
+		nodes++;
+		if (!aborted && (nodes & (LIMIT_CHECK_INTERVAL - 1)) == 0) {
+			aborted = timeManager.addNodesAndCheckLimits(nodes - reportedNodes, rootDepth > 1);
+			reportedNodes = nodes;
+		}
+		return aborted;
+	}
+
+	/**
+	 * Gets the move the previous iteration's line has at a ply, if the position being searched is on that line
+	 * @param ply The number of plies from the root
+	 * @return The compressed move, or {@code TranspositionTable.NO_MOVE} if the position isn't on the line
+	 */
+	private int getPreviousPrincipalVariationMove(int ply) {
+		if (ply >= previousPrincipalVariation.length) {
+			return TranspositionTable.NO_MOVE;
+		}
+		for (int i = 0; i < ply; i++) {
+			if (currentLine[i] != previousPrincipalVariation[i]) {
+				return TranspositionTable.NO_MOVE;
+			}
+		}
+		return previousPrincipalVariation[ply];
+	}
+
+	/**
+	 * Determines if the table's entry for a position is trustworthy enough to test whether its move is singular. The entry needs a
+	 * move, a score that the real score is at least as good as, and a depth not much shallower than the current one
+	 * @param entry The packed table entry for the position
+	 * @param depth The number of plies left to search
+	 * @return true iff a singular extension search should be done
+	 */
+	private boolean isSingularExtensionCandidate(long entry, int depth) {
+		return depth >= SINGULAR_EXTENSION_MIN_DEPTH
+				&& TranspositionTable.getMove(entry) != TranspositionTable.NO_MOVE
+				&& TranspositionTable.getBound(entry).isLowerBound()
+				&& TranspositionTable.getDepth(entry) >= depth - SINGULAR_EXTENSION_DEPTH_MARGIN
+				&& !Score.isMate(TranspositionTable.getScore(entry, 0));
+	}
+
+	/**
+	 * Searches only captures and promotions until the position is quiet, so that the evaluation isn't taken in the middle of an
+	 * exchange. The player to move can always decline to capture, so the static evaluation is a lower bound on the score. When in
+	 * check, all moves are searched, since declining isn't an option
+	 * @param board The position
+	 * @param alpha The score the player to move is already guaranteed elsewhere
+	 * @param beta The score the opponent is already guaranteed elsewhere
+	 * @param ply The number of plies from the root
+	 * @return The score of the position for the player to move
+	 */
+	private int quiescence(Board board, int alpha, int beta, int ply) {
+		if (shouldStop()) {
+			return 0;
+		}
+		principalVariation.clear(ply);
+		selectiveDepth = Math.max(selectiveDepth, ply);
+		Set<Move> legalMoves = board.getLegalMoves();
+		boolean inCheck = board.isInCheck();
+		if (legalMoves.isEmpty()) {
+			return inCheck ? Score.matedIn(ply) : Score.DRAW;
+		}
+		if (ply >= MAX_PLY) {
+			return evaluate(board);
+		}
+		int bestScore = Score.matedIn(ply);
+		if (!inCheck) {
+			bestScore = evaluate(board, alpha, beta);
+			if (bestScore >= beta) {
+				return bestScore;
+			}
+			alpha = Math.max(alpha, bestScore);
+		}
+		MovePicker picker = new MovePicker(board, TranspositionTable.NO_MOVE, TranspositionTable.NO_MOVE, !inCheck);
+		Move move;
+		while ((move = picker.next()) != null) {
+			int score = -quiescence(board.performMove(move), -beta, -alpha, ply + 1);
+			if (aborted) {
+				return 0;
+			}
+			if (score > bestScore) {
+				bestScore = score;
+				if (score > alpha) {
+					alpha = score;
+					principalVariation.update(ply, move.compress());
+					if (alpha >= beta) {
+						break;
+					}
+				}
+			}
+		}
+		return bestScore;
+	}
+
+	/**
+	 * Gets the static evaluation of a position from the point of view of the player to move, from the evaluation cache if it's there
+	 * @param board The position, which must not be over
+	 * @return The evaluation, in centipawns
+	 */
+	private int evaluate(Board board) {
+		return evaluate(board, -Score.INFINITE, Score.INFINITE);
+	}
+
+	/**
+	 * Gets the static evaluation of a position from the point of view of the player to move, from the evaluation cache if it's there,
+	 * but only as precisely as is needed to compare it to a window. An evaluation outside the window may have been cut short by the
+	 * evaluator, so only evaluations inside it are stored in the cache
+	 * @param board The position, which must not be over
+	 * @param alpha The bottom of the window
+	 * @param beta The top of the window
+	 * @return The evaluation, in centipawns. If it's at most alpha or at least beta, the full evaluation is too
+	 */
+	private int evaluate(Board board, int alpha, int beta) {
+		long key = board.getHashCode();
+		long entry = evaluationCache.probe(key);
+		boolean hit = EvaluationCache.isPresent(entry);
+		boolean white = board.whoseMove().isWhite();
+		int evaluation;
+		if (hit) {
+			evaluation = EvaluationCache.getEvaluation(entry);
+		} else {
+			int lowerBound = white ? alpha : -beta;
+			int upperBound = white ? beta : -alpha;
+			evaluation = evaluator.evaluateBoard(board, lowerBound, upperBound);
+			if (evaluation > lowerBound && evaluation < upperBound) {
+				evaluationCache.store(key, evaluation);
+			}
+		}
+		statistics.recordEvaluationCacheProbe(hit);
+		return white ? evaluation : -evaluation;
+	}
+}
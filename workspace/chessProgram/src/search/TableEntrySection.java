@@ -0,0 +1,56 @@
+package search;
+
+
+/**
+ * Represents how the information a {@code TranspositionTable} keeps about a position is packed into a single {@code long}. Each enum
+ * value has a startBit and a length. The startBit is what 0 indexed from the right bit the piece of info is stored at. The length is
+ * how many bits are used to store that info.
+ * @author matthewslesinski
+ *
+ */
+public enum TableEntrySection {
+	MOVE(0, 32),
+	SCORE(32, 16),
+	DEPTH(48, 8),
+	BOUND(56, 2),
+	GENERATION(58, 6)
+	;
+	
+	private final int startBit;
+	private final long lengthMask;
+	
+	private TableEntrySection(int startBit, int length) {
+		this.startBit = startBit;
+		this.lengthMask = ~0L >>> (64 - length);
+	}
+	
+	/**
+	 * Given a long that represents an entry, this sets a value on that long in the place specified by this enum instance
+	 * @param receptacle The long to set the value on. It is assumed the place specified by this enum instance is already zeroized
+	 * @param value The value to set. Only the low bits that fit in this section are kept
+	 * @return The long with the value set
+	 */
+	public long setValue(long receptacle, int value) {
+		long unshiftedValue = lengthMask & value;
+		return receptacle | (unshiftedValue << startBit);
+	}
+	
+	/**
+	 * Given a long that represents an entry, this replaces the value in the place specified by this enum instance
+	 * @param receptacle The long to replace the value in
+	 * @param value The new value. Only the low bits that fit in this section are kept
+	 * @return The long with the value replaced
+	 */
+	public long replaceValue(long receptacle, int value) {
+		return setValue(receptacle & ~(lengthMask << startBit), value);
+	}
+	
+	/**
+	 * Gets the {@code length} long value at the {@code startBit} for this instance
+	 * @param receptacle The long to get the value from
+	 * @return The value, without sign extension
+	 */
+	public int getValue(long receptacle) {
+		return (int) ((receptacle >>> startBit) & lengthMask);
+	}
+}
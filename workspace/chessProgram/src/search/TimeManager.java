@@ -0,0 +1,171 @@
+package search;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides when a search has to stop, based on its {@code SearchLimits}. The time limits are turned into two deadlines. The soft
+ * deadline is how long the search should take: once it is close, no new iteration is started, since the iteration probably wouldn't
+ * finish. The hard deadline is when the search must stop, even in the middle of an iteration.
+ *
+ * Stopping is cooperative. The searching threads call {@code checkLimits} every so often, and once a limit is reached, or another
+ * thread calls {@code stop}, the volatile stop flag is set and the searching threads unwind on their own. Since the flag is only
+ * checked every few hundred positions, the latency of stopping is bounded by the time it takes to search that many positions. The
+ * position limit is for the whole search, so threads that each count their own positions add them to a total kept here when they
+ * check, and the limit is checked against that total. The hard deadline can be left out of a check, which the searching threads do
+ * during their first iteration, since the search has no move to give until one iteration finishes. The position limit and
+ * {@code stop} always apply.
+ *
+ * During a ponder search, nothing but {@code stop} can stop the search. Once {@code ponderHit} is called, the limits apply, measured
+ * from when the pondering started, so a long think by the opponent leaves less time, and possibly none, to spend after their move.
+ * @author matthewslesinski
+ *
+ */
+public class TimeManager {
+
+	/** The number of milliseconds kept in reserve for the time it takes to make the move after the search */
+	private static final long MOVE_OVERHEAD = 20;
+
+	/** How many moves the rest of the clock is assumed to be spread over, when it isn't known how many moves are left */
+	private static final int DEFAULT_MOVES_TO_GO = 30;
+
+	/** How many times the soft deadline's allotted time the hard deadline can allot */
+	private static final int HARD_LIMIT_FACTOR = 4;
+
+	/** What fraction of the remaining clock, as a divisor, the hard deadline can allot at most */
+	private static final int MAX_CLOCK_FRACTION = 3;
+
+	/** The limits being enforced */
+	private final SearchLimits limits;
+
+	/** The time the search started, in milliseconds */
+	private final long startTime;
+
+	/** The number of milliseconds after the start that no new iteration should be started */
+	private final long softLimit;
+
+	/** The number of milliseconds after the start that the search must stop */
+	private final long hardLimit;
+
+	/** The number of positions the searching threads have added to the total so far */
+	private final AtomicLong nodes = new AtomicLong();
+
+	/** Whether the search has been told to stop */
+	private volatile boolean stopped = false;
+
+	/** Whether the search is pondering, so that the limits don't apply yet */
+	private volatile boolean pondering;
+
+	/**
+	 * Creates a manager for a search that starts now
+	 * @param limits The limits to enforce
+	 */
+	public TimeManager(SearchLimits limits) {
+		this.limits = limits;
+		this.startTime = System.currentTimeMillis();
+		this.pondering = limits.isPonder();
+		if (limits.getMoveTime() != SearchLimits.UNLIMITED) {
+			long allotted = Math.max(limits.getMoveTime() - MOVE_OVERHEAD, 1);
+			softLimit = allotted;
+			hardLimit = allotted;
+		} else if (limits.getTimeRemaining() != SearchLimits.UNLIMITED) {
+			long available = Math.max(limits.getTimeRemaining() - MOVE_OVERHEAD, 1);
+			int movesToGo = limits.getMovesToGo() != SearchLimits.UNKNOWN_MOVES_TO_GO ? limits.getMovesToGo() : DEFAULT_MOVES_TO_GO;
+			long allotted = Math.min(available / movesToGo + limits.getIncrement(), available);
+			softLimit = allotted;
+			hardLimit = Math.max(Math.min(allotted * HARD_LIMIT_FACTOR, available / MAX_CLOCK_FRACTION), allotted);
+		} else {
+			softLimit = SearchLimits.UNLIMITED;
+			hardLimit = SearchLimits.UNLIMITED;
+		}
+	}
+
+	/**
+	 * Gets the number of milliseconds since the search started
+	 * @return The time
+	 */
+	public long getElapsedTime() {
+		return System.currentTimeMillis() - startTime;
+	}
+
+	/**
+	 * Determines if another iteration should be started. Each iteration usually takes a few times as long as all the ones before it,
+	 * so once half of the soft deadline's time has been used, the next iteration isn't expected to finish in time
+	 * @param depth The depth of the iteration
+	 * @return true iff the iteration should be searched
+	 */
+	public boolean shouldStartIteration(int depth) {
+		return !stopped && depth <= limits.getMaxDepth() && (pondering || softLimit == SearchLimits.UNLIMITED || getElapsedTime() < softLimit / 2);
+	}
+
+	/**
+	 * Checks if the search has reached its hard deadline or its position limit, and tells it to stop if it has
+	 * @param nodes The number of positions visited so far by the whole search
+	 * @return true iff the search has to stop
+	 */
+	public boolean checkLimits(long nodes) {
+		return checkLimits(nodes, true);
+	}
+
+	/**
+	 * Checks if the search has reached its position limit, or its hard deadline if that applies, and tells it to stop if it has
+	 * @param nodes The number of positions visited so far by the whole search
+	 * @param checkTime Whether the hard deadline applies
+	 * @return true iff the search has to stop
+	 */
+	public boolean checkLimits(long nodes, boolean checkTime) {
+		if (!pondering && (nodes >= limits.getMaxNodes()
+				|| (checkTime && hardLimit != SearchLimits.UNLIMITED && getElapsedTime() >= hardLimit))) {
+			stopped = true;
+		}
+		return stopped;
+	}
+
+	/**
+	 * Adds to the total number of positions visited by every searching thread, and checks the limits against the new total
+	 * @param newNodes The number of positions the calling thread has visited since it last added to the total
+	 * @param checkTime Whether the hard deadline applies
+	 * @return true iff the search has to stop
+	 */
+	public boolean addNodesAndCheckLimits(long newNodes, boolean checkTime) {
+		return checkLimits(nodes.addAndGet(newNodes), checkTime);
+	}
+
+	/**
+	 * Adds to the total number of positions visited by every searching thread, without checking the limits
+	 * @param newNodes The number of positions the calling thread has visited since it last added to the total
+	 */
+	public void addNodes(long newNodes) {
+		nodes.addAndGet(newNodes);
+	}
+
+	/**
+	 * Gets the total number of positions the searching threads have added so far
+	 * @return The number of positions
+	 */
+	public long getNodes() {
+		return nodes.get();
+	}
+
+	/**
+	 * Tells a ponder search that the opponent played the expected reply, so the limits apply from now on. This can be called from any
+	 * thread
+	 */
+	public void ponderHit() {
+		pondering = false;
+	}
+
+	/**
+	 * Tells the search to stop as soon as it can. This can be called from any thread
+	 */
+	public void stop() {
+		stopped = true;
+	}
+
+	/**
+	 * Determines if the search has been told to stop
+	 * @return true iff it has
+	 */
+	public boolean isStopped() {
+		return stopped;
+	}
+}
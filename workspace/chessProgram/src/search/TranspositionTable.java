@@ -0,0 +1,349 @@
+package search;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+import evaluation.Score;
+import hashing.Hasher;
+import representation.Board;
+import support.BadArgumentException;
+
+import static support.Constants.*;
+
+/**
+ * A fixed size table that remembers what the search found out about positions it has already visited. Each position can go in either
+ * slot of the bucket given by the low bits of its hashcode, and the full hashcode is kept alongside so that a probe can tell whether a
+ * slot holds the position being asked about or some other position that happened to share the bucket.
+ *
+ * The table is meant to be kept for a whole game, since most of what one search finds is still useful to the next. Each search starts
+ * a new generation, and every entry records the generation that last stored or found it. When a bucket is full, the entry that is
+ * worth the least is replaced, and an entry loses worth the more generations old it is, so entries left over from earlier searches go
+ * first, but ones the current search is still finding are kept as if they were new.
+ *
+ * Besides the score, each entry keeps the depth it was searched to, the {@code BoundType} of the score, and the compressed best move.
+ * The best move is what lets the search try the most promising move first in a position it has seen before. All of that is packed
+ * into one {@code long} per slot, laid out as described by {@code TableEntrySection}, so that storing and probing don't create any
+ * objects and a probe is a single read. Scores are stored with {@code Score.toStoredScore}, so mate scores are relative to the
+ * position rather than the root.
+ *
+ * Several search threads can share a table without any locking. Each slot keeps its hashcode XORed with its entry, rather than the
+ * hashcode itself. If two threads write to a slot at the same time, the slot can end up with one thread's hashcode and the other's
+ * entry, but then the XOR no longer gives back either hashcode, so the slot just looks like it holds some other position. This relies
+ * on writes of a {@code long} not being torn, which holds on 64 bit JVMs.
+ *
+ * Two different positions can still share a hashcode, and then a probe for one returns the other's entry. To measure how often that
+ * happens, setting {@code Constants.VERIFY_HASHES} makes the table keep a second key for each slot, which is the position's hash from
+ * {@code Hasher.getVerificationHasher}, whose random numbers are independent of the first. A hit whose second key doesn't match is a
+ * true collision, and is treated as a miss. A probe that misses in a bucket holding other positions is an index collision, which only
+ * means the table is crowded. Both are counted, to help choose the size of the table and the number of bits of the hashcode it keeps,
+ * and the counts go out with the {@code SearchStatistics} in each report. With the setting off, the second keys are never made or
+ * checked. With more than one thread, a few true collisions can come from two threads writing to the same slot at once, since the
+ * second key is written separately.
+ * @author matthewslesinski
+ *
+ */
+public class TranspositionTable {
+
+	/** The compressed value used to say that an entry has no best move. No legal move compresses to 0 */
+	public static final int NO_MOVE = 0;
+
+	/** What a probe returns when the position isn't in the table. Since its bound is {@code BoundType.NONE}, it can't be mistaken for an entry */
+	public static final long NO_ENTRY = 0L;
+
+	/** The number of entries in a table when no size is specified. This must be a power of two */
+	private static final int DEFAULT_SIZE = 1 << 20;
+
+	/** The number of slots a position can go in. This must be a power of two */
+	private static final int BUCKET_SIZE = 2;
+
+	/** The number of different generations an entry can record before they wrap around */
+	private static final int GENERATION_COUNT = 1 << 6;
+
+	/** How many plies of depth an entry's worth goes down by for each generation it is old */
+	private static final int AGE_PENALTY = 8;
+
+	/** Masks a hashcode down to the index of the first slot in its bucket */
+	private final int indexMask;
+
+	/** The generation of the current search */
+	private int generation = 0;
+
+	/** The full hashcodes of the positions held in each slot, XORed with their entries */
+	private final long[] keys;
+
+	/** The packed entry for the position in each slot */
+	private final long[] entries;
+
+	/** The second keys of the positions held in each slot, XORed with their entries, or null unless hashes are being verified */
+	private final long[] verificationKeys;
+
+	/** The number of probes since the table was last emptied, counted only when hashes are being verified */
+	private final LongAdder probes;
+
+	/** The number of probes that found their position, counted only when hashes are being verified */
+	private final LongAdder hits;
+
+	/** The number of probes that found a different position with the same hashcode, counted only when hashes are being verified */
+	private final LongAdder trueCollisions;
+
+	/** The number of probes that missed in a bucket holding other positions, counted only when hashes are being verified */
+	private final LongAdder indexCollisions;
+
+	public TranspositionTable() {
+		this(DEFAULT_SIZE);
+	}
+
+	/**
+	 * Creates a table with a given number of slots
+	 * @param size The number of slots. This must be a power of two, and at least the size of a bucket
+	 */
+	public TranspositionTable(int size) {
+		if (Integer.bitCount(size) != 1 || size < BUCKET_SIZE) {
+			throw new BadArgumentException(size, int.class, "The size of a transposition table must be a power of two, and at least " + BUCKET_SIZE);
+		}
+		indexMask = (size - 1) & ~(BUCKET_SIZE - 1);
+		keys = new long[size];
+		entries = new long[size];
+		verificationKeys = VERIFY_HASHES ? new long[size] : null;
+		probes = VERIFY_HASHES ? new LongAdder() : null;
+		hits = VERIFY_HASHES ? new LongAdder() : null;
+		trueCollisions = VERIFY_HASHES ? new LongAdder() : null;
+		indexCollisions = VERIFY_HASHES ? new LongAdder() : null;
+	}
+
+	/**
+	 * Gets the second key of a position, which the table checks its hits against when hashes are being verified
+	 * @param board The position
+	 * @return The key, or 0 if hashes aren't being verified
+	 */
+	public static long getVerificationKey(Board board) {
+		return VERIFY_HASHES ? Hasher.getVerificationHasher().getHash(board) : 0L;
+	}
+
+	/**
+	 * Gets the first slot of the bucket a hashcode belongs in
+	 * @param key The hashcode
+	 * @return The index of the slot
+	 */
+	private int getIndex(long key) {
+		return (int) key & indexMask;
+	}
+
+	/**
+	 * Starts a new generation, which should be done at the start of each search. Entries from earlier searches are kept, but are the
+	 * first to be replaced
+	 */
+	public void newSearch() {
+		generation = (generation + 1) & (GENERATION_COUNT - 1);
+	}
+
+	/**
+	 * Looks up a position in the table
+	 * @param key The hashcode of the position
+	 * @param verificationKey The second key of the position, as given by {@code getVerificationKey}
+	 * @return The packed entry for the position, or {@code NO_ENTRY} if the position isn't in the table
+	 */
+	public long probe(long key, long verificationKey) {
+		int index = getIndex(key);
+		for (int slot = index; slot < index + BUCKET_SIZE; slot++) {
+			long entry = entries[slot];
+			if ((keys[slot] ^ entry) == key) {
+				if (VERIFY_HASHES && verify(slot, entry, verificationKey) == NO_ENTRY) {
+					return NO_ENTRY;
+				}
+				return getAge(entry) == 0 ? entry : renew(slot, key, verificationKey, entry);
+			}
+		}
+		if (VERIFY_HASHES) {
+			countMiss(index);
+		}
+		return NO_ENTRY;
+	}
+
+	/**
+	 * Checks that a slot whose hashcode matches a probe's really holds the position being asked about, and counts the probe
+	 * @param slot The index of the slot
+	 * @param entry The packed entry in the slot
+	 * @param verificationKey The second key of the position being asked about
+	 * @return The entry, or {@code NO_ENTRY} if the slot holds a different position
+	 */
+	private long verify(int slot, long entry, long verificationKey) {
+		probes.increment();
+		if ((verificationKeys[slot] ^ entry) != verificationKey) {
+			trueCollisions.increment();
+			return NO_ENTRY;
+		}
+		hits.increment();
+		return entry;
+	}
+
+	/**
+	 * Moves an entry that a probe found into the current generation, so that it isn't replaced as if the current search didn't need it
+	 * @param slot The index of the slot
+	 * @param key The hashcode of the position
+	 * @param verificationKey The second key of the position
+	 * @param entry The packed entry in the slot
+	 * @return The renewed entry
+	 */
+	private long renew(int slot, long key, long verificationKey, long entry) {
+		long renewed = TableEntrySection.GENERATION.replaceValue(entry, generation);
+		keys[slot] = key ^ renewed;
+		entries[slot] = renewed;
+		if (VERIFY_HASHES) {
+			verificationKeys[slot] = verificationKey ^ renewed;
+		}
+		return renewed;
+	}
+
+	/**
+	 * Counts a probe that didn't find its position, which is an index collision if the bucket holds other positions
+	 * @param index The index of the first slot in the bucket
+	 */
+	private void countMiss(int index) {
+		probes.increment();
+		for (int slot = index; slot < index + BUCKET_SIZE; slot++) {
+			if (isPresent(entries[slot])) {
+				indexCollisions.increment();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Determines if a probe found the position
+	 * @param entry The packed entry returned by {@code probe}
+	 * @return true iff there is an entry
+	 */
+	public static boolean isPresent(long entry) {
+		return getBound(entry) != BoundType.NONE;
+	}
+
+	/**
+	 * Gets the compressed best move out of an entry
+	 * @param entry The packed entry returned by {@code probe}
+	 * @return The compressed move, or {@code NO_MOVE}
+	 */
+	public static int getMove(long entry) {
+		return TableEntrySection.MOVE.getValue(entry);
+	}
+
+	/**
+	 * Gets the score out of an entry
+	 * @param entry The packed entry returned by {@code probe}
+	 * @param ply The number of plies from the root the position is at
+	 * @return The score, relative to the root
+	 */
+	public static int getScore(long entry, int ply) {
+		return Score.fromStoredScore((short) TableEntrySection.SCORE.getValue(entry), ply);
+	}
+
+	/**
+	 * Gets the depth the position of an entry was searched to
+	 * @param entry The packed entry returned by {@code probe}
+	 * @return The depth
+	 */
+	public static int getDepth(long entry) {
+		return TableEntrySection.DEPTH.getValue(entry);
+	}
+
+	/**
+	 * Gets how the score of an entry relates to the real score
+	 * @param entry The packed entry returned by {@code probe}
+	 * @return The {@code BoundType}
+	 */
+	public static BoundType getBound(long entry) {
+		return BoundType.getByIndex(TableEntrySection.BOUND.getValue(entry));
+	}
+
+	/**
+	 * Gets how many generations old an entry is
+	 * @param entry The packed entry
+	 * @return The number of generations
+	 */
+	private int getAge(long entry) {
+		return (generation - TableEntrySection.GENERATION.getValue(entry)) & (GENERATION_COUNT - 1);
+	}
+
+	/**
+	 * Gets how much an entry is worth keeping. Deeper entries save more work, and older entries are less likely to be needed again
+	 * @param entry The packed entry
+	 * @return The worth, which is only meaningful compared to the worth of other entries
+	 */
+	private int getWorth(long entry) {
+		return isPresent(entry) ? getDepth(entry) - AGE_PENALTY * getAge(entry) : Integer.MIN_VALUE;
+	}
+
+	/**
+	 * Records what a search found out about a position. If the position is already in its bucket, its entry is only replaced by a
+	 * search that was at least as deep, unless the entry is from an earlier search. Otherwise, the entry in the bucket that is worth
+	 * the least is replaced. If the new search has no best move, the old one is kept, since it is still the best guess for what to
+	 * try first.
+	 * @param key The hashcode of the position
+	 * @param verificationKey The second key of the position, as given by {@code getVerificationKey}
+	 * @param move The compressed best move, or {@code NO_MOVE}
+	 * @param score The score found, relative to the root
+	 * @param depth The depth that was searched
+	 * @param bound How the score relates to the real score
+	 * @param ply The number of plies from the root the position is at
+	 */
+	public void store(long key, long verificationKey, int move, int score, int depth, BoundType bound, int ply) {
+		int first = getIndex(key);
+		int index = first;
+		boolean samePosition = false;
+		for (int slot = first; slot < first + BUCKET_SIZE; slot++) {
+			if ((keys[slot] ^ entries[slot]) == key) {
+				index = slot;
+				samePosition = true;
+				break;
+			}
+			if (getWorth(entries[slot]) < getWorth(entries[index])) {
+				index = slot;
+			}
+		}
+		long previous = entries[index];
+		if (samePosition && depth < getDepth(previous) && bound != BoundType.EXACT && getAge(previous) == 0) {
+			return;
+		}
+		if (move == NO_MOVE && samePosition) {
+			move = getMove(previous);
+		}
+		long entry = NO_ENTRY;
+		entry = TableEntrySection.MOVE.setValue(entry, move);
+		entry = TableEntrySection.SCORE.setValue(entry, Score.toStoredScore(score, ply));
+		entry = TableEntrySection.DEPTH.setValue(entry, depth);
+		entry = TableEntrySection.BOUND.setValue(entry, bound.ordinal());
+		entry = TableEntrySection.GENERATION.setValue(entry, generation);
+		keys[index] = key ^ entry;
+		entries[index] = entry;
+		if (VERIFY_HASHES) {
+			verificationKeys[index] = verificationKey ^ entry;
+		}
+	}
+
+	/**
+	 * Empties the table, which should be done when a new game starts
+	 */
+	public void clear() {
+		Arrays.fill(keys, 0L);
+		Arrays.fill(entries, NO_ENTRY);
+		generation = 0;
+		if (VERIFY_HASHES) {
+			Arrays.fill(verificationKeys, 0L);
+			probes.reset();
+			hits.reset();
+			trueCollisions.reset();
+			indexCollisions.reset();
+		}
+	}
+
+	/**
+	 * Records how often probes have collided since the table was last emptied in a snapshot of a worker's statistics, so that they're
+	 * reported along with them. They're only counted when hashes are being verified, so otherwise nothing is recorded
+	 * @param statistics The {@code SearchStatistics}, which should be a copy made for a report
+	 */
+	public void recordCollisions(SearchStatistics statistics) {
+		if (VERIFY_HASHES) {
+			statistics.recordTableCollisions(probes.sum(), hits.sum(), trueCollisions.sum(), indexCollisions.sum());
+		}
+	}
+}
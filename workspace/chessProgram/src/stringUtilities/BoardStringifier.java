@@ -116,7 +116,7 @@ public class BoardStringifier<B extends Board> {
 			builder.append(LAST_MOVE_TEXT);
 			builder.append(MoveWriter.getMoveAsStringInContext(last, board.getPreviousPosition()));
 			if (board.isInCheck()) {
-				if (board.isOver()) {
+				if (board.getLegalMoves().isEmpty()) {
 					builder.append(CHECKMATE_SYMBOL);
 				} else {
 					builder.append(CHECK_SYMBOL);
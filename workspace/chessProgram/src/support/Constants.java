@@ -24,6 +24,61 @@ public class Constants {
 	/** If the user wants the legal moves to be printed */
 	public static final boolean SHOULD_PRINT_MOVES = Boolean.getBoolean("printMoves");
 	
+	/** If the user wants the computer to print what it found after each iteration of its search */
+	public static final boolean SHOULD_PRINT_ANALYSIS = Boolean.getBoolean("printAnalysis");
+	
+	/** The number of milliseconds the computer spends on each move */
+	public static final long COMPUTER_MOVE_TIME = Long.getLong("moveTime", 5000);
+	
+	/** The number of lines the computer finds in each search, which is more than 1 only for analysis */
+	public static final int COMPUTER_MULTI_PV = Integer.getInteger("multiPV", 1);
+	
+	/** If the computer should search on the opponent's time, in the position it expects after their reply */
+	public static final boolean SHOULD_PONDER = Boolean.getBoolean("ponder");
+	
+	/** If the computer should use Monte Carlo tree search instead of alpha-beta search */
+	public static final boolean USE_MONTE_CARLO_TREE_SEARCH = Boolean.getBoolean("monteCarlo");
+	
+	/** The number of threads the computer searches with */
+	public static final int SEARCH_THREADS = Integer.getInteger("searchThreads", 1);
+	
+	/** If the search should find a move to try first in positions the table knows nothing about, rather than just searching them shallower */
+	public static final boolean USE_INTERNAL_ITERATIVE_DEEPENING = Boolean.getBoolean("internalIterativeDeepening");
+	
+	/**
+	 * If the search should search positions the table knows nothing about a ply shallower, when it isn't using internal iterative
+	 * deepening for them. Turning this off lets the positions a search to a fixed depth visits be counted with and without the reductions
+	 */
+	public static final boolean USE_INTERNAL_ITERATIVE_REDUCTIONS = !Boolean.getBoolean("noInternalIterativeReductions");
+	
+	/** If the computer should print how often its search used some of its techniques, along with its analysis */
+	public static final boolean SHOULD_PRINT_STATISTICS = Boolean.getBoolean("printStatistics");
+	
+	/**
+	 * If the handwritten evaluation should include the mobility of the pieces and the safety of the kings. Working out which squares
+	 * every piece attacks for them more than doubles the cost of an evaluation, so they're left out unless this is set
+	 */
+	public static final boolean EVALUATE_ATTACKS = Boolean.getBoolean("evaluateAttacks");
+	
+	/** The path to a file of weights for the computer to evaluate positions with a neural network, or null to use the handwritten evaluation */
+	public static final String NETWORK_FILE = System.getProperty("networkFile");
+	
+	/** The path to a file of piece square tables for the computer to evaluate positions with, or null to use the built in ones */
+	public static final String PIECE_SQUARE_TABLES_FILE = System.getProperty("pieceSquareTables");
+	
+	/** The seed of the random numbers boards are hashed with, which keeps hashes the same from one run of the program to the next */
+	public static final long HASH_SEED = Long.getLong("hashSeed", 0L);
+	
+	/** What the seed of the random numbers used to check hashes differs from {@code HASH_SEED} by, so the two sets are independent */
+	public static final long VERIFICATION_HASH_SEED = 0x5DEECE66DL;
+	
+	/**
+	 * If the transposition table should check every hit against a second hash of each position, and count how often different positions
+	 * collide. This slows the search down, so it's only for measuring how big the table and its keys should be. The counts are printed
+	 * with the computer's statistics, along with its analysis
+	 */
+	public static final boolean VERIFY_HASHES = Boolean.getBoolean("verifyHashes");
+	
 	/** The {@code PlayerType} to use for the first player */
 	public static final PlayerType PLAYER_1_TYPE = PlayerType.getByIdentifier(System.getProperty("player1"));
 
@@ -92,6 +147,9 @@ public class Constants {
 	
 	public static final String STANDARD_START_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
 	
+	/** The number of plies without a capture or pawn move after which the game is drawn by the fifty move rule */
+	public static final int FIFTY_MOVE_RULE_PLIES = 100;
+	
 	/** The directions a bishop can move */
 	public static final List<Direction> BISHOP_DIRECTIONS = Arrays.asList(Direction.UP_RIGHT, Direction.DOWN_RIGHT, Direction.DOWN_LEFT, Direction.UP_LEFT);
 	
@@ -101,22 +159,22 @@ public class Constants {
 	/** The directions a queen can move */
 	public static final List<Direction> QUEEN_DIRECTIONS = concat(BISHOP_DIRECTIONS, ROOK_DIRECTIONS);
 	
-	/** The conventional estimate for a pawn's material worth */
-	public static final double ESTIMATED_PAWN_MATERIAL_VALUE = 1.;
+	/** The conventional estimate for a pawn's material worth, in centipawns */
+	public static final int ESTIMATED_PAWN_MATERIAL_VALUE = 100;
 	
-	/** The conventional estimate for a knight's material worth */
-	public static final double ESTIMATED_KNIGHT_MATERIAL_VALUE = 3.;
+	/** The conventional estimate for a knight's material worth, in centipawns */
+	public static final int ESTIMATED_KNIGHT_MATERIAL_VALUE = 300;
 	
-	/** The conventional estimate for a bishop's material worth */
-	public static final double ESTIMATED_BISHOP_MATERIAL_VALUE = 3.;
+	/** The conventional estimate for a bishop's material worth, in centipawns */
+	public static final int ESTIMATED_BISHOP_MATERIAL_VALUE = 300;
 	
-	/** The conventional estimate for a rook's material worth */
-	public static final double ESTIMATED_ROOK_MATERIAL_VALUE = 5.;
+	/** The conventional estimate for a rook's material worth, in centipawns */
+	public static final int ESTIMATED_ROOK_MATERIAL_VALUE = 500;
 	
-	/** The conventional estimate for a queen's material worth */
-	public static final double ESTIMATED_QUEEN_MATERIAL_VALUE = 9.;
+	/** The conventional estimate for a queen's material worth, in centipawns */
+	public static final int ESTIMATED_QUEEN_MATERIAL_VALUE = 900;
 	
-	/** The conventional estimate for a king's material worth */
-	public static final double ESTIMATED_KING_MATERIAL_VALUE = 0.;
+	/** The conventional estimate for a king's material worth, in centipawns */
+	public static final int ESTIMATED_KING_MATERIAL_VALUE = 0;
 	
 }
@@ -7,14 +7,15 @@ import java.util.function.Supplier;
 
 import boardFeatures.Square;
 import convenienceDataStructures.UnmodifiableWrappedSet;
-import evaluation.ConventionalMaterialEvaluation;
+import evaluation.NetworkEvaluation;
+import evaluation.TaperedEvaluation;
 import evaluation.Evaluator;
 import gamePlaying.Color;
 import gamePlaying.Game;
 import gamePlaying.GameTree;
 import hashing.Hasher;
-import hashing.PseudoRandomNumbers;
 import hashing.RandomNumberGenerator;
+import hashing.SplitMixRandomNumbers;
 import hashing.ZobristHasher;
 import immutableArrayBoard.ImmutableArrayBoard;
 import moves.BasicMove;
@@ -28,7 +29,8 @@ import pieces.PieceType;
 import representation.Board;
 import representation.BoardBuilder;
 import search.AI;
-import search.BasicDepthBasedMinimax;
+import search.AlphaBetaSearch;
+import search.MonteCarloTreeSearch;
 
 
 /**
@@ -66,16 +68,23 @@ public class Constructors {
 		return new BasicMove.Builder(type, movingPiece, start, end, movingColor);
 	}
 	
-	/** A constructor for a random number generator. Ideally the sequences produced by these generators should not have much linear dependence. */
-	public static final Supplier<RandomNumberGenerator> RANDOM_NUMBER_GENERATOR = PseudoRandomNumbers::new;
+	/**
+	 * A constructor for a random number generator. Ideally the sequences produced by these generators should not have much linear dependence,
+	 * and they should be seeded, so that hashes are the same from one run to the next
+	 */
+	public static final Supplier<RandomNumberGenerator> RANDOM_NUMBER_GENERATOR = SplitMixRandomNumbers::new;
 	
 	/** A constructor for an object used to hash {@code Board}s to longs */
 	public static final Supplier<Hasher> HASHER_CONSTRUCTOR = ZobristHasher::new;
 	
+	/** A constructor for an object that hashes {@code Board}s with random numbers independent of the main hasher's, to check its hashes */
+	public static final Supplier<Hasher> VERIFICATION_HASHER_CONSTRUCTOR =
+			() -> new ZobristHasher(new SplitMixRandomNumbers(Constants.HASH_SEED ^ Constants.VERIFICATION_HASH_SEED), false);
+	
 	/** A constructor that returns an object that can estimate who is winning in a position */
-	public static final Supplier<Evaluator> EVALUATOR_CONSTRUCTOR = ConventionalMaterialEvaluation::new;
+	public static final Supplier<Evaluator> EVALUATOR_CONSTRUCTOR = () -> Constants.NETWORK_FILE == null ? new TaperedEvaluation() : new NetworkEvaluation();
 	
 	/** A constructor that returns an object that can be used to determine what the computer and its algorithms think is the best move in a position */
-	public static final Supplier<AI> AI_CONSTRUCTOR = BasicDepthBasedMinimax::new;
+	public static final Supplier<AI> AI_CONSTRUCTOR = () -> Constants.USE_MONTE_CARLO_TREE_SEARCH ? new MonteCarloTreeSearch() : new AlphaBetaSearch();
 	
 }
@@ -0,0 +1,314 @@
+package tuning;
+
+import java.util.stream.IntStream;
+
+import boardFeatures.Square;
+import evaluation.GamePhase;
+import evaluation.MaterialEntry;
+import evaluation.PieceSquareTables;
+import gamePlaying.Color;
+import io.FileHandler;
+import pieces.Piece;
+import pieces.PieceType;
+
+/**
+ * Tunes the {@code PieceSquareTables}, with the material values folded in, by the Texel method: the evaluation of each position in a
+ * {@code TrainingSet} is turned into an expected score with a sigmoid, and the weights are moved to make the mean squared difference
+ * between the expected scores and the actual results of the games as small as possible. The sigmoid's scale is fitted first, to the
+ * evaluation as it is, so that the tuning only changes what the weights are relative to each other.
+ *
+ * The evaluation of a position is linear in the weights: each feature's coefficient times its middlegame weight, blended with the same
+ * for the endgame weights by the position's phase, plus the position's offset, and then scaled by the position's scale for the side it
+ * favors, just as the evaluator scales it. The scale only changes where the sum crosses 0, so the gradient is a sum over each position's
+ * few features, so the positions are split into chunks that are worked through in parallel on every core, and the chunks' gradients are
+ * added together. The weights are then moved with Adam, which copes with the features that hardly ever appear, like pawns on the
+ * eighth rank, as well as the ones in every position.
+ *
+ * Positions are evaluated statically, so the positions file should hold quiet positions, and the other terms of the evaluation stay
+ * the same while the tables change. The tuned tables are written to a file that can be loaded with {@code -DpieceSquareTables}.
+ * @author matthewslesinski
+ *
+ */
+public class TexelTuner {
+
+	/** The number of iterations if none is given */
+	private static final int DEFAULT_ITERATIONS = 1000;
+
+	/** How often progress is printed, in iterations */
+	private static final int REPORT_INTERVAL = 50;
+
+	/** The number of positions each parallel task works through */
+	private static final int CHUNK_SIZE = 1 << 14;
+
+	/** The number of weights for each stage of the game */
+	private static final int STAGE_WEIGHTS = TrainingSet.FEATURE_COUNT;
+
+	/** How far the weights move each iteration, in centipawns */
+	private static final double LEARNING_RATE = 1.0;
+
+	/** How quickly Adam's running average of the gradient forgets */
+	private static final double BETA_1 = 0.9;
+
+	/** How quickly Adam's running average of the squared gradient forgets */
+	private static final double BETA_2 = 0.999;
+
+	/** What keeps Adam from dividing by 0 */
+	private static final double EPSILON = 1e-8;
+
+	/** The smallest scale of the sigmoid that's searched */
+	private static final double MIN_SCALE = 0.1;
+
+	/** The largest scale of the sigmoid that's searched */
+	private static final double MAX_SCALE = 3.0;
+
+	/** How closely the sigmoid's scale is fitted */
+	private static final double SCALE_TOLERANCE = 1e-4;
+
+	/** The ratio the golden-section search shrinks its range by */
+	private static final double GOLDEN_RATIO = (Math.sqrt(5) - 1) / 2;
+
+	/** The positions */
+	private final TrainingSet set;
+
+	/** The middlegame weights, then the endgame weights, each indexed by the type's ordinal times 64 plus the square's index */
+	private final double[] weights = new double[2 * STAGE_WEIGHTS];
+
+	/** The scale of the sigmoid */
+	private double scale = 1.0;
+
+	/**
+	 * Creates a tuner that starts from the tables the program is using
+	 * @param set The {@code TrainingSet} to tune with
+	 */
+	public TexelTuner(TrainingSet set) {
+		this.set = set;
+		for (PieceType type : PieceType.values()) {
+			Piece piece = Piece.getByColorAndType(Color.WHITE, type);
+			for (Square square : Square.values()) {
+				int feature = type.ordinal() * 64 + square.getIndex();
+				weights[feature] = PieceSquareTables.getMiddlegameScore(piece, square);
+				weights[STAGE_WEIGHTS + feature] = PieceSquareTables.getEndgameScore(piece, square);
+			}
+		}
+	}
+
+	/**
+	 * Tunes the tables with the positions in a file and writes them to another
+	 * @param args The positions file, the file to write the tables to, and optionally the number of iterations
+	 */
+	public static void main(String[] args) {
+		if (args.length < 2) {
+			System.out.println("Usage: TexelTuner <positions file> <output file> [iterations]");
+			return;
+		}
+		int iterations = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_ITERATIONS;
+		long start = System.currentTimeMillis();
+		TrainingSet set = TrainingSet.load(args[0]);
+		System.out.println("Loaded " + set.size() + " positions, skipping " + set.getSkipped() + " lines, in "
+				+ (System.currentTimeMillis() - start) + " ms");
+		if (set.size() == 0) {
+			return;
+		}
+		TexelTuner tuner = new TexelTuner(set);
+		tuner.fitScale();
+		System.out.println("Scale " + tuner.scale + ", error " + tuner.calculateError());
+		tuner.tune(iterations);
+		FileHandler.writeToFile(tuner.formatTables(), args[1]);
+		System.out.println("Wrote the tables to " + args[1]);
+	}
+
+	/**
+	 * Fits the sigmoid's scale to the current weights with a golden-section search, since the error has a single minimum in the scale
+	 */
+	public void fitScale() {
+		double low = MIN_SCALE;
+		double high = MAX_SCALE;
+		double left = high - GOLDEN_RATIO * (high - low);
+		double right = low + GOLDEN_RATIO * (high - low);
+		double leftError = calculateError(left);
+		double rightError = calculateError(right);
+		while (high - low > SCALE_TOLERANCE) {
+			if (leftError < rightError) {
+				high = right;
+				right = left;
+				rightError = leftError;
+				left = high - GOLDEN_RATIO * (high - low);
+				leftError = calculateError(left);
+			} else {
+				low = left;
+				left = right;
+				leftError = rightError;
+				right = low + GOLDEN_RATIO * (high - low);
+				rightError = calculateError(right);
+			}
+		}
+		scale = (low + high) / 2;
+	}
+
+	/**
+	 * Runs Adam for a number of iterations, printing the error every so often
+	 * @param iterations The number of iterations
+	 */
+	public void tune(int iterations) {
+		double[] mean = new double[weights.length];
+		double[] variance = new double[weights.length];
+		for (int iteration = 1; iteration <= iterations; iteration++) {
+			double[] gradient = calculateGradient();
+			double meanCorrection = 1 - Math.pow(BETA_1, iteration);
+			double varianceCorrection = 1 - Math.pow(BETA_2, iteration);
+			for (int i = 0; i < weights.length; i++) {
+				mean[i] = BETA_1 * mean[i] + (1 - BETA_1) * gradient[i];
+				variance[i] = BETA_2 * variance[i] + (1 - BETA_2) * gradient[i] * gradient[i];
+				weights[i] -= LEARNING_RATE * (mean[i] / meanCorrection) / (Math.sqrt(variance[i] / varianceCorrection) + EPSILON);
+			}
+			if (iteration % REPORT_INTERVAL == 0 || iteration == iterations) {
+				System.out.println("Iteration " + iteration + ", error " + calculateError());
+			}
+		}
+	}
+
+	/**
+	 * Works out the mean squared error over all the positions with the current scale
+	 * @return The error
+	 */
+	public double calculateError() {
+		return calculateError(scale);
+	}
+
+	/**
+	 * Works out the mean squared error over all the positions
+	 * @param scale The scale of the sigmoid
+	 * @return The error
+	 */
+	private double calculateError(double scale) {
+		double total = IntStream.range(0, getChunkCount()).parallel().mapToDouble(chunk -> {
+			double sum = 0;
+			int end = getChunkEnd(chunk);
+			for (int i = chunk * CHUNK_SIZE; i < end; i++) {
+				double difference = set.results[i] / 2.0 - sigmoid(evaluate(i), scale);
+				sum += difference * difference;
+			}
+			return sum;
+		}).sum();
+		return total / set.size();
+	}
+
+	/**
+	 * Works out the gradient of the mean squared error with respect to each weight, chunk by chunk in parallel
+	 * @return The gradient, indexed the same way as the weights
+	 */
+	private double[] calculateGradient() {
+		double[] gradient = IntStream.range(0, getChunkCount()).parallel().mapToObj(chunk -> {
+			double[] partial = new double[weights.length];
+			int end = getChunkEnd(chunk);
+			for (int i = chunk * CHUNK_SIZE; i < end; i++) {
+				double sum = evaluateUnscaled(i);
+				double materialScale = getMaterialScale(i, sum);
+				double expected = sigmoid(sum * materialScale, scale);
+				// The derivative of the squared error, through the sigmoid and the material's scale, with respect to the unscaled sum
+				double slope = (expected - set.results[i] / 2.0) * expected * (1 - expected) * materialScale;
+				double middlegameShare = slope * set.phases[i] / GamePhase.MAX_PHASE;
+				double endgameShare = slope - middlegameShare;
+				for (int j = set.featureStarts[i]; j < set.featureStarts[i + 1]; j++) {
+					int feature = set.features[j];
+					int coefficient = set.coefficients[j];
+					partial[feature] += middlegameShare * coefficient;
+					partial[STAGE_WEIGHTS + feature] += endgameShare * coefficient;
+				}
+			}
+			return partial;
+		}).reduce(new double[weights.length], (first, second) -> {
+			double[] sum = new double[first.length];
+			for (int i = 0; i < sum.length; i++) {
+				sum[i] = first[i] + second[i];
+			}
+			return sum;
+		});
+		// The constant factors of the derivative only change the step's size, which Adam normalizes away, but keep it a true gradient
+		double factor = 2 * scale * Math.log(10) / 400 / set.size();
+		for (int i = 0; i < gradient.length; i++) {
+			gradient[i] *= factor;
+		}
+		return gradient;
+	}
+
+	/**
+	 * Evaluates a position with the current weights
+	 * @param index The index of the position
+	 * @return The evaluation, in centipawns from white's point of view
+	 */
+	private double evaluate(int index) {
+		double sum = evaluateUnscaled(index);
+		return sum * getMaterialScale(index, sum);
+	}
+
+	/**
+	 * Adds up a position's evaluation with the current weights, before it's scaled for the material
+	 * @param index The index of the position
+	 * @return The sum, in centipawns from white's point of view
+	 */
+	private double evaluateUnscaled(int index) {
+		double middlegame = 0;
+		double endgame = 0;
+		for (int j = set.featureStarts[index]; j < set.featureStarts[index + 1]; j++) {
+			int feature = set.features[j];
+			int coefficient = set.coefficients[j];
+			middlegame += weights[feature] * coefficient;
+			endgame += weights[STAGE_WEIGHTS + feature] * coefficient;
+		}
+		int phase = set.phases[index];
+		return (middlegame * phase + endgame * (GamePhase.MAX_PHASE - phase)) / GamePhase.MAX_PHASE + set.offsets[index];
+	}
+
+	/**
+	 * Gets what a position's evaluation is scaled by, which depends on which side the sum favors, the same way
+	 * {@code MaterialEntry.scale} decides
+	 * @param index The index of the position
+	 * @param sum The sum, before it's scaled
+	 * @return The scale, as a fraction
+	 */
+	private double getMaterialScale(int index, double sum) {
+		return (double) (sum > 0 ? set.whiteScales[index] : set.blackScales[index]) / MaterialEntry.NORMAL_SCALE;
+	}
+
+	/**
+	 * Turns an evaluation into an expected score
+	 * @param evaluation The evaluation, in centipawns
+	 * @param scale The scale of the sigmoid
+	 * @return The expected score, from 0 to 1
+	 */
+	private static double sigmoid(double evaluation, double scale) {
+		return 1 / (1 + Math.pow(10, -scale * evaluation / 400));
+	}
+
+	/**
+	 * Gets the number of chunks the positions are split into
+	 * @return The number of chunks
+	 */
+	private int getChunkCount() {
+		return (set.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+	}
+
+	/**
+	 * Gets where a chunk of positions ends
+	 * @param chunk The index of the chunk
+	 * @return The index just past the chunk's last position
+	 */
+	private int getChunkEnd(int chunk) {
+		return Math.min(set.size(), (chunk + 1) * CHUNK_SIZE);
+	}
+
+	/**
+	 * Writes the current weights out as tables, rounded to whole centipawns
+	 * @return The contents of a tables file
+	 */
+	public String formatTables() {
+		int[] middlegameScores = new int[STAGE_WEIGHTS];
+		int[] endgameScores = new int[STAGE_WEIGHTS];
+		for (int i = 0; i < STAGE_WEIGHTS; i++) {
+			middlegameScores[i] = (int) Math.round(weights[i]);
+			endgameScores[i] = (int) Math.round(weights[STAGE_WEIGHTS + i]);
+		}
+		return PieceSquareTables.formatTables(middlegameScores, endgameScores);
+	}
+}
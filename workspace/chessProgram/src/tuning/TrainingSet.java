@@ -0,0 +1,273 @@
+package tuning;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import boardFeatures.Square;
+import evaluation.GamePhase;
+import evaluation.MaterialEntry;
+import evaluation.MaterialTable;
+import evaluation.TaperedEvaluation;
+import io.FileHandler;
+import pieces.Piece;
+import representation.Board;
+import support.BadArgumentException;
+
+import static support.Constructors.*;
+
+/**
+ * The positions a {@code TexelTuner} learns from, each labelled with the result of the game it came from. Millions of positions have to
+ * fit in memory at once, so nothing is kept as an object per position. Instead, everything is in flat arrays with one slot per position,
+ * and the features of all the positions are in two long arrays, one after another, with each position's slot in {@code featureStarts}
+ * saying where its features begin.
+ *
+ * A feature is a type of piece on a square, from white's side of the board, which is the same as an entry in the
+ * {@code PieceSquareTables}. Its coefficient is the number of white pieces of that type on that square, minus the number of black pieces
+ * of that type on the square mirrored vertically, so only features whose coefficients aren't 0 are kept. The rest of the evaluation,
+ * which the tuner doesn't change, is worked out once when the position is read and kept as an offset. The evaluation gets scaled down
+ * for material that's hard to win with after everything is added up, so the offset is taken before that scaling, and the scales are
+ * kept alongside it for the tuner to apply to its own sum. A position where neither side can mate has both scales set to 0, since it's
+ * a draw whatever the tables say.
+ *
+ * Each line of a positions file is a position in FEN, followed by the result, as "1-0", "0-1", "1/2-1/2", or as white's score, "1.0",
+ * "0.5", or "0.0". The result may be wrapped in quotes or brackets, or followed by a semicolon, and the FEN may leave off the move
+ * counters.
+ * @author matthewslesinski
+ *
+ */
+public class TrainingSet {
+
+	/** The number of lines read from the file at a time, which are turned into features in parallel */
+	private static final int CHUNK_SIZE = 1 << 16;
+
+	/** The number of features, which is one for each type of piece on each square */
+	public static final int FEATURE_COUNT = 6 * 64;
+
+	/** The number of fields in a full FEN */
+	private static final int FEN_FIELDS = 6;
+
+	/** What's added to a FEN that leaves off the move counters */
+	private static final String DEFAULT_MOVE_COUNTERS = " 0 1";
+
+	/** XORing a square's index with this flips it vertically, since the rank is in the low bits of the index */
+	private static final int VERTICAL_FLIP = 7;
+
+	/** The number of ints at the start of an encoded position, before its features */
+	private static final int HEADER_SIZE = 5;
+
+	/** The evaluator used for the parts of the evaluation that aren't tuned, with one for each thread reading positions */
+	private static final ThreadLocal<TaperedEvaluation> EVALUATORS = ThreadLocal.withInitial(TaperedEvaluation::new);
+
+	/** The number of positions */
+	int size = 0;
+
+	/** The result of each position's game, as twice white's score: 0 for a loss, 1 for a draw, and 2 for a win */
+	byte[] results = new byte[CHUNK_SIZE];
+
+	/** The game phase of each position, capped at {@code GamePhase.MAX_PHASE} */
+	byte[] phases = new byte[CHUNK_SIZE];
+
+	/**
+	 * The part of each position's evaluation that doesn't come from the tables, before it's scaled, in centipawns from white's point of
+	 * view
+	 */
+	int[] offsets = new int[CHUNK_SIZE];
+
+	/** What each position's evaluation is scaled by when it favors white, out of {@code MaterialEntry.NORMAL_SCALE} */
+	byte[] whiteScales = new byte[CHUNK_SIZE];
+
+	/** What each position's evaluation is scaled by when it favors black, out of {@code MaterialEntry.NORMAL_SCALE} */
+	byte[] blackScales = new byte[CHUNK_SIZE];
+
+	/** Where each position's features begin, with one more slot at the end for where the next position's would */
+	int[] featureStarts = new int[CHUNK_SIZE + 1];
+
+	/** The features of every position, one position after another */
+	short[] features = new short[CHUNK_SIZE * 16];
+
+	/** The coefficient of each feature */
+	byte[] coefficients = new byte[CHUNK_SIZE * 16];
+
+	/** The number of lines that couldn't be read as a position and a result */
+	private long skipped = 0;
+
+	/**
+	 * Reads the positions in a file
+	 * @param filepath The path to the file
+	 * @return The {@code TrainingSet}
+	 */
+	public static TrainingSet load(String filepath) {
+		TrainingSet set = new TrainingSet();
+		String[] chunk = new String[CHUNK_SIZE];
+		int[] count = {0};
+		FileHandler.forEachLine(filepath, line -> {
+			chunk[count[0]++] = line;
+			if (count[0] == CHUNK_SIZE) {
+				set.addChunk(chunk, count[0]);
+				count[0] = 0;
+			}
+		});
+		set.addChunk(chunk, count[0]);
+		return set;
+	}
+
+	/**
+	 * Turns a chunk of lines into positions, in parallel, and adds them to the set in order
+	 * @param lines The lines
+	 * @param count The number of lines in the chunk
+	 */
+	private void addChunk(String[] lines, int count) {
+		int[][] encoded = new int[count][];
+		IntStream.range(0, count).parallel().forEach(i -> encoded[i] = encode(lines[i]));
+		for (int i = 0; i < count; i++) {
+			if (encoded[i] == null) {
+				if (!lines[i].trim().isEmpty()) {
+					skipped++;
+				}
+			} else {
+				add(encoded[i]);
+			}
+		}
+	}
+
+	/**
+	 * Reads one line as a position and a result
+	 * @param line The line
+	 * @return The result, the phase, the offset, the scales for white and for black, and then each feature shifted up a byte with its
+	 * coefficient in the low byte, or null
+	 * if the line can't be read
+	 */
+	private static int[] encode(String line) {
+		String[] fields = line.trim().split("\\s+");
+		if (fields.length < 2) {
+			return null;
+		}
+		int result = parseResult(fields[fields.length - 1]);
+		if (result < 0) {
+			return null;
+		}
+		int fenFields = Math.min(FEN_FIELDS, fields.length - 1);
+		String fen = String.join(" ", Arrays.copyOfRange(fields, 0, fenFields));
+		if (fenFields == FEN_FIELDS - 2) {
+			fen += DEFAULT_MOVE_COUNTERS;
+		}
+		Board board;
+		try {
+			board = BOARD_BUILDER_CONSTRUCTOR.apply(fen).build();
+		} catch (BadArgumentException | IndexOutOfBoundsException e) {
+			return null;
+		}
+		int phase = Math.min(board.getPhase(), GamePhase.MAX_PHASE);
+		int tabled = (board.getMiddlegameScore() * phase + board.getEndgameScore() * (GamePhase.MAX_PHASE - phase)) / GamePhase.MAX_PHASE;
+		int[] counts = new int[FEATURE_COUNT];
+		int featureCount = 0;
+		for (Square square : Square.values()) {
+			Piece piece = board.getPieceAtSquare(square);
+			if (piece != Piece.NONE) {
+				int feature = getFeature(piece, square);
+				if (counts[feature] == 0) {
+					featureCount++;
+				}
+				counts[feature] += piece.getColor().isWhite() ? 1 : -1;
+			}
+		}
+		MaterialEntry material = MaterialTable.getGlobalTable().probe(board);
+		boolean drawn = material.isInsufficientMaterial();
+		int[] encoded = new int[HEADER_SIZE + featureCount];
+		encoded[0] = result;
+		encoded[1] = phase;
+		encoded[2] = EVALUATORS.get().evaluateUnscaled(board) - tabled;
+		encoded[3] = drawn ? 0 : material.getWhiteScale();
+		encoded[4] = drawn ? 0 : material.getBlackScale();
+		int index = HEADER_SIZE;
+		for (int feature = 0; feature < FEATURE_COUNT; feature++) {
+			if (counts[feature] != 0) {
+				encoded[index++] = (feature << Byte.SIZE) | (counts[feature] & 0xFF);
+			}
+		}
+		return Arrays.copyOf(encoded, index);
+	}
+
+	/**
+	 * Gets the feature for a piece on a square
+	 * @param piece The {@code Piece}
+	 * @param square The {@code Square}
+	 * @return The index of the feature, which is the type's ordinal times 64, plus the index of the square as seen from the piece's side
+	 */
+	public static int getFeature(Piece piece, Square square) {
+		int index = piece.getColor().isWhite() ? square.getIndex() : square.getIndex() ^ VERTICAL_FLIP;
+		return piece.getType().ordinal() * 64 + index;
+	}
+
+	/**
+	 * Reads a game result
+	 * @param token The result, possibly wrapped in quotes or brackets or followed by a semicolon
+	 * @return Twice white's score, or -1 if it isn't a result
+	 */
+	private static int parseResult(String token) {
+		switch (token.replaceAll("[\"\\[\\];]", "")) {
+		case "1-0":
+		case "1.0":
+		case "1":
+			return 2;
+		case "1/2-1/2":
+		case "0.5":
+			return 1;
+		case "0-1":
+		case "0.0":
+		case "0":
+			return 0;
+		default:
+			return -1;
+		}
+	}
+
+	/**
+	 * Adds an encoded position to the end of the arrays, growing them if they're full
+	 * @param encoded The position, as given by {@code encode}
+	 */
+	private void add(int[] encoded) {
+		if (size == results.length) {
+			int capacity = results.length * 2;
+			results = Arrays.copyOf(results, capacity);
+			phases = Arrays.copyOf(phases, capacity);
+			offsets = Arrays.copyOf(offsets, capacity);
+			whiteScales = Arrays.copyOf(whiteScales, capacity);
+			blackScales = Arrays.copyOf(blackScales, capacity);
+			featureStarts = Arrays.copyOf(featureStarts, capacity + 1);
+		}
+		int start = featureStarts[size];
+		int featureCount = encoded.length - HEADER_SIZE;
+		if (start + featureCount > features.length) {
+			int capacity = (int) Math.min(Integer.MAX_VALUE - 8, 2L * features.length);
+			features = Arrays.copyOf(features, capacity);
+			coefficients = Arrays.copyOf(coefficients, capacity);
+		}
+		results[size] = (byte) encoded[0];
+		phases[size] = (byte) encoded[1];
+		offsets[size] = encoded[2];
+		whiteScales[size] = (byte) encoded[3];
+		blackScales[size] = (byte) encoded[4];
+		for (int i = 0; i < featureCount; i++) {
+			features[start + i] = (short) (encoded[HEADER_SIZE + i] >>> Byte.SIZE);
+			coefficients[start + i] = (byte) encoded[HEADER_SIZE + i];
+		}
+		featureStarts[++size] = start + featureCount;
+	}
+
+	/**
+	 * Gets the number of positions
+	 * @return The number of positions
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the number of lines that couldn't be read as a position and a result
+	 * @return The number of lines
+	 */
+	public long getSkipped() {
+		return skipped;
+	}
+}
@@ -0,0 +1,82 @@
+package evaluationTools;
+
+import java.util.List;
+
+import evaluation.Evaluator;
+import evaluation.TaperedEvaluation;
+import representation.Board;
+
+/**
+ * Times the {@code TaperedEvaluation} with and without its last stage, mobility and king safety, to see what the stage adds to the
+ * cost of an evaluation. The stage is meant to add less than {@code COST_GOAL} percent, and until it does, it's left out of the
+ * default evaluation. Each evaluation is a full one, without a window, so it's the most the stage can cost. Both evaluators are
+ * warmed up on the positions before they're timed, and they take turns being timed, so that anything slowing the machine down for a
+ * while slows both down the same.
+ * @author matthewslesinski
+ *
+ */
+public class AttackStageBenchmark {
+
+	/** The most the last stage is meant to add to the cost of an evaluation, in percent */
+	private static final int COST_GOAL = 20;
+
+	/** The seed of the random games */
+	private static final long SEED = 5;
+
+	/** The number of games played from each position */
+	private static final int GAMES_PER_POSITION = 30;
+
+	/** The most plies each game goes on for */
+	private static final int MAX_PLIES = 60;
+
+	/** The number of times the positions are evaluated to warm up the JIT compiler */
+	private static final int WARMUP_ROUNDS = 20;
+
+	/** The number of times the positions are evaluated while being timed */
+	private static final int TIMED_ROUNDS = 20;
+
+	/**
+	 * Times the evaluations
+	 * @param args Unused
+	 */
+	public static void main(String[] args) {
+		List<Board> boards = RandomPositions.generate(RandomPositions.STARTING_POSITIONS, GAMES_PER_POSITION, MAX_PLIES, SEED);
+		System.out.println("Generated " + boards.size() + " positions");
+		Evaluator without = new TaperedEvaluation(false);
+		Evaluator with = new TaperedEvaluation(true);
+		for (int round = 0; round < WARMUP_ROUNDS; round++) {
+			evaluate(without, boards);
+			evaluate(with, boards);
+		}
+		long withoutTime = 0;
+		long withTime = 0;
+		for (int round = 0; round < TIMED_ROUNDS; round++) {
+			long start = System.nanoTime();
+			evaluate(without, boards);
+			long middle = System.nanoTime();
+			evaluate(with, boards);
+			withoutTime += middle - start;
+			withTime += System.nanoTime() - middle;
+		}
+		long evaluations = (long) TIMED_ROUNDS * boards.size();
+		double extra = 100.0 * (withTime - withoutTime) / withoutTime;
+		System.out.println(String.format("%.1f ns per evaluation without mobility and king safety, %.1f ns with them, %.0f%% more",
+				(double) withoutTime / evaluations, (double) withTime / evaluations, extra));
+		System.out.println(extra < COST_GOAL ? "Within the goal of " + COST_GOAL + "% more"
+				: "Over the goal of " + COST_GOAL + "% more, so they should stay out of the default evaluation");
+	}
+
+	/**
+	 * Evaluates every position
+	 * @param evaluator The {@code Evaluator}
+	 * @param boards The positions
+	 * @return The sum of the evaluations, so that the work can't be skipped
+	 */
+	private static long evaluate(Evaluator evaluator, List<Board> boards) {
+		long sum = 0;
+		for (Board board : boards) {
+			sum += evaluator.evaluateBoard(board);
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,163 @@
+package evaluationTools;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import evaluation.Evaluator;
+import evaluation.NetworkEvaluation;
+import evaluation.NetworkWeights;
+import evaluation.PositionBatch;
+import representation.Board;
+
+/**
+ * Checks that {@code NetworkEvaluation.evaluateBatch} gives exactly what {@code NetworkEvaluation.evaluateBoard} does for every
+ * position, and then times the two against each other. The positions come from random games played from a few starting positions.
+ * The evaluator is warmed up on the positions before it's timed, so the JIT compiler has compiled both paths by then, and filling the
+ * batches is counted as part of evaluating them. The handwritten evaluations evaluate a batch one position at a time, so there's
+ * nothing to compare for them.
+ *
+ * With no arguments, the network is a small one of random weights written to a temporary file, which is enough to compare the paths,
+ * but not to say how fast a trained network of a different shape would be.
+ * @author matthewslesinski
+ *
+ */
+public class BatchBenchmark {
+
+	/** The size of the accumulator for each perspective of the random network */
+	private static final int ACCUMULATOR_SIZE = 32;
+
+	/** The number of neurons in the hidden layer of the random network */
+	private static final int HIDDEN_SIZE = 8;
+
+	/** The seed of the random network and the random games */
+	private static final long SEED = 5;
+
+	/** The number of games played from each position */
+	private static final int GAMES_PER_POSITION = 30;
+
+	/** The most plies each game goes on for */
+	private static final int MAX_PLIES = 60;
+
+	/** The number of positions evaluated in each batch */
+	private static final int BATCH_SIZE = 256;
+
+	/** The number of times the positions are evaluated to warm up the JIT compiler */
+	private static final int WARMUP_ROUNDS = 20;
+
+	/** The number of times the positions are evaluated while being timed */
+	private static final int TIMED_ROUNDS = 20;
+
+	/**
+	 * Checks and times the batch evaluation
+	 * @param args Optionally, the weights file of the network to use. Without one, a random network is used
+	 * @throws IOException If the temporary file for the random network can't be made
+	 */
+	public static void main(String[] args) throws IOException {
+		String filepath;
+		if (args.length > 0) {
+			filepath = args[0];
+		} else {
+			Path file = Files.createTempFile("network", ".nnue");
+			file.toFile().deleteOnExit();
+			filepath = file.toString();
+			NetworkWeights.writeRandomWeights(filepath, ACCUMULATOR_SIZE, HIDDEN_SIZE, SEED);
+		}
+		List<Board> boards = RandomPositions.generate(RandomPositions.STARTING_POSITIONS, GAMES_PER_POSITION, MAX_PLIES, SEED);
+		System.out.println("Generated " + boards.size() + " positions");
+		Evaluator evaluator = new NetworkEvaluation(new NetworkWeights(filepath));
+		int mismatches = countMismatches(evaluator, boards);
+		if (mismatches > 0) {
+			System.out.println(mismatches + " of " + boards.size() + " batch evaluations don't match");
+			System.exit(1);
+		}
+		for (int round = 0; round < WARMUP_ROUNDS; round++) {
+			evaluateOneByOne(evaluator, boards);
+			evaluateInBatches(evaluator, boards);
+		}
+		// Take turns, so that anything slowing the machine down for a while slows both down the same
+		long oneByOne = 0;
+		long batched = 0;
+		for (int round = 0; round < TIMED_ROUNDS; round++) {
+			long start = System.nanoTime();
+			evaluateOneByOne(evaluator, boards);
+			long middle = System.nanoTime();
+			evaluateInBatches(evaluator, boards);
+			oneByOne += middle - start;
+			batched += System.nanoTime() - middle;
+		}
+		long evaluations = (long) TIMED_ROUNDS * boards.size();
+		System.out.println(String.format("All match, %.1f ns per position one by one, %.1f ns in batches, %.2fx",
+				(double) oneByOne / evaluations, (double) batched / evaluations, (double) oneByOne / batched));
+	}
+
+	/**
+	 * Evaluates the positions in batches and compares each evaluation to evaluating its position on its own
+	 * @param evaluator The {@code Evaluator}
+	 * @param boards The positions
+	 * @return The number of positions whose evaluations don't match
+	 */
+	private static int countMismatches(Evaluator evaluator, List<Board> boards) {
+		PositionBatch batch = new PositionBatch(BATCH_SIZE);
+		int[] evaluations = new int[BATCH_SIZE];
+		int mismatches = 0;
+		for (int start = 0; start < boards.size(); start += BATCH_SIZE) {
+			fillBatch(batch, boards, start);
+			evaluator.evaluateBatch(batch, evaluations);
+			for (int i = 0; i < batch.size(); i++) {
+				if (evaluations[i] != evaluator.evaluateBoard(batch.getBoard(i))) {
+					mismatches++;
+				}
+			}
+		}
+		return mismatches;
+	}
+
+	/**
+	 * Evaluates every position on its own
+	 * @param evaluator The {@code Evaluator}
+	 * @param boards The positions
+	 * @return The sum of the evaluations, so that the work can't be skipped
+	 */
+	private static long evaluateOneByOne(Evaluator evaluator, List<Board> boards) {
+		long sum = 0;
+		for (Board board : boards) {
+			sum += evaluator.evaluateBoard(board);
+		}
+		return sum;
+	}
+
+	/**
+	 * Evaluates every position in batches
+	 * @param evaluator The {@code Evaluator}
+	 * @param boards The positions
+	 * @return The sum of the evaluations, so that the work can't be skipped
+	 */
+	private static long evaluateInBatches(Evaluator evaluator, List<Board> boards) {
+		PositionBatch batch = new PositionBatch(BATCH_SIZE);
+		int[] evaluations = new int[BATCH_SIZE];
+		long sum = 0;
+		for (int start = 0; start < boards.size(); start += BATCH_SIZE) {
+			fillBatch(batch, boards, start);
+			evaluator.evaluateBatch(batch, evaluations);
+			for (int i = 0; i < batch.size(); i++) {
+				sum += evaluations[i];
+			}
+		}
+		return sum;
+	}
+
+	/**
+	 * Empties a batch and fills it with the positions starting at an index
+	 * @param batch The {@code PositionBatch}
+	 * @param boards The positions
+	 * @param start The index of the first position to put in the batch
+	 */
+	private static void fillBatch(PositionBatch batch, List<Board> boards, int start) {
+		batch.clear();
+		for (int i = start; i < boards.size() && !batch.isFull(); i++) {
+			batch.add(boards.get(i));
+		}
+	}
+}
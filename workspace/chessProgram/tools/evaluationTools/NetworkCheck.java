@@ -0,0 +1,116 @@
+package evaluationTools;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import evaluation.Accumulator;
+import evaluation.AccumulatorTable;
+import evaluation.FeatureTransformer;
+import evaluation.NetworkEvaluation;
+import evaluation.NetworkWeights;
+import gamePlaying.Color;
+import moves.Move;
+import representation.Board;
+import support.Constants;
+
+import static support.Constructors.*;
+
+/**
+ * Checks that the accumulators an {@code AccumulatorTable} keeps up to date move by move are the same as the ones added up from
+ * scratch by {@code FeatureTransformer.refresh}, and that a {@code NetworkEvaluation} that has seen the boards before a position gives
+ * the same evaluation as a fresh one. Random games are played from a few positions with castling, en passant, and promotions in them,
+ * and some of their boards are skipped, so that the table has to look back over more than one move.
+ *
+ * With no arguments, a small network of random weights is written to a temporary file and checked, so no trained network is needed.
+ * @author matthewslesinski
+ *
+ */
+public class NetworkCheck {
+
+	/** The size of the accumulator for each perspective of the random network */
+	private static final int ACCUMULATOR_SIZE = 32;
+
+	/** The number of neurons in the hidden layer of the random network */
+	private static final int HIDDEN_SIZE = 8;
+
+	/** The seed of the random network and the random games */
+	private static final long SEED = 3;
+
+	/** The number of games played from each position */
+	private static final int GAMES_PER_POSITION = 40;
+
+	/** The most plies each game goes on for */
+	private static final int MAX_PLIES = 80;
+
+	/** One in this many boards is skipped, rather than checked */
+	private static final int SKIP_RATE = 3;
+
+	/** The positions the games start from */
+	private static final String[] STARTING_POSITIONS = {
+			Constants.STANDARD_START_POSITION,
+			"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+			"8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+			"n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1"
+	};
+
+	/**
+	 * Checks a network
+	 * @param args Optionally, the weights file to check. Without one, a random network is checked
+	 * @throws IOException If the temporary file for the random network can't be made
+	 */
+	public static void main(String[] args) throws IOException {
+		String filepath;
+		if (args.length > 0) {
+			filepath = args[0];
+		} else {
+			Path file = Files.createTempFile("network", ".nnue");
+			file.toFile().deleteOnExit();
+			filepath = file.toString();
+			NetworkWeights.writeRandomWeights(filepath, ACCUMULATOR_SIZE, HIDDEN_SIZE, SEED);
+		}
+		NetworkWeights weights = new NetworkWeights(filepath);
+		NetworkEvaluation evaluator = new NetworkEvaluation(weights);
+		short[] expected = new short[weights.getAccumulatorSize()];
+		Random random = new Random(SEED);
+		long checks = 0;
+		for (String fen : STARTING_POSITIONS) {
+			for (int game = 0; game < GAMES_PER_POSITION; game++) {
+				Board board = BOARD_BUILDER_CONSTRUCTOR.apply(fen).build();
+				evaluator.evaluateBoard(board);
+				for (int ply = 0; ply < MAX_PLIES && !board.getLegalMoves().isEmpty(); ply++) {
+					List<Move> moves = new ArrayList<>();
+					board.getLegalMoves().forEach(moves::add);
+					board = board.performMove(moves.get(random.nextInt(moves.size())));
+					if (random.nextInt(SKIP_RATE) == 0) {
+						continue;
+					}
+					Accumulator accumulator = evaluator.getAccumulatorTable().probe(board);
+					for (Color perspective : Color.values()) {
+						FeatureTransformer.refresh(board, perspective, expected, weights);
+						if (!Arrays.equals(expected, accumulator.getValues(perspective.isWhite()))) {
+							System.out.println("The accumulator for " + perspective + " doesn't match a refresh after "
+									+ board.lastMove() + " in:\n" + board);
+							System.exit(1);
+						}
+					}
+					int evaluation = evaluator.evaluateBoard(board);
+					int freshEvaluation = new NetworkEvaluation(weights).evaluateBoard(board);
+					if (evaluation != freshEvaluation) {
+						System.out.println("The evaluation is " + evaluation + ", but a fresh evaluator gives " + freshEvaluation
+								+ " for:\n" + board);
+						System.exit(1);
+					}
+					checks++;
+				}
+			}
+		}
+		AccumulatorTable table = evaluator.getAccumulatorTable();
+		System.out.println("All " + checks + " boards match. The table was probed " + table.getProbes() + " times, with "
+				+ table.getHits() + " hits and " + table.getRefreshes() + " refreshes");
+	}
+}
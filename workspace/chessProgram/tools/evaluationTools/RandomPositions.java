@@ -0,0 +1,54 @@
+package evaluationTools;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import moves.Move;
+import representation.Board;
+import support.Constants;
+
+import static support.Constructors.*;
+
+/**
+ * Makes positions to check and time evaluators on, by playing random games from a few starting positions and keeping every position
+ * in them that isn't over. The same seed always gives the same positions.
+ * @author matthewslesinski
+ *
+ */
+public class RandomPositions {
+
+	/** The positions the games usually start from: the start of a game, a middlegame full of tactics, and an endgame */
+	public static final String[] STARTING_POSITIONS = {
+			Constants.STANDARD_START_POSITION,
+			"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+			"8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1"
+	};
+
+	/**
+	 * Plays random games and keeps the positions in them that aren't over
+	 * @param startingPositions The FENs of the positions the games start from
+	 * @param gamesPerPosition The number of games played from each position
+	 * @param maxPlies The most plies each game goes on for
+	 * @param seed The seed of the random moves
+	 * @return The positions, in the order they were played
+	 */
+	public static List<Board> generate(String[] startingPositions, int gamesPerPosition, int maxPlies, long seed) {
+		Random random = new Random(seed);
+		List<Board> boards = new ArrayList<>();
+		for (String fen : startingPositions) {
+			for (int game = 0; game < gamesPerPosition; game++) {
+				Board board = BOARD_BUILDER_CONSTRUCTOR.apply(fen).build();
+				for (int ply = 0; ply < maxPlies && !board.getLegalMoves().isEmpty(); ply++) {
+					List<Move> moves = new ArrayList<>();
+					board.getLegalMoves().forEach(moves::add);
+					board = board.performMove(moves.get(random.nextInt(moves.size())));
+					if (!board.getLegalMoves().isEmpty()) {
+						boards.add(board);
+					}
+				}
+			}
+		}
+		return boards;
+	}
+}